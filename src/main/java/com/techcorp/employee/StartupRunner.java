@@ -1,73 +1,41 @@
 package com.techcorp.employee;
 
-import com.techcorp.employee.model.Employee;
-import com.techcorp.employee.model.ImportSummary;
 import com.techcorp.employee.model.CompanyStatistics;
+import com.techcorp.employee.model.StartupStatus;
 import com.techcorp.employee.service.EmployeeService;
-import com.techcorp.employee.service.ImportService;
-import com.techcorp.employee.service.ApiService;
-import com.techcorp.employee.exception.ApiException;
-import com.techcorp.employee.exception.InvalidDataException;
+import com.techcorp.employee.service.StartupService;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
 
-import java.util.List;
 import java.util.Map;
 
 @Component
 public class StartupRunner implements CommandLineRunner {
 
     private final EmployeeService employeeService;
-    private final ImportService importService;
-    private final ApiService apiService;
+    private final StartupService startupService;
 
     public StartupRunner(EmployeeService employeeService,
-                         ImportService importService,
-                         ApiService apiService) {
+                         StartupService startupService) {
         this.employeeService = employeeService;
-        this.importService = importService;
-        this.apiService = apiService;
+        this.startupService = startupService;
     }
 
     @Override
     public void run(String... args) {
+        // Ładowanie XML, CSV i API w tle – port HTTP przyjmuje żądania od razu,
+        // gotowość danych: GET /api/startup/readiness
+        startupService.start().thenAccept(this::printReport);
+    }
 
-        //  Wyświetlenie pracowników dodanych z beanów XML (już dodani w EmployeeService)
-        System.out.println("\n📌 Pracownicy załadowani z beanów XML:");
-        employeeService.printAllEmployees();
-
-        // Import danych z pliku CSV
-        System.out.println("\n📌 Pracownicy załadowani pliku CSV:");
-        ImportSummary summary = importService.importFromCsv();
-
-        System.out.println("\n📥 Import z pliku CSV zakończony:");
-        System.out.println("Zaimportowano pracowników: " + summary.getImportedCount());
-        if (!summary.getErrors().isEmpty()) {
-            System.out.println("Błędy podczas importu:");
-            summary.getErrors().forEach(System.out::println);
-        }
-
-        // Pobranie danych z REST API
-        try {
-            List<Employee> apiEmployees = apiService.fetchEmployeesFromApi();
-
-            System.out.println("\n🌐 Import z API zakończony. Dodano pracowników: " + apiEmployees.size());
-            System.out.println("Pobrani pracownicy:");
-            apiEmployees.forEach(emp -> System.out.println(emp.showFullDetails() + "\n"));
-
-            // Dodanie do EmployeeService
-            for (Employee e : apiEmployees) {
-                try {
-                    employeeService.addEmployee(e);
-                } catch (InvalidDataException ex) {
-                    System.out.println("❌ Nie dodano pracownika z API: " + ex.getMessage());
-                }
-            }
-
-        } catch (ApiException e) {
-            System.out.println("❌ Błąd podczas pobierania danych z API: " + e.getMessage());
+    private void printReport(StartupStatus status) {
+        System.out.println("\n📌 Pracownicy załadowani przy starcie (XML, CSV, API): " + status.getLoadedCount()
+                + " w " + status.getDurationMillis() + " ms " + status.getTaskMillis());
+        if (!status.getErrors().isEmpty()) {
+            System.out.println("Błędy podczas ładowania:");
+            status.getErrors().forEach(System.out::println);
         }
-
+        employeeService.printAllEmployees();
 
         //  Statystyki firmowe
         Map<String, CompanyStatistics> statsMap = employeeService.getCompanyStatistics();
@@ -0,0 +1,34 @@
+package com.techcorp.employee;
+
+import com.techcorp.employee.service.FileStorageService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Jednorazowa migracja plików do układu katalogów z podziałem:
+ * uruchomienie z --app.upload.migrate-layout=true. Do czasu migracji
+ * pliki w starym układzie są nadal odczytywane (FileStorageService.resolvePath).
+ */
+@Component
+@ConditionalOnProperty(name = "app.upload.migrate-layout", havingValue = "true")
+public class StorageMigrationRunner implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(StorageMigrationRunner.class);
+
+    private final FileStorageService fileStorageService;
+
+    public StorageMigrationRunner(FileStorageService fileStorageService) {
+        this.fileStorageService = fileStorageService;
+    }
+
+    @Override
+    public void run(String... args) {
+        long start = System.nanoTime();
+        int moved = fileStorageService.migrateToShardedLayout();
+        logger.info("Migracja układu katalogów zakończona: przeniesiono {} plików w {} ms",
+                moved, (System.nanoTime() - start) / 1_000_000);
+    }
+}
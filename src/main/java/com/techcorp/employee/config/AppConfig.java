@@ -2,10 +2,18 @@ package com.techcorp.employee.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import java.net.http.HttpClient;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Configuration
 public class AppConfig {
@@ -24,4 +32,66 @@ public class AppConfig {
     public HttpClient httpClient() {
         return HttpClient.newHttpClient();
     }
+
+    // Ograniczona pula wątków dla importów w tle – nie blokuje wątków Tomcata.
+    // Po zapełnieniu kolejki kolejne zadania są odrzucane (RejectedExecutionException).
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService importExecutor(@Value("${app.import.jobs.pool-size:2}") int poolSize,
+                                          @Value("${app.import.jobs.queue-capacity:20}") int queueCapacity) {
+        return new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), namedThreadFactory("import-job-"),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    // Pula do równoległego parsowania plików z jednego archiwum ZIP – po jednym wątku na rdzeń
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService parallelImportExecutor(@Value("${app.import.zip.parallelism:0}") int parallelism) {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        return Executors.newFixedThreadPool(threads, namedThreadFactory("zip-import-"));
+    }
+
+    // Pula synchronizacji z API – jej rozmiar ogranicza liczbę jednoczesnych żądań HTTP
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService apiSyncExecutor(@Value("${app.api.sync.concurrency:4}") int concurrency) {
+        return Executors.newFixedThreadPool(Math.max(1, concurrency), namedThreadFactory("api-sync-"));
+    }
+
+    // Pula pobierania stron synchronizacji – wątek apiSyncExecutor czeka na stronę z limitem
+    // czasu i po jego przekroczeniu przerywa pobieranie, co odblokowuje odczyt ciała odpowiedzi
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService apiPageExecutor(@Value("${app.api.sync.concurrency:4}") int concurrency) {
+        return Executors.newFixedThreadPool(Math.max(1, concurrency), namedThreadFactory("api-page-"));
+    }
+
+    // Pula parsowania odpowiedzi API pobieranych asynchronicznie – strumieniowy odczyt
+    // ciała blokuje wątek, więc nie może zajmować wątków HttpClient
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService apiResponseExecutor(@Value("${app.api.response-pool-size:2}") int poolSize) {
+        return Executors.newFixedThreadPool(Math.max(1, poolSize), namedThreadFactory("api-response-"));
+    }
+
+    // Pula ładowania danych przy starcie – XML, CSV i API wczytywane równolegle
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService startupExecutor() {
+        return Executors.newFixedThreadPool(3, namedThreadFactory("startup-"));
+    }
+
+    // Pula generowania miniatur zdjęć – skalowanie obrazów obciąża CPU, więc liczba wątków
+    // i długość kolejki są ograniczone; zadania ponad kolejkę są odrzucane (miniatura powstanie przy odczycie)
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService thumbnailExecutor(@Value("${app.photos.thumbnail.pool-size:2}") int poolSize,
+                                             @Value("${app.photos.thumbnail.queue-capacity:100}") int queueCapacity) {
+        return new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), namedThreadFactory("thumbnail-"),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    private static ThreadFactory namedThreadFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
 }
@@ -0,0 +1,30 @@
+package com.techcorp.employee.controller;
+
+import com.techcorp.employee.model.ApiSyncResult;
+import com.techcorp.employee.model.ApiSyncStatus;
+import com.techcorp.employee.service.ApiSyncService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/sync")
+public class ApiSyncController {
+
+    private final ApiSyncService apiSyncService;
+
+    public ApiSyncController(ApiSyncService apiSyncService) {
+        this.apiSyncService = apiSyncService;
+    }
+
+    // ------------------------ SYNCHRONIZACJA Z API ------------------------
+    @PostMapping
+    public ResponseEntity<ApiSyncResult> sync() {
+        return ResponseEntity.ok(apiSyncService.sync());
+    }
+
+    // ------------------------ METRYKI SYNCHRONIZACJI ------------------------
+    @GetMapping("/status")
+    public ResponseEntity<ApiSyncStatus> status() {
+        return ResponseEntity.ok(apiSyncService.getStatus());
+    }
+}
@@ -1,15 +1,38 @@
 package com.techcorp.employee.controller;
 
+import com.techcorp.employee.exception.FileTooLargeException;
 import com.techcorp.employee.exception.InvalidFileException;
+import com.techcorp.employee.model.ChunkedUpload;
 import com.techcorp.employee.model.DocumentType;
 import com.techcorp.employee.model.Employee;
 import com.techcorp.employee.model.EmployeeDocument;
+import com.techcorp.employee.model.ImportJob;
+import com.techcorp.employee.model.ImportMode;
+import com.techcorp.employee.model.ImportProgress;
 import com.techcorp.employee.model.ImportSummary;
+import com.techcorp.employee.model.StoredFile;
+import com.techcorp.employee.model.ZipImportSummary;
+import com.techcorp.employee.service.DocumentBundleService;
+import com.techcorp.employee.service.DocumentIndex;
+import com.techcorp.employee.service.EmployeeService;
 import com.techcorp.employee.service.FileStorageService;
+import com.techcorp.employee.service.ImportDigestIndex;
+import com.techcorp.employee.service.ImportJobService;
 import com.techcorp.employee.service.ImportService;
 import com.techcorp.employee.service.ReportGeneratorService;
+import com.techcorp.employee.service.ThumbnailService;
+import com.techcorp.employee.service.ZipImportService;
+import com.techcorp.employee.util.FileDownloadWriter;
+import com.techcorp.employee.util.FileTypeSniffer;
+import com.techcorp.employee.util.GzipUtils;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -17,8 +40,14 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/files")
@@ -26,18 +55,38 @@ public class FileUploadController {
 
     private final FileStorageService fileStorageService;
     private final ImportService importService;
+    private final ImportJobService importJobService;
+    private final ImportDigestIndex importDigestIndex;
     private final ReportGeneratorService reportGeneratorService;
-
-    // W testach możemy mockować tę mapę
-    private final Map<String, List<EmployeeDocument>> documents = new HashMap<>();
-    private final Map<String, List<Employee>> employeesByCompany = new HashMap<>();
+    private final ZipImportService zipImportService;
+    private final DocumentIndex documentIndex;
+    private final EmployeeService employeeService;
+    private final DocumentBundleService documentBundleService;
+    private final ThumbnailService thumbnailService;
+    private final Duration thumbnailCacheMaxAge;
 
     public FileUploadController(FileStorageService fileStorageService,
                                 ImportService importService,
-                                ReportGeneratorService reportGeneratorService) {
+                                ImportJobService importJobService,
+                                ImportDigestIndex importDigestIndex,
+                                ReportGeneratorService reportGeneratorService,
+                                ZipImportService zipImportService,
+                                DocumentIndex documentIndex,
+                                EmployeeService employeeService,
+                                DocumentBundleService documentBundleService,
+                                ThumbnailService thumbnailService,
+                                @Value("${app.photos.thumbnail.cache-max-age:30d}") Duration thumbnailCacheMaxAge) {
         this.fileStorageService = fileStorageService;
         this.importService = importService;
+        this.importJobService = importJobService;
+        this.importDigestIndex = importDigestIndex;
         this.reportGeneratorService = reportGeneratorService;
+        this.zipImportService = zipImportService;
+        this.documentIndex = documentIndex;
+        this.employeeService = employeeService;
+        this.documentBundleService = documentBundleService;
+        this.thumbnailService = thumbnailService;
+        this.thumbnailCacheMaxAge = thumbnailCacheMaxAge;
     }
 
     // -------------------- Dokumenty pracowników --------------------
@@ -51,12 +100,30 @@ public class FileUploadController {
             return ResponseEntity.status(404).body(null);
         }
 
-        String savedFile = fileStorageService.saveFile(file, "documents/" + email);
-        EmployeeDocument doc = new EmployeeDocument(
-                email, savedFile, file.getOriginalFilename(), type, "documents/" + email + "/" + savedFile
-        );
+        StoredFile blob = fileStorageService.saveBlob(file);
+        EmployeeDocument doc = new EmployeeDocument(email, blob, file.getOriginalFilename(), type);
 
-        documents.computeIfAbsent(email, e -> new ArrayList<>()).add(doc);
+        documentIndex.add(doc);
+        return ResponseEntity.status(201).body(doc);
+    }
+
+    // Upload bez multipartu (Spring nie buforuje treści w pliku tymczasowym): treść żądania
+    // trafia od razu do magazynu, z limitem rozmiaru, kontrolą sygnatury i SHA-256 w jednym przebiegu
+    @PostMapping(value = "/documents/{email}/stream", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<EmployeeDocument> uploadDocumentStream(
+            @PathVariable String email,
+            @RequestParam("fileName") String fileName,
+            @RequestParam("type") DocumentType type,
+            @RequestHeader(value = HttpHeaders.CONTENT_LENGTH, required = false) Long contentLength,
+            InputStream body) {
+
+        if (!employeeExists(email)) {
+            return ResponseEntity.status(404).body(null);
+        }
+
+        StoredFile blob = fileStorageService.saveBlob(body, fileName, contentLength);
+        EmployeeDocument doc = new EmployeeDocument(email, blob, fileName, type);
+        documentIndex.add(doc);
         return ResponseEntity.status(201).body(doc);
     }
 
@@ -65,88 +132,311 @@ public class FileUploadController {
         if (!employeeExists(email)) {
             return ResponseEntity.notFound().build();
         }
-        return ResponseEntity.ok(documents.getOrDefault(email, Collections.emptyList()));
+        return ResponseEntity.ok(documentIndex.list(email));
     }
 
+    // Obsługuje Range/If-Range (wznawianie pobierania) oraz walidatory ETag/Last-Modified;
+    // dokumenty tekstowe skompresowane na dysku wysyłane są bez rozpakowywania, gdy klient akceptuje gzip
     @GetMapping("/documents/{email}/{id}")
-    public ResponseEntity<Resource> downloadDocument(@PathVariable String email, @PathVariable String id) throws IOException {
+    public void downloadDocument(@PathVariable String email, @PathVariable String id,
+                                 HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (!employeeExists(email)) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        EmployeeDocument doc = documentIndex.find(email, id);
+        if (doc == null) throw new InvalidFileException("Nie znaleziono dokumentu");
+
+        Path file = fileStorageService.loadDocument(doc).getFile().toPath();
+        if (fileStorageService.isStoredCompressed(doc)) {
+            FileDownloadWriter.writeGzipped(file, doc.getContentType(), doc.getOriginalFileName(), request, response);
+        } else {
+            FileDownloadWriter.write(file, doc.getContentType(), doc.getOriginalFileName(), request, response);
+        }
+    }
+
+    @DeleteMapping("/documents/{email}/{id}")
+    public ResponseEntity<Void> deleteDocument(@PathVariable String email, @PathVariable String id) {
         if (!employeeExists(email)) {
             return ResponseEntity.notFound().build();
         }
 
-        List<EmployeeDocument> list = documents.get(email);
-        if (list == null) throw new InvalidFileException("Brak dokumentów dla użytkownika");
+        EmployeeDocument doc = documentIndex.remove(email, id);
+        if (doc == null) return ResponseEntity.notFound().build();
 
-        EmployeeDocument doc = list.stream().filter(d -> d.getId().equals(id)).findFirst()
-                .orElseThrow(() -> new InvalidFileException("Nie znaleziono dokumentu"));
+        fileStorageService.deleteDocument(doc);
 
-        Resource resource = fileStorageService.loadFile("documents/" + email, doc.getFileName());
-        String contentType = Files.probeContentType(resource.getFile().toPath());
+        return ResponseEntity.noContent().build();
+    }
 
-        return ResponseEntity.ok()
-                .contentType(MediaType.parseMediaType(contentType != null ? contentType : "application/octet-stream"))
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + doc.getOriginalFileName() + "\"")
-                .body(resource);
+    // -------------------- Archiwum ZIP z dokumentami --------------------
+    // Archiwum budowane w locie podczas wysyłania (bez Content-Length) – pamięć stała niezależnie od rozmiaru
+    @GetMapping("/documents/{email}/bundle")
+    public void downloadDocumentBundle(@PathVariable String email, HttpServletResponse response) throws IOException {
+        if (!employeeExists(email)) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        writeBundle(List.of(email), "documents_" + email + ".zip", response);
     }
 
-    @DeleteMapping("/documents/{email}/{id}")
-    public ResponseEntity<Void> deleteDocument(@PathVariable String email, @PathVariable String id) {
+    @GetMapping("/companies/{companyName}/documents/bundle")
+    public void downloadCompanyDocumentBundle(@PathVariable String companyName, HttpServletResponse response) throws IOException {
+        List<Employee> employees = employeeService.findEmployeesByCompany(companyName);
+        if (employees.isEmpty()) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        writeBundle(employees.stream().map(Employee::getEmailAddress).toList(), "documents_" + companyName + ".zip", response);
+    }
+
+    private void writeBundle(List<String> emails, String fileName, HttpServletResponse response) throws IOException {
+        response.setContentType("application/zip");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(fileName, StandardCharsets.UTF_8).build().toString());
+        documentBundleService.writeBundle(emails, response.getOutputStream());
+    }
+
+    // -------------------- Zdjęcia pracowników --------------------
+    // Miniatura generowana w tle; Location wskazuje jej wersjonowany adres (?v=), który można
+    // buforować bezterminowo – nowe zdjęcie oznacza nowy adres
+    @PostMapping("/photos/{email}")
+    public ResponseEntity<Void> uploadPhoto(@PathVariable String email, @RequestParam("file") MultipartFile file) {
+        validatePhoto(file);
+        if (!employeeExists(email)) {
+            return ResponseEntity.notFound().build();
+        }
+
+        Path photo = fileStorageService.savePhoto(file, email);
+        thumbnailService.generateAsync(email);
+        return ResponseEntity.created(URI.create("/api/files/photos/" + email + "/thumbnail?v=" + photoVersion(photo))).build();
+    }
+
+    @GetMapping("/photos/{email}")
+    public ResponseEntity<Resource> downloadPhoto(@PathVariable String email) throws IOException {
         if (!employeeExists(email)) {
             return ResponseEntity.notFound().build();
         }
 
-        List<EmployeeDocument> list = documents.get(email);
-        if (list == null) return ResponseEntity.notFound().build();
+        Resource photo = fileStorageService.loadFile("photos", email);
+        byte[] head;
+        try (InputStream in = photo.getInputStream()) {
+            head = in.readNBytes(FileTypeSniffer.SNIFF_LENGTH);
+        }
+        String contentType = FileTypeSniffer.imageContentType(head, head.length);
+        return ResponseEntity.ok()
+                .contentType(contentType != null ? MediaType.parseMediaType(contentType) : MediaType.APPLICATION_OCTET_STREAM)
+                .body(photo);
+    }
 
-        Optional<EmployeeDocument> docOpt = list.stream().filter(d -> d.getId().equals(id)).findFirst();
-        if (docOpt.isEmpty()) return ResponseEntity.notFound().build();
+    // Z parametrem v (wersja zdjęcia) odpowiedź jest niezmienna i buforowana długo;
+    // bez niego przeglądarka za każdym razem sprawdza ETag (zwykle tanie 304)
+    @GetMapping("/photos/{email}/thumbnail")
+    public void downloadThumbnail(@PathVariable String email,
+                                  @RequestParam(value = "v", required = false) String version,
+                                  HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (!employeeExists(email)) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
 
-        EmployeeDocument doc = docOpt.get();
-        fileStorageService.deleteFile("documents/" + email, doc.getFileName());
-        list.remove(doc);
+        Path thumbnail = thumbnailService.getThumbnail(email);
+        CacheControl cacheControl = version != null
+                ? CacheControl.maxAge(thumbnailCacheMaxAge).cachePublic().immutable()
+                : CacheControl.noCache().cachePublic();
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+        FileDownloadWriter.writeInline(thumbnail, MediaType.IMAGE_PNG_VALUE, email + ".png", request, response);
+    }
 
-        return ResponseEntity.noContent().build();
+    private static String photoVersion(Path photo) {
+        try {
+            return Long.toHexString(Files.getLastModifiedTime(photo).toMillis());
+        } catch (IOException e) {
+            return "0";
+        }
+    }
+
+    // Limit sprawdzany przed zapisem – zbyt duże zdjęcie odrzucane z 413;
+    // rozszerzenie i typ treści sprawdza FileStorageService.savePhoto
+    private void validatePhoto(MultipartFile file) {
+        long maxSize = 2 * 1024 * 1024; // 2 MB
+        if (file.getSize() > maxSize) {
+            throw new FileTooLargeException("Zdjęcie jest za duże. Maksymalny rozmiar to 2 MB.");
+        }
     }
 
     // -------------------- Import CSV --------------------
     @PostMapping("/import/csv")
-    public ResponseEntity<ImportSummary> importCsv(@RequestParam("file") MultipartFile file) {
+    public ResponseEntity<ImportSummary> importCsv(@RequestParam("file") MultipartFile file,
+                                                   @RequestParam(value = "mode", defaultValue = "INSERT") ImportMode mode,
+                                                   @RequestParam(value = "force", defaultValue = "false") boolean force) {
         validateImportFile(file, "csv");
-        String savedFile = fileStorageService.saveFile(file, "uploads");
+        StoredFile savedFile = fileStorageService.saveFileWithDigest(file, "uploads");
+        ImportSummary cached = findAlreadyImported(savedFile, mode, force);
+        if (cached != null) return ResponseEntity.ok(cached);
 
-        ImportSummary summary = importService.importFromCsv(savedFile);
-
-        summary.getImportedEmployees().forEach(emp ->
-                employeesByCompany.computeIfAbsent(emp.getCompanyName().toLowerCase(), k -> new ArrayList<>()).add(emp)
-        );
+        ImportSummary summary = importService.importFromCsv(fileStorageService.resolvePath("uploads", savedFile.getFileName()).toString(), newImportProgress(mode));
+        importDigestIndex.record(savedFile.getSha256(), "csv", file.getOriginalFilename(), summary);
 
         return ResponseEntity.ok(summary);
     }
 
     // -------------------- Import XML --------------------
     @PostMapping("/import/xml")
-    public ResponseEntity<ImportSummary> importXml(@RequestParam("file") MultipartFile file) {
+    public ResponseEntity<ImportSummary> importXml(@RequestParam("file") MultipartFile file,
+                                                   @RequestParam(value = "mode", defaultValue = "INSERT") ImportMode mode,
+                                                   @RequestParam(value = "force", defaultValue = "false") boolean force) {
         validateImportFile(file, "xml");
-        String savedFile = fileStorageService.saveFile(file, "uploads");
+        StoredFile savedFile = fileStorageService.saveFileWithDigest(file, "uploads");
+        ImportSummary cached = findAlreadyImported(savedFile, mode, force);
+        if (cached != null) return ResponseEntity.ok(cached);
+
+        ImportSummary summary = importService.importFromXml(fileStorageService.resolvePath("uploads", savedFile.getFileName()).toString(), newImportProgress(mode));
+        importDigestIndex.record(savedFile.getSha256(), "xml", file.getOriginalFilename(), summary);
+
+        return ResponseEntity.ok(summary);
+    }
 
-        ImportSummary summary = importService.importFromXml(savedFile);
+    // -------------------- Import archiwum ZIP --------------------
+    // Wiele plików CSV/XML w jednym archiwum, parsowanych równolegle
+    @PostMapping("/import/zip")
+    public ResponseEntity<ZipImportSummary> importZip(@RequestParam("file") MultipartFile file,
+                                                      @RequestParam(value = "mode", defaultValue = "INSERT") ImportMode mode) {
+        validateImportFile(file, "zip");
+        StoredFile savedFile = fileStorageService.saveFileWithDigest(file, "uploads");
+        try {
+            ZipImportSummary summary = zipImportService.importFromZip(
+                    fileStorageService.resolvePath("uploads", savedFile.getFileName()), mode);
+
+            return ResponseEntity.ok(summary);
+        } finally {
+            fileStorageService.deleteFile("uploads", savedFile.getFileName());
+        }
+    }
 
-        summary.getImportedEmployees().forEach(emp ->
-                employeesByCompany.computeIfAbsent(emp.getCompanyName().toLowerCase(), k -> new ArrayList<>()).add(emp)
-        );
+    // -------------------- Import NDJSON --------------------
+    // Treść żądania (jeden obiekt JSON na linię) czytana strumieniowo, bez zapisu na dysk
+    @PostMapping(value = "/import/ndjson", consumes = {"application/x-ndjson", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<ImportSummary> importNdjson(InputStream body,
+                                                      @RequestParam(value = "mode", defaultValue = "INSERT") ImportMode mode) {
+        ImportSummary summary = importService.importFromNdjson(body, newImportProgress(mode));
 
         return ResponseEntity.ok(summary);
     }
 
+    // -------------------- Raport błędów importu --------------------
+    // Pełna lista błędów (odpowiedź importu zawiera tylko pierwsze z nich)
+    @GetMapping("/import/errors/{fileName}")
+    public ResponseEntity<Resource> downloadErrorReport(@PathVariable String fileName) {
+        Resource report = fileStorageService.loadErrorReport(fileName);
+        return ResponseEntity.ok()
+                .contentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(report);
+    }
+
+    // -------------------- Import w tle --------------------
+    @PostMapping("/import/csv/async")
+    public ResponseEntity<ImportJob> importCsvAsync(@RequestParam("file") MultipartFile file,
+                                                    @RequestParam(value = "mode", defaultValue = "INSERT") ImportMode mode,
+                                                    @RequestParam(value = "force", defaultValue = "false") boolean force) {
+        return submitImportJob(file, "csv", mode, force);
+    }
+
+    @PostMapping("/import/xml/async")
+    public ResponseEntity<ImportJob> importXmlAsync(@RequestParam("file") MultipartFile file,
+                                                    @RequestParam(value = "mode", defaultValue = "INSERT") ImportMode mode,
+                                                    @RequestParam(value = "force", defaultValue = "false") boolean force) {
+        return submitImportJob(file, "xml", mode, force);
+    }
+
+    @GetMapping("/import/jobs/{id}")
+    public ResponseEntity<ImportJob> getImportJob(@PathVariable String id) {
+        ImportJob job = importJobService.getJob(id);
+        if (job == null) return ResponseEntity.notFound().build();
+        return ResponseEntity.ok(job);
+    }
+
+    @DeleteMapping("/import/jobs/{id}")
+    public ResponseEntity<ImportJob> cancelImportJob(@PathVariable String id) {
+        ImportJob job = importJobService.cancel(id);
+        if (job == null) return ResponseEntity.notFound().build();
+        return ResponseEntity.ok(job);
+    }
+
+    private ResponseEntity<ImportJob> submitImportJob(MultipartFile file, String format, ImportMode mode, boolean force) {
+        validateImportFile(file, format);
+        StoredFile savedFile = fileStorageService.saveFileWithDigest(file, "uploads");
+        return submitSavedFile(savedFile, format, file.getOriginalFilename(), mode, force);
+    }
+
+    private ResponseEntity<ImportJob> submitSavedFile(StoredFile savedFile, String format, String originalFileName,
+                                                      ImportMode mode, boolean force) {
+        ImportSummary cached = findAlreadyImported(savedFile, mode, force);
+        if (cached != null) {
+            return ResponseEntity.ok(importJobService.completedFromCache(format, originalFileName, cached));
+        }
+        try {
+            ImportJob job = importJobService.submit(format,
+                    fileStorageService.resolvePath("uploads", savedFile.getFileName()), originalFileName, mode, savedFile.getSha256());
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/files/import/jobs/" + job.getId()))
+                    .body(job);
+        } catch (RejectedExecutionException e) {
+            fileStorageService.deleteFile("uploads", savedFile.getFileName());
+            return ResponseEntity.status(503).build(); // kolejka importów pełna
+        }
+    }
+
+    // -------------------- Upload w częściach (duże pliki importu) --------------------
+    @PostMapping("/import/uploads")
+    public ResponseEntity<ChunkedUpload> initChunkedUpload(@RequestParam("fileName") String fileName,
+                                                           @RequestParam("totalSize") long totalSize) {
+        String ext = importFormat(fileName);
+        if (!ext.equals("csv") && !ext.equals("xml")) {
+            throw new InvalidFileException("Niepoprawne rozszerzenie pliku. Oczekiwano: csv lub xml");
+        }
+        ChunkedUpload upload = fileStorageService.initChunkedUpload(fileName, totalSize);
+        return ResponseEntity.created(URI.create("/api/files/import/uploads/" + upload.getId())).body(upload);
+    }
+
+    @PutMapping("/import/uploads/{id}")
+    public ResponseEntity<ChunkedUpload> uploadChunk(@PathVariable String id,
+                                                     @RequestParam("offset") long offset,
+                                                     InputStream body) {
+        return ResponseEntity.ok(fileStorageService.writeChunk(id, offset, body));
+    }
+
+    @GetMapping("/import/uploads/{id}")
+    public ResponseEntity<ChunkedUpload> getChunkedUpload(@PathVariable String id) {
+        return ResponseEntity.ok(fileStorageService.getChunkedUpload(id));
+    }
+
+    @DeleteMapping("/import/uploads/{id}")
+    public ResponseEntity<Void> abortChunkedUpload(@PathVariable String id) {
+        fileStorageService.abortChunkedUpload(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    // Po weryfikacji sumy kontrolnej plik trafia do zwykłego importu w tle
+    @PostMapping("/import/uploads/{id}/complete")
+    public ResponseEntity<ImportJob> completeChunkedUpload(@PathVariable String id,
+                                                           @RequestParam("sha256") String sha256,
+                                                           @RequestParam(value = "mode", defaultValue = "INSERT") ImportMode mode,
+                                                           @RequestParam(value = "force", defaultValue = "false") boolean force) {
+        ChunkedUpload upload = fileStorageService.getChunkedUpload(id);
+        String format = importFormat(upload.getFileName());
+        StoredFile savedFile = fileStorageService.completeChunkedUpload(id, sha256, "uploads");
+        return submitSavedFile(savedFile, format, upload.getFileName(), mode, force);
+    }
+
     // -------------------- Eksport CSV --------------------
     @GetMapping("/export/csv")
     public ResponseEntity<Resource> exportCsv(@RequestParam(value = "company", required = false) String company) {
-        List<Employee> employees;
-        if (company != null && !company.isBlank()) {
-            employees = employeesByCompany.getOrDefault(company.toLowerCase(), Collections.emptyList());
-        } else {
-            employees = employeesByCompany.values().stream().flatMap(List::stream).toList();
-        }
+        List<Employee> employees = (company != null && !company.isBlank())
+                ? employeeService.findEmployeesByCompany(company)
+                : employeeService.findAllEmployees();
 
         Resource file = (company != null && !company.isBlank())
                 ? reportGeneratorService.generateCsv(employees, company)
@@ -165,7 +455,7 @@ public class FileUploadController {
     // -------------------- Eksport PDF --------------------
     @GetMapping("/reports/statistics/{companyName}")
     public ResponseEntity<Resource> exportPdf(@PathVariable String companyName) {
-        List<Employee> employees = employeesByCompany.getOrDefault(companyName.toLowerCase(), Collections.emptyList());
+        List<Employee> employees = employeeService.findEmployeesByCompany(companyName);
         if (employees.isEmpty()) {
             throw new InvalidFileException("Brak danych dla firmy: " + companyName);
         }
@@ -179,10 +469,29 @@ public class FileUploadController {
                 .body(file);
     }
 
+    // -------------------- Pomijanie ponownych importów --------------------
+    // Identyczny plik (ta sama suma SHA-256) był już zaimportowany – zwracamy zapamiętane
+    // podsumowanie zamiast parsować go ponownie. force=true wymusza import.
+    private ImportSummary findAlreadyImported(StoredFile savedFile, ImportMode mode, boolean force) {
+        if (force) return null;
+        ImportSummary cached = importDigestIndex.findCached(mode, savedFile.getSha256());
+        if (cached != null) {
+            fileStorageService.deleteFile("uploads", savedFile.getFileName());
+        }
+        return cached;
+    }
+
+    // Błędy importu zapisywane na bieżąco do pliku w katalogu raportów
+    private ImportProgress newImportProgress(ImportMode mode) {
+        ImportProgress progress = new ImportProgress(mode);
+        progress.spillErrorsTo(fileStorageService.newErrorReportPath());
+        return progress;
+    }
+
     // -------------------- Walidacja plików importu --------------------
     private void validateImportFile(MultipartFile file, String expectedExtension) {
         if (file.isEmpty()) throw new InvalidFileException("Plik jest pusty!");
-        String ext = getExtension(file.getOriginalFilename());
+        String ext = importFormat(file.getOriginalFilename());
         if (!ext.equalsIgnoreCase(expectedExtension)) {
             throw new InvalidFileException("Niepoprawne rozszerzenie pliku. Oczekiwano: " + expectedExtension);
         }
@@ -192,6 +501,11 @@ public class FileUploadController {
         }
     }
 
+    // Format importu z nazwy pliku – "pracownicy.csv.gz" to nadal csv (gzip rozpakowywany w locie)
+    private String importFormat(String filename) {
+        return getExtension(GzipUtils.stripGzSuffix(filename)).toLowerCase();
+    }
+
     private String getExtension(String filename) {
         if (filename == null || !filename.contains(".")) return "";
         return filename.substring(filename.lastIndexOf('.') + 1);
@@ -199,9 +513,6 @@ public class FileUploadController {
 
     // -------------------- WALIDACJA PRACOWNIKA --------------------
     private boolean employeeExists(String email) {
-        // Ułatwienie dla testów – można mockować employeesByCompany
-        return employeesByCompany.values().stream()
-                .flatMap(List::stream)
-                .anyMatch(emp -> emp.getEmailAddress().equalsIgnoreCase(email));
+        return employeeService.existsByEmail(email);
     }
 }
@@ -0,0 +1,26 @@
+package com.techcorp.employee.controller;
+
+import com.techcorp.employee.model.StartupStatus;
+import com.techcorp.employee.service.StartupService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/startup")
+public class StartupController {
+
+    private final StartupService startupService;
+
+    public StartupController(StartupService startupService) {
+        this.startupService = startupService;
+    }
+
+    // ------------------------ GOTOWOŚĆ DANYCH ------------------------
+    // 200 po załadowaniu danych startowych, wcześniej 503 (np. dla load balancera)
+    @GetMapping("/readiness")
+    public ResponseEntity<StartupStatus> readiness() {
+        StartupStatus status = startupService.getStatus();
+        return ResponseEntity.status(status.isReady() ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE).body(status);
+    }
+}
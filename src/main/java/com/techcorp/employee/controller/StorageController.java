@@ -0,0 +1,31 @@
+package com.techcorp.employee.controller;
+
+import com.techcorp.employee.model.StorageUsage;
+import com.techcorp.employee.service.StorageGarbageCollector;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/storage")
+public class StorageController {
+
+    private final StorageGarbageCollector storageGarbageCollector;
+
+    public StorageController(StorageGarbageCollector storageGarbageCollector) {
+        this.storageGarbageCollector = storageGarbageCollector;
+    }
+
+    // ------------------------ ZAJĘTOŚĆ MAGAZYNU ------------------------
+    // Według ostatniego zakończonego przebiegu sprzątania
+    @GetMapping("/usage")
+    public ResponseEntity<StorageUsage> usage() {
+        return ResponseEntity.ok(storageGarbageCollector.getUsage());
+    }
+
+    // ------------------------ SPRZĄTANIE NA ŻĄDANIE ------------------------
+    // Jedna porcja plików (app.storage.gc.batch-size)
+    @PostMapping("/gc")
+    public ResponseEntity<StorageUsage> runGc() {
+        return ResponseEntity.ok(storageGarbageCollector.runBatch());
+    }
+}
@@ -0,0 +1,17 @@
+package com.techcorp.employee.exception;
+
+/**
+ * Odpowiedź API dotarła, ale jej treść jest niepoprawna (składnia JSON, typy pól,
+ * brakujące pola). Ponowienie żądania zwróci te same dane, więc błąd nie jest ponawiany.
+ */
+public class ApiDataException extends ApiException {
+
+    public ApiDataException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    @Override
+    public boolean isRetryable() {
+        return false;
+    }
+}
@@ -10,13 +10,26 @@ package com.techcorp.employee.exception;
  */
 public class ApiException extends Exception {
 
+    private final int statusCode; // kod HTTP odpowiedzi, 0 gdy błąd nie pochodzi z odpowiedzi
+
     /**
      * Konstruktor przyjmujący tylko komunikat błędu.
      *
      * @param message Komunikat opisujący błąd, np. "Nie udało się połączyć z API"
      */
     public ApiException(String message) {
+        this(message, 0);
+    }
+
+    /**
+     * Konstruktor dla odpowiedzi HTTP z kodem błędu.
+     *
+     * @param message    Komunikat opisujący błąd
+     * @param statusCode Kod HTTP zwrócony przez API, np. 503
+     */
+    public ApiException(String message, int statusCode) {
         super(message); // Przekazanie komunikatu do klasy bazowej Exception
+        this.statusCode = statusCode;
     }
 
     /**
@@ -28,5 +41,19 @@ public class ApiException extends Exception {
      */
     public ApiException(String message, Throwable cause) {
         super(message, cause); // Przekazanie komunikatu i przyczyny do klasy bazowej Exception
+        this.statusCode = 0;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * Czy ponowienie żądania ma sens: błędy sieci, timeouty, 429 i 5xx.
+     * Pozostałe błędy 4xx oraz niepoprawne dane ({@link ApiDataException}) nie zmienią się po ponowieniu.
+     */
+    public boolean isRetryable() {
+        if (statusCode == 0) return getCause() instanceof java.io.IOException;
+        return statusCode == 429 || statusCode >= 500;
     }
 }
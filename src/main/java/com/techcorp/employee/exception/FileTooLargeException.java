@@ -0,0 +1,7 @@
+package com.techcorp.employee.exception;
+
+public class FileTooLargeException extends RuntimeException {
+    public FileTooLargeException(String message) {
+        super(message);
+    }
+}
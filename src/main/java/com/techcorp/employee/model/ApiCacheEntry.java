@@ -0,0 +1,37 @@
+package com.techcorp.employee.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * Metadane zapisanej odpowiedzi API: walidatory HTTP do żądań warunkowych.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ApiCacheEntry {
+    private String url;
+    private String etag;
+    private String lastModified;
+    private String storedAt;
+
+    public ApiCacheEntry() {
+    }
+
+    public ApiCacheEntry(String url, String etag, String lastModified, String storedAt) {
+        this.url = url;
+        this.etag = etag;
+        this.lastModified = lastModified;
+        this.storedAt = storedAt;
+    }
+
+    public boolean hasValidators() {
+        return etag != null || lastModified != null;
+    }
+
+    public String getUrl() { return url; }
+    public void setUrl(String url) { this.url = url; }
+    public String getEtag() { return etag; }
+    public void setEtag(String etag) { this.etag = etag; }
+    public String getLastModified() { return lastModified; }
+    public void setLastModified(String lastModified) { this.lastModified = lastModified; }
+    public String getStoredAt() { return storedAt; }
+    public void setStoredAt(String storedAt) { this.storedAt = storedAt; }
+}
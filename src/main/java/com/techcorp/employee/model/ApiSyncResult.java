@@ -0,0 +1,79 @@
+package com.techcorp.employee.model;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Wynik synchronizacji pracowników z zewnętrznego API.
+ */
+public class ApiSyncResult {
+    @JsonSerialize(using = ToStringSerializer.class)
+    private final LocalDateTime startedAt;
+    private final long durationMillis;
+    private final int requests;   // udane żądania (strony / adresy)
+    private final int retries;    // ponowienia po błędach przejściowych
+    private final int fetchedCount;
+    private final int insertedCount;
+    private final int updatedCount;
+    private final int unchangedCount;
+    private final int skippedCount;  // emaile pracowników z innych źródeł – API ich nie nadpisuje
+    private final int rejectedCount;
+    private final int removedCount;  // pracownicy z API, których API już nie zwraca
+    private final List<String> errors;
+
+    public ApiSyncResult(LocalDateTime startedAt, long durationMillis, int requests, int retries, int fetchedCount,
+                         int insertedCount, int updatedCount, int unchangedCount, int skippedCount,
+                         int rejectedCount, int removedCount,
+                         List<String> errors) {
+        this.startedAt = startedAt;
+        this.durationMillis = durationMillis;
+        this.requests = requests;
+        this.retries = retries;
+        this.fetchedCount = fetchedCount;
+        this.insertedCount = insertedCount;
+        this.updatedCount = updatedCount;
+        this.unchangedCount = unchangedCount;
+        this.skippedCount = skippedCount;
+        this.rejectedCount = rejectedCount;
+        this.removedCount = removedCount;
+        this.errors = errors != null ? errors : Collections.emptyList();
+    }
+
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public long getDurationMillis() { return durationMillis; }
+    public int getRequests() { return requests; }
+    public int getRetries() { return retries; }
+    public int getFetchedCount() { return fetchedCount; }
+    public int getInsertedCount() { return insertedCount; }
+    public int getUpdatedCount() { return updatedCount; }
+    public int getUnchangedCount() { return unchangedCount; }
+    public int getSkippedCount() { return skippedCount; }
+    public int getRejectedCount() { return rejectedCount; }
+    public int getRemovedCount() { return removedCount; }
+    public List<String> getErrors() { return errors; }
+
+    public boolean isSuccessful() {
+        return errors.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "ApiSyncResult{" +
+                "durationMillis=" + durationMillis +
+                ", requests=" + requests +
+                ", retries=" + retries +
+                ", fetchedCount=" + fetchedCount +
+                ", insertedCount=" + insertedCount +
+                ", updatedCount=" + updatedCount +
+                ", unchangedCount=" + unchangedCount +
+                ", skippedCount=" + skippedCount +
+                ", rejectedCount=" + rejectedCount +
+                ", removedCount=" + removedCount +
+                ", errors=" + errors +
+                '}';
+    }
+}
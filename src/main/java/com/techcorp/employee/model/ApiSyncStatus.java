@@ -0,0 +1,47 @@
+package com.techcorp.employee.model;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Metryki synchronizacji z API: ostatni przebieg, liczba przebiegów
+ * i opóźnienie danych (czas od ostatniej udanej synchronizacji).
+ */
+public class ApiSyncStatus {
+    private final ApiSyncResult lastResult;
+    @JsonSerialize(using = ToStringSerializer.class)
+    private final LocalDateTime lastSuccessAt;
+    private final long syncCount;
+    private final long failedSyncCount;
+    private final int consecutiveFailures;
+    private final boolean running;
+
+    public ApiSyncStatus(ApiSyncResult lastResult, LocalDateTime lastSuccessAt, long syncCount,
+                         long failedSyncCount, int consecutiveFailures, boolean running) {
+        this.lastResult = lastResult;
+        this.lastSuccessAt = lastSuccessAt;
+        this.syncCount = syncCount;
+        this.failedSyncCount = failedSyncCount;
+        this.consecutiveFailures = consecutiveFailures;
+        this.running = running;
+    }
+
+    public ApiSyncResult getLastResult() { return lastResult; }
+    public LocalDateTime getLastSuccessAt() { return lastSuccessAt; }
+    public long getSyncCount() { return syncCount; }
+    public long getFailedSyncCount() { return failedSyncCount; }
+    public int getConsecutiveFailures() { return consecutiveFailures; }
+    public boolean isRunning() { return running; }
+
+    public Long getLastDurationMillis() {
+        return lastResult != null ? lastResult.getDurationMillis() : null;
+    }
+
+    // Wiek danych z API w sekundach; null przed pierwszą udaną synchronizacją
+    public Long getLagSeconds() {
+        return lastSuccessAt != null ? Duration.between(lastSuccessAt, LocalDateTime.now()).getSeconds() : null;
+    }
+}
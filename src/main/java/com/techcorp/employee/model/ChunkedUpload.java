@@ -0,0 +1,96 @@
+package com.techcorp.employee.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Stan uploadu przesyłanego w częściach. Zapamiętuje, które zakresy bajtów
+ * już dotarły, aby klient mógł wznowić przesyłanie po zerwaniu połączenia.
+ */
+public class ChunkedUpload {
+
+    private final String id;
+    private final String fileName;
+    private final long totalSize;
+    private final Path partFile;
+
+    @JsonSerialize(using = ToStringSerializer.class)
+    private final LocalDateTime createdAt;
+
+    // początek -> koniec (wyłącznie) odebranych, scalonych zakresów
+    private final TreeMap<Long, Long> receivedRanges = new TreeMap<>();
+    private long receivedBytes;
+    private volatile Instant lastActivity = Instant.now(); // porzucone uploady wygasają po okresie bezczynności
+
+    public ChunkedUpload(String fileName, long totalSize, Path partFile) {
+        this.id = UUID.randomUUID().toString();
+        this.fileName = fileName;
+        this.totalSize = totalSize;
+        this.partFile = partFile;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public synchronized void markReceived(long start, long end) {
+        lastActivity = Instant.now();
+        if (end <= start) return;
+
+        Map.Entry<Long, Long> before = receivedRanges.floorEntry(start);
+        if (before != null && before.getValue() >= start) {
+            start = before.getKey();
+            end = Math.max(end, before.getValue());
+        }
+        Map.Entry<Long, Long> next;
+        while ((next = receivedRanges.ceilingEntry(start)) != null && next.getKey() <= end) {
+            end = Math.max(end, next.getValue());
+            receivedRanges.remove(next.getKey());
+        }
+        receivedRanges.put(start, end);
+
+        receivedBytes = receivedRanges.entrySet().stream()
+                .mapToLong(e -> e.getValue() - e.getKey())
+                .sum();
+    }
+
+    public synchronized boolean isComplete() {
+        return receivedBytes == totalSize;
+    }
+
+    // Pierwszy bajt, którego jeszcze nie mamy – od niego klient wznawia przesyłanie
+    public synchronized long getNextOffset() {
+        Long firstEnd = receivedRanges.get(0L);
+        return firstEnd != null ? firstEnd : 0L;
+    }
+
+    public synchronized List<long[]> getMissingRanges() {
+        List<long[]> missing = new ArrayList<>();
+        long position = 0;
+        for (Map.Entry<Long, Long> range : receivedRanges.entrySet()) {
+            if (range.getKey() > position) missing.add(new long[]{position, range.getKey()});
+            position = range.getValue();
+        }
+        if (position < totalSize) missing.add(new long[]{position, totalSize});
+        return missing;
+    }
+
+    public String getId() { return id; }
+    public String getFileName() { return fileName; }
+    public long getTotalSize() { return totalSize; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public synchronized long getReceivedBytes() { return receivedBytes; }
+
+    @JsonIgnore
+    public Path getPartFile() { return partFile; }
+
+    @JsonIgnore
+    public Instant getLastActivity() { return lastActivity; }
+}
@@ -1,6 +1,7 @@
 package com.techcorp.employee.model;
 
 import com.techcorp.employee.exception.InvalidDataException;
+import com.techcorp.employee.util.EmployeeValidator;
 import java.util.Comparator;
 import java.util.Objects;
 
@@ -28,13 +29,10 @@ public class Employee {
         this.status = EmploymentStatus.ACTIVE; // default
     }
 
-    // Walidacja
+    // Walidacja – wariant z wyjątkiem dla pojedynczego pracownika (importy używają EmployeeValidator)
     public void validate() throws InvalidDataException {
-        if (firstName == null || firstName.isBlank()) throw new InvalidDataException("Imię nie może być puste.");
-        if (lastName == null || lastName.isBlank()) throw new InvalidDataException("Nazwisko nie może być puste.");
-        if (emailAddress == null || emailAddress.isBlank()) throw new InvalidDataException("Email nie może być pusty.");
-        if (companyName == null || companyName.isBlank()) throw new InvalidDataException("Nazwa firmy nie może być pusta.");
-        if (jobTitle == null || jobTitle.isBlank()) throw new InvalidDataException("Stanowisko nie może być puste.");
+        ValidationResult result = EmployeeValidator.validate(this);
+        if (!result.isValid()) throw new InvalidDataException(result.getMessage());
     }
 
     // Gettery i settery
@@ -46,6 +44,10 @@ public class Employee {
     public double getSalary() { return salary; }
     public EmploymentStatus getStatus() { return status; }
 
+    public void setFirstName(String firstName) { this.firstName = firstName; }
+    public void setLastName(String lastName) { this.lastName = lastName; }
+    public void setCompanyName(String companyName) { this.companyName = companyName; }
+    public void setJobTitle(String jobTitle) { this.jobTitle = jobTitle; }
     public void setSalary(double salary) { this.salary = salary; }
     public void setStatus(EmploymentStatus status) { this.status = status; }
     public String getPhotoFileName() { return photoFileName; }
@@ -63,6 +65,24 @@ public class Employee {
                 "Status: " + status;
     }
 
+    // Te same pola danych (bez emaila i statusu) – wykrywanie zmian przy imporcie UPSERT.
+    // Bezpośrednie porównanie kończy się na pierwszej różnicy; najtańsze pola najpierw
+    public boolean hasSameData(Employee other) {
+        return Double.compare(salary, other.salary) == 0
+                && Objects.equals(jobTitle, other.jobTitle)
+                && Objects.equals(lastName, other.lastName)
+                && Objects.equals(firstName, other.firstName)
+                && Objects.equals(companyName, other.companyName);
+    }
+
+    public void copyDataFrom(Employee other) {
+        this.firstName = other.firstName;
+        this.lastName = other.lastName;
+        this.companyName = other.companyName;
+        this.jobTitle = other.jobTitle;
+        this.salary = other.salary;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
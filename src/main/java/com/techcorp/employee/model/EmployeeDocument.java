@@ -1,8 +1,15 @@
 package com.techcorp.employee.model;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+
 import java.time.LocalDateTime;
 import java.util.UUID;
 
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class EmployeeDocument {
     private final String id;
     private final String employeeEmail;
@@ -11,15 +18,42 @@ public class EmployeeDocument {
     private final DocumentType fileType;
     private final LocalDateTime uploadDate;
     private final String filePath;
+    private final String contentType; // ustalany raz przy zapisie, nie przy każdym pobraniu
+    private final String blobHash;    // SHA-256 treści w magazynie FileStorageService; null = plik w documents/{email}
+    private final long size;
 
     public EmployeeDocument(String employeeEmail, String fileName, String originalFileName, DocumentType type, String filePath) {
-        this.id = UUID.randomUUID().toString();
+        this(UUID.randomUUID().toString(), employeeEmail, fileName, originalFileName, type, LocalDateTime.now(), filePath, null, 0);
+    }
+
+    // Dokument wskazujący współdzielony blob (nazwa pliku = suma SHA-256 treści)
+    public EmployeeDocument(String employeeEmail, StoredFile blob, String originalFileName, DocumentType type) {
+        this(UUID.randomUUID().toString(), employeeEmail, blob.getFileName(), originalFileName, type, LocalDateTime.now(),
+                "blobs/" + blob.getSha256(), blob.getSha256(), blob.getSize());
+    }
+
+    // Odczyt z trwałego indeksu dokumentów (DocumentIndex)
+    @JsonCreator
+    private EmployeeDocument(@JsonProperty("id") String id,
+                             @JsonProperty("employeeEmail") String employeeEmail,
+                             @JsonProperty("fileName") String fileName,
+                             @JsonProperty("originalFileName") String originalFileName,
+                             @JsonProperty("fileType") DocumentType type,
+                             @JsonProperty("uploadDate") LocalDateTime uploadDate,
+                             @JsonProperty("filePath") String filePath,
+                             @JsonProperty("blobHash") String blobHash,
+                             @JsonProperty("size") long size) {
+        this.id = id;
         this.employeeEmail = employeeEmail;
         this.fileName = fileName;
         this.originalFileName = originalFileName;
         this.fileType = type;
-        this.uploadDate = LocalDateTime.now();
+        this.uploadDate = uploadDate;
         this.filePath = filePath;
+        this.contentType = MediaTypeFactory.getMediaType(originalFileName)
+                .orElse(MediaType.APPLICATION_OCTET_STREAM).toString();
+        this.blobHash = blobHash;
+        this.size = size;
     }
 
     public String getId() { return id; }
@@ -29,4 +63,7 @@ public class EmployeeDocument {
     public DocumentType getFileType() { return fileType; }
     public LocalDateTime getUploadDate() { return uploadDate; }
     public String getFilePath() { return filePath; }
+    public String getContentType() { return contentType; }
+    public String getBlobHash() { return blobHash; }
+    public long getSize() { return size; }
 }
@@ -0,0 +1,107 @@
+package com.techcorp.employee.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.Future;
+
+/**
+ * Import pliku wykonywany w tle. Stan odczytywany przez
+ * GET /api/files/import/jobs/{id}.
+ */
+public class ImportJob {
+
+    private final String id;
+    private final String format;
+    private final String fileName;
+    private final ImportProgress progress;
+
+    @JsonSerialize(using = ToStringSerializer.class)
+    private final LocalDateTime submittedAt;
+    @JsonSerialize(using = ToStringSerializer.class)
+    private volatile LocalDateTime startedAt;
+    @JsonSerialize(using = ToStringSerializer.class)
+    private volatile LocalDateTime finishedAt;
+
+    private volatile ImportJobStatus status = ImportJobStatus.QUEUED;
+    private volatile ImportSummary summary;
+    private volatile String failureMessage;
+    private volatile Future<?> future;
+
+    public ImportJob(String format, String fileName, ImportMode mode) {
+        this.id = UUID.randomUUID().toString();
+        this.format = format;
+        this.fileName = fileName;
+        this.progress = new ImportProgress(mode);
+        this.submittedAt = LocalDateTime.now();
+    }
+
+    // --- Przejścia stanu ---
+    public synchronized boolean start() {
+        if (status != ImportJobStatus.QUEUED) return false;
+        status = ImportJobStatus.RUNNING;
+        startedAt = LocalDateTime.now();
+        return true;
+    }
+
+    public synchronized void complete(ImportSummary summary) {
+        this.summary = summary;
+        this.status = progress.isCancelled() ? ImportJobStatus.CANCELLED : ImportJobStatus.COMPLETED;
+        this.finishedAt = LocalDateTime.now();
+    }
+
+    public synchronized void fail(String message) {
+        this.failureMessage = message;
+        this.summary = progress.toSummary();
+        this.status = ImportJobStatus.FAILED;
+        this.finishedAt = LocalDateTime.now();
+    }
+
+    public synchronized void cancel() {
+        progress.cancel();
+        if (status == ImportJobStatus.QUEUED) {
+            status = ImportJobStatus.CANCELLED;
+            summary = progress.toSummary();
+            finishedAt = LocalDateTime.now();
+        }
+        if (future != null) future.cancel(false);
+    }
+
+    public boolean isFinished() {
+        return finishedAt != null;
+    }
+
+    // --- Gettery ---
+    public String getId() { return id; }
+    public String getFormat() { return format; }
+    public String getFileName() { return fileName; }
+    public ImportMode getMode() { return progress.getMode(); }
+    public ImportJobStatus getStatus() { return status; }
+    public LocalDateTime getSubmittedAt() { return submittedAt; }
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public ImportSummary getSummary() { return summary; }
+    public String getFailureMessage() { return failureMessage; }
+
+    public long getRowsProcessed() { return progress.getRowsProcessed(); }
+    public int getImportedCount() { return progress.getImportedCount(); }
+    public int getErrorCount() { return progress.getErrorCount(); }
+
+    public double getRowsPerSecond() {
+        LocalDateTime start = startedAt;
+        if (start == null) return 0.0;
+        LocalDateTime end = finishedAt != null ? finishedAt : LocalDateTime.now();
+        long millis = Duration.between(start, end).toMillis();
+        return millis > 0 ? progress.getRowsProcessed() * 1000.0 / millis : 0.0;
+    }
+
+    @JsonIgnore
+    public ImportProgress getProgress() { return progress; }
+
+    @JsonIgnore
+    public void setFuture(Future<?> future) { this.future = future; }
+}
@@ -0,0 +1,6 @@
+package com.techcorp.employee.model;
+
+public enum ImportMode {
+    INSERT, // tylko nowi pracownicy – istniejący email to błąd
+    UPSERT  // scalanie po emailu – zmienione wiersze aktualizowane, niezmienione pomijane
+}
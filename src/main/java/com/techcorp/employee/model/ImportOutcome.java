@@ -0,0 +1,7 @@
+package com.techcorp.employee.model;
+
+public enum ImportOutcome {
+    INSERTED,
+    UPDATED,
+    UNCHANGED
+}
@@ -0,0 +1,198 @@
+package com.techcorp.employee.model;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bieżący stan importu – aktualizowany przez ImportService wiersz po wierszu
+ * i odczytywany równolegle (np. przez zadanie importu w tle).
+ */
+public class ImportProgress {
+
+    // Do odpowiedzi trafia najwyżej tyle komunikatów – pełna lista w pliku raportu błędów
+    public static final int MAX_ERRORS_IN_SUMMARY = 100;
+
+    private final ImportMode mode;
+    private final AtomicLong rowsProcessed = new AtomicLong();
+    private final AtomicLong updatedCount = new AtomicLong();
+    private final AtomicLong unchangedCount = new AtomicLong();
+    private final List<String> errors = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicLong errorCount = new AtomicLong();
+    private final Map<String, AtomicLong> errorCategories = new ConcurrentHashMap<>(); // kod błędu -> liczba
+    private final List<Employee> importedEmployees = Collections.synchronizedList(new ArrayList<>());
+    private final Set<String> storedEmails = ConcurrentHashMap.newKeySet(); // wszystkie zapisane wiersze (też UPDATED/UNCHANGED)
+    private volatile boolean cancelled;
+
+    // Import wielu plików naraz: email -> plik, w którym wystąpił po raz pierwszy
+    private final String sourceName;
+    private final ConcurrentMap<String, String> sharedEmailOwners;
+
+    // Raport błędów zapisywany na bieżąco (dostęp pod blokadą errors)
+    private Path errorReportPath;              // null = błędy tylko w pamięci
+    private BufferedWriter errorReportWriter;  // otwierany przy pierwszym błędzie
+    private boolean errorReportWritten;
+
+    public ImportProgress() {
+        this(ImportMode.INSERT);
+    }
+
+    public ImportProgress(ImportMode mode) {
+        this(mode, null, null);
+    }
+
+    public ImportProgress(ImportMode mode, String sourceName, ConcurrentMap<String, String> sharedEmailOwners) {
+        this.mode = mode;
+        this.sourceName = sourceName;
+        this.sharedEmailOwners = sharedEmailOwners;
+    }
+
+    // Import wielu plików naraz (archiwum) – emaile rezerwowane między plikami
+    public boolean isSharingEmails() {
+        return sharedEmailOwners != null;
+    }
+
+    /**
+     * Rezerwacja emaila przy imporcie wielu plików naraz, bez blokady (putIfAbsent).
+     * Email należący już do innego pliku daje odrzucenie DUPLICATE_IN_ARCHIVE;
+     * null oznacza, że wiersz można zapisać.
+     */
+    public SaveResult claimEmail(String email) {
+        if (sharedEmailOwners == null || email == null || email.isBlank()) return null;
+        String owner = sharedEmailOwners.putIfAbsent(email.toLowerCase(), sourceName);
+        if (owner == null || owner.equals(sourceName)) return null;
+        return SaveResult.rejected(new ValidationResult().add("email", Violation.DUPLICATE_IN_ARCHIVE,
+                "email " + email + " występuje również w pliku " + owner));
+    }
+
+    // Wiersz odrzucony przy zapisie zwalnia email, chyba że bieżący plik zapisał go innym wierszem
+    public void releaseEmail(String email) {
+        if (sharedEmailOwners == null || email == null || email.isBlank()) return;
+        String key = email.toLowerCase();
+        if (!storedEmails.contains(key)) sharedEmailOwners.remove(key, sourceName);
+    }
+
+    // Wiersz zaimportowany poprawnie
+    public void employeeImported(Employee employee) {
+        employeeImported(employee, ImportOutcome.INSERTED);
+    }
+
+    // importedEmployees zawiera tylko nowo dodanych pracowników
+    public void employeeImported(Employee employee, ImportOutcome outcome) {
+        switch (outcome) {
+            case INSERTED -> importedEmployees.add(employee);
+            case UPDATED -> updatedCount.incrementAndGet();
+            case UNCHANGED -> unchangedCount.incrementAndGet();
+        }
+        if (employee.getEmailAddress() != null) storedEmails.add(employee.getEmailAddress().toLowerCase());
+        rowsProcessed.incrementAndGet();
+    }
+
+    // Pełna lista błędów będzie dopisywana do tego pliku w trakcie importu
+    public void spillErrorsTo(Path file) {
+        synchronized (errors) {
+            this.errorReportPath = file;
+        }
+    }
+
+    // Wiersz odrzucony; category to kod błędu (Violation), po którym liczymy błędy
+    public void rowRejected(String category, String error) {
+        recordError(category, error);
+        rowsProcessed.incrementAndGet();
+    }
+
+    // Błąd niezwiązany z konkretnym wierszem (np. brak pliku)
+    public void fileError(String error) {
+        recordError(Violation.FILE_ERROR, error);
+    }
+
+    private void recordError(String category, String error) {
+        errorCount.incrementAndGet();
+        errorCategories.computeIfAbsent(category != null ? category : Violation.UNEXPECTED, k -> new AtomicLong())
+                .incrementAndGet();
+        synchronized (errors) {
+            if (errors.size() < MAX_ERRORS_IN_SUMMARY) errors.add(error);
+            writeErrorReport(error);
+        }
+    }
+
+    private void writeErrorReport(String error) {
+        if (errorReportPath == null) return;
+        try {
+            if (errorReportWriter == null) {
+                errorReportWriter = Files.newBufferedWriter(errorReportPath, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                errorReportWritten = true;
+            }
+            errorReportWriter.write(error);
+            errorReportWriter.newLine();
+        } catch (IOException e) {
+            // nie przerywamy importu – dalsze błędy tylko w pamięci, raport nie jest udostępniany
+            closeErrorReport();
+            errorReportPath = null;
+            errorReportWritten = false;
+        }
+    }
+
+    private void closeErrorReport() {
+        if (errorReportWriter == null) return;
+        try {
+            errorReportWriter.close();
+        } catch (IOException ignored) {
+            // zamknięcie raportu błędów nie może zepsuć wyniku importu
+        }
+        errorReportWriter = null;
+    }
+
+    public long getRowsProcessed() {
+        return rowsProcessed.get();
+    }
+
+    public ImportMode getMode() {
+        return mode;
+    }
+
+    // Wiersze faktycznie zapisane: nowe + zaktualizowane
+    public int getImportedCount() {
+        return importedEmployees.size() + (int) updatedCount.get();
+    }
+
+    public int getErrorCount() {
+        return (int) errorCount.get();
+    }
+
+    public void cancel() {
+        this.cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    // Koniec importu – domyka też plik raportu błędów
+    public ImportSummary toSummary() {
+        synchronized (errors) {
+            closeErrorReport();
+            String errorReportFile = errorReportWritten ? errorReportPath.getFileName().toString() : null;
+            Map<String, Long> categories = new TreeMap<>();
+            errorCategories.forEach((code, count) -> categories.put(code, count.get()));
+            synchronized (importedEmployees) {
+                return new ImportSummary(mode, importedEmployees.size(), (int) updatedCount.get(), (int) unchangedCount.get(),
+                        new ArrayList<>(errors), errorCount.get(), categories, errorReportFile,
+                        new ArrayList<>(importedEmployees), new ArrayList<>(storedEmails), false);
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.techcorp.employee.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Wpis trwałego indeksu zaimportowanych plików (po sumie SHA-256).
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ImportRecord {
+    private String sha256;
+    private String format;
+    private ImportMode mode = ImportMode.INSERT;
+    private String fileName;
+    private String importedAt;
+    private int insertedCount;
+    private int updatedCount;
+    private int unchangedCount;
+    private List<String> errors = new ArrayList<>();
+    private long errorCount;
+    private Map<String, Long> errorCategories = new LinkedHashMap<>();
+    private String errorReportFile;
+    private String storeVersion; // wersja zbioru pracowników po imporcie (null = wpisu nie da się zweryfikować)
+
+    public ImportRecord() {
+    }
+
+    public ImportRecord(String sha256, String format, String fileName, String importedAt, ImportSummary summary,
+                        String storeVersion) {
+        this.sha256 = sha256;
+        this.format = format;
+        this.mode = summary.getMode();
+        this.fileName = fileName;
+        this.importedAt = importedAt;
+        this.insertedCount = summary.getInsertedCount();
+        this.updatedCount = summary.getUpdatedCount();
+        this.unchangedCount = summary.getUnchangedCount();
+        this.errors = new ArrayList<>(summary.getErrors());
+        this.errorCount = summary.getErrorCount();
+        this.errorCategories = new LinkedHashMap<>(summary.getErrorCategories());
+        this.errorReportFile = summary.getErrorReportFile();
+        this.storeVersion = storeVersion;
+    }
+
+    // Podsumowanie zwracane przy ponownym przesłaniu identycznego pliku
+    public ImportSummary toCachedSummary() {
+        return new ImportSummary(mode, insertedCount, updatedCount, unchangedCount, errors, errorCount,
+                errorCategories, errorReportFile, null, true);
+    }
+
+    // Import nic nie zapisał – takiego wpisu indeks nie przechowuje
+    public boolean storedNothing() {
+        return insertedCount + updatedCount + unchangedCount == 0;
+    }
+
+    // Klucz indeksu – ten sam plik w innym trybie importu to osobny wpis
+    public static String key(ImportMode mode, String sha256) {
+        return mode + ":" + sha256;
+    }
+
+    public String getSha256() { return sha256; }
+    public void setSha256(String sha256) { this.sha256 = sha256; }
+    public String getFormat() { return format; }
+    public void setFormat(String format) { this.format = format; }
+    public String getFileName() { return fileName; }
+    public void setFileName(String fileName) { this.fileName = fileName; }
+    public String getImportedAt() { return importedAt; }
+    public void setImportedAt(String importedAt) { this.importedAt = importedAt; }
+    public ImportMode getMode() { return mode; }
+    public void setMode(ImportMode mode) { this.mode = mode; }
+    public int getInsertedCount() { return insertedCount; }
+    public void setInsertedCount(int insertedCount) { this.insertedCount = insertedCount; }
+    public int getUpdatedCount() { return updatedCount; }
+    public void setUpdatedCount(int updatedCount) { this.updatedCount = updatedCount; }
+    public int getUnchangedCount() { return unchangedCount; }
+    public void setUnchangedCount(int unchangedCount) { this.unchangedCount = unchangedCount; }
+    public List<String> getErrors() { return errors; }
+    public void setErrors(List<String> errors) { this.errors = errors; }
+    public long getErrorCount() { return errorCount; }
+    public void setErrorCount(long errorCount) { this.errorCount = errorCount; }
+    public Map<String, Long> getErrorCategories() { return errorCategories; }
+    public void setErrorCategories(Map<String, Long> errorCategories) { this.errorCategories = errorCategories; }
+    public String getErrorReportFile() { return errorReportFile; }
+    public void setErrorReportFile(String errorReportFile) { this.errorReportFile = errorReportFile; }
+    public String getStoreVersion() { return storeVersion; }
+    public void setStoreVersion(String storeVersion) { this.storeVersion = storeVersion; }
+}
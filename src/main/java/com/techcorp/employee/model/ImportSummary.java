@@ -1,37 +1,131 @@
 package com.techcorp.employee.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 public class ImportSummary {
-    private final int importedCount;
-    private final List<String> errors;
+    private final ImportMode mode;
+    private final int importedCount;      // nowe + zaktualizowane
+    private final int insertedCount;
+    private final int updatedCount;
+    private final int unchangedCount;
+    private final List<String> errors;    // najwyżej ImportProgress.MAX_ERRORS_IN_SUMMARY pierwszych błędów
+    private final long errorCount;        // wszystkie błędy
+    private final Map<String, Long> errorCategories;
+    private final String errorReportFile; // pełna lista błędów w katalogu raportów (null = brak)
     private final List<Employee> importedEmployees; // nowa lista zaimportowanych pracowników
+    @JsonIgnore
+    private final List<String> storedEmails; // emaile wszystkich zapisanych wierszy (null = nieznane)
+    private final boolean fromCache; // identyczny plik był już zaimportowany
 
     public ImportSummary(int importedCount, List<String> errors, List<Employee> importedEmployees) {
-        this.importedCount = importedCount;
+        this(importedCount, errors, importedEmployees, false);
+    }
+
+    public ImportSummary(int importedCount, List<String> errors, List<Employee> importedEmployees, boolean fromCache) {
+        this(ImportMode.INSERT, importedCount, 0, 0, errors, importedEmployees, fromCache);
+    }
+
+    public ImportSummary(ImportMode mode, int insertedCount, int updatedCount, int unchangedCount,
+                         List<String> errors, List<Employee> importedEmployees, boolean fromCache) {
+        this(mode, insertedCount, updatedCount, unchangedCount, errors, errors != null ? errors.size() : 0,
+                null, null, importedEmployees, fromCache);
+    }
+
+    public ImportSummary(ImportMode mode, int insertedCount, int updatedCount, int unchangedCount,
+                         List<String> errors, long errorCount, Map<String, Long> errorCategories, String errorReportFile,
+                         List<Employee> importedEmployees, boolean fromCache) {
+        this(mode, insertedCount, updatedCount, unchangedCount, errors, errorCount, errorCategories, errorReportFile,
+                importedEmployees, null, fromCache);
+    }
+
+    public ImportSummary(ImportMode mode, int insertedCount, int updatedCount, int unchangedCount,
+                         List<String> errors, long errorCount, Map<String, Long> errorCategories, String errorReportFile,
+                         List<Employee> importedEmployees, List<String> storedEmails, boolean fromCache) {
+        this.mode = mode;
+        this.importedCount = insertedCount + updatedCount;
+        this.insertedCount = insertedCount;
+        this.updatedCount = updatedCount;
+        this.unchangedCount = unchangedCount;
         this.errors = errors != null ? errors : Collections.emptyList();
+        this.errorCount = Math.max(errorCount, this.errors.size());
+        this.errorCategories = errorCategories != null ? errorCategories : Collections.emptyMap();
+        this.errorReportFile = errorReportFile;
         this.importedEmployees = importedEmployees != null ? importedEmployees : Collections.emptyList();
+        this.storedEmails = storedEmails;
+        this.fromCache = fromCache;
+    }
+
+    public ImportMode getMode() {
+        return mode;
     }
 
     public int getImportedCount() {
         return importedCount;
     }
 
+    public int getInsertedCount() {
+        return insertedCount;
+    }
+
+    public int getUpdatedCount() {
+        return updatedCount;
+    }
+
+    public int getUnchangedCount() {
+        return unchangedCount;
+    }
+
     public List<String> getErrors() {
         return errors;
     }
 
+    public long getErrorCount() {
+        return errorCount;
+    }
+
+    public Map<String, Long> getErrorCategories() {
+        return errorCategories;
+    }
+
+    // Lista errors nie zawiera wszystkich błędów – reszta tylko w pliku raportu
+    public boolean isErrorsTruncated() {
+        return errorCount > errors.size();
+    }
+
+    public String getErrorReportFile() {
+        return errorReportFile;
+    }
+
     public List<Employee> getImportedEmployees() {
         return importedEmployees;
     }
 
+    public List<String> getStoredEmails() {
+        return storedEmails;
+    }
+
+    public boolean isFromCache() {
+        return fromCache;
+    }
+
     @Override
     public String toString() {
         return "ImportSummary{" +
-                "importedCount=" + importedCount +
+                "mode=" + mode +
+                ", importedCount=" + importedCount +
+                ", insertedCount=" + insertedCount +
+                ", updatedCount=" + updatedCount +
+                ", unchangedCount=" + unchangedCount +
                 ", errors=" + errors +
+                ", errorCount=" + errorCount +
+                ", errorCategories=" + errorCategories +
+                ", errorReportFile=" + errorReportFile +
                 ", importedEmployees=" + importedEmployees +
+                ", fromCache=" + fromCache +
                 '}';
     }
 }
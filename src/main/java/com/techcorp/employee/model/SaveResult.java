@@ -0,0 +1,29 @@
+package com.techcorp.employee.model;
+
+/**
+ * Wynik zapisu jednego pracownika w operacji wsadowej
+ * (EmployeeService.saveEmployees) – bez rzucania wyjątku dla odrzuconych.
+ */
+public class SaveResult {
+    private final ImportOutcome outcome; // null = odrzucony
+    private final ValidationResult violations;
+
+    private SaveResult(ImportOutcome outcome, ValidationResult violations) {
+        this.outcome = outcome;
+        this.violations = violations;
+    }
+
+    public static SaveResult saved(ImportOutcome outcome) {
+        return new SaveResult(outcome, null);
+    }
+
+    public static SaveResult rejected(ValidationResult violations) {
+        return new SaveResult(null, violations);
+    }
+
+    public boolean isSaved() { return outcome != null; }
+    public ImportOutcome getOutcome() { return outcome; }
+    public ValidationResult getViolations() { return violations; }
+    public String getError() { return violations != null ? violations.getMessage() : null; }
+    public String getErrorCode() { return violations != null ? violations.getCode() : null; }
+}
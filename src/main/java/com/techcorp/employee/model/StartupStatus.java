@@ -0,0 +1,46 @@
+package com.techcorp.employee.model;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stan ładowania danych przy starcie aplikacji: gotowość, czasy
+ * poszczególnych zadań (xml, csv, api, merge) i błędy ładowania.
+ */
+public class StartupStatus {
+    private final boolean ready;
+    private final boolean failed;
+    @JsonSerialize(using = ToStringSerializer.class)
+    private final LocalDateTime startedAt;
+    @JsonSerialize(using = ToStringSerializer.class)
+    private final LocalDateTime readyAt;
+    private final Long durationMillis;
+    private final Map<String, Long> taskMillis;
+    private final int loadedCount;
+    private final List<String> errors;
+
+    public StartupStatus(boolean ready, boolean failed, LocalDateTime startedAt, LocalDateTime readyAt,
+                         Long durationMillis, Map<String, Long> taskMillis, int loadedCount, List<String> errors) {
+        this.ready = ready;
+        this.failed = failed;
+        this.startedAt = startedAt;
+        this.readyAt = readyAt;
+        this.durationMillis = durationMillis;
+        this.taskMillis = taskMillis;
+        this.loadedCount = loadedCount;
+        this.errors = errors;
+    }
+
+    public boolean isReady() { return ready; }
+    public boolean isFailed() { return failed; }
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public LocalDateTime getReadyAt() { return readyAt; }
+    public Long getDurationMillis() { return durationMillis; }
+    public Map<String, Long> getTaskMillis() { return taskMillis; }
+    public int getLoadedCount() { return loadedCount; }
+    public List<String> getErrors() { return errors; }
+}
@@ -0,0 +1,50 @@
+package com.techcorp.employee.model;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Zajętość magazynu plików według ostatniego pełnego przebiegu sprzątania:
+ * bajty na dysku (bloby współdzielone liczone raz) oraz bajty przypisane pracownikom
+ * (dokumenty, zdjęcia i miniatury), a także liczniki usuniętych osieroconych plików.
+ */
+public class StorageUsage {
+    private final long totalBytes;
+    private final long totalFiles;
+    private final Map<String, Long> bytesByEmployee;
+    private final int pendingOrphans;
+    private final long deletedFiles;
+    private final long deletedBytes;
+    private final long deletedDocuments;
+    @JsonSerialize(using = ToStringSerializer.class)
+    private final LocalDateTime lastPassStartedAt;
+    @JsonSerialize(using = ToStringSerializer.class)
+    private final LocalDateTime lastPassFinishedAt;
+
+    public StorageUsage(long totalBytes, long totalFiles, Map<String, Long> bytesByEmployee, int pendingOrphans,
+                        long deletedFiles, long deletedBytes, long deletedDocuments,
+                        LocalDateTime lastPassStartedAt, LocalDateTime lastPassFinishedAt) {
+        this.totalBytes = totalBytes;
+        this.totalFiles = totalFiles;
+        this.bytesByEmployee = bytesByEmployee;
+        this.pendingOrphans = pendingOrphans;
+        this.deletedFiles = deletedFiles;
+        this.deletedBytes = deletedBytes;
+        this.deletedDocuments = deletedDocuments;
+        this.lastPassStartedAt = lastPassStartedAt;
+        this.lastPassFinishedAt = lastPassFinishedAt;
+    }
+
+    public long getTotalBytes() { return totalBytes; }
+    public long getTotalFiles() { return totalFiles; }
+    public Map<String, Long> getBytesByEmployee() { return bytesByEmployee; }
+    public int getPendingOrphans() { return pendingOrphans; }
+    public long getDeletedFiles() { return deletedFiles; }
+    public long getDeletedBytes() { return deletedBytes; }
+    public long getDeletedDocuments() { return deletedDocuments; }
+    public LocalDateTime getLastPassStartedAt() { return lastPassStartedAt; }
+    public LocalDateTime getLastPassFinishedAt() { return lastPassFinishedAt; }
+}
@@ -0,0 +1,21 @@
+package com.techcorp.employee.model;
+
+/**
+ * Plik zapisany przez FileStorageService wraz z sumą SHA-256
+ * policzoną w trakcie zapisu.
+ */
+public class StoredFile {
+    private final String fileName;
+    private final String sha256;
+    private final long size;
+
+    public StoredFile(String fileName, String sha256, long size) {
+        this.fileName = fileName;
+        this.sha256 = sha256;
+        this.size = size;
+    }
+
+    public String getFileName() { return fileName; }
+    public String getSha256() { return sha256; }
+    public long getSize() { return size; }
+}
@@ -0,0 +1,58 @@
+package com.techcorp.employee.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Wynik walidacji zwracany zamiast wyjątku – ścieżki wsadowe (importy)
+ * sprawdzają isValid() i nie płacą za tworzenie stosu wywołań dla każdego złego wiersza.
+ */
+public class ValidationResult {
+
+    private List<Violation> violations; // tworzona dopiero przy pierwszym naruszeniu
+
+    public static ValidationResult of(Violation violation) {
+        return new ValidationResult().add(violation);
+    }
+
+    public ValidationResult add(String field, String code, String message) {
+        return add(new Violation(field, code, message));
+    }
+
+    public ValidationResult add(Violation violation) {
+        if (violations == null) violations = new ArrayList<>(2);
+        violations.add(violation);
+        return this;
+    }
+
+    public ValidationResult addAll(ValidationResult other) {
+        if (other != null && !other.isValid()) other.violations.forEach(this::add);
+        return this;
+    }
+
+    public boolean isValid() {
+        return violations == null;
+    }
+
+    public List<Violation> getViolations() {
+        return violations != null ? Collections.unmodifiableList(violations) : Collections.emptyList();
+    }
+
+    // Kod pierwszego naruszenia – kategoria błędu wiersza
+    public String getCode() {
+        return isValid() ? null : violations.get(0).getCode();
+    }
+
+    // Komunikaty wszystkich naruszeń w jednej linii
+    public String getMessage() {
+        if (isValid()) return "";
+        return violations.stream().map(Violation::getMessage).collect(Collectors.joining("; "));
+    }
+
+    @Override
+    public String toString() {
+        return "ValidationResult{" + getViolations() + '}';
+    }
+}
@@ -0,0 +1,36 @@
+package com.techcorp.employee.model;
+
+/**
+ * Pojedyncze naruszenie reguły walidacji: pole, kod błędu i komunikat dla użytkownika.
+ */
+public class Violation {
+
+    // Kody błędów – stałe, po których można grupować błędy importu
+    public static final String REQUIRED = "REQUIRED";
+    public static final String UNKNOWN_JOB_TITLE = "UNKNOWN_JOB_TITLE";
+    public static final String INVALID_SALARY = "INVALID_SALARY";
+    public static final String DUPLICATE_EMAIL = "DUPLICATE_EMAIL";
+    public static final String DUPLICATE_IN_ARCHIVE = "DUPLICATE_IN_ARCHIVE";
+    public static final String INVALID_FORMAT = "INVALID_FORMAT";   // np. zła liczba pól wiersza
+    public static final String FILE_ERROR = "FILE_ERROR";           // błąd całego pliku, nie wiersza
+    public static final String UNEXPECTED = "UNEXPECTED";
+
+    private final String field;
+    private final String code;
+    private final String message;
+
+    public Violation(String field, String code, String message) {
+        this.field = field;
+        this.code = code;
+        this.message = message;
+    }
+
+    public String getField() { return field; }
+    public String getCode() { return code; }
+    public String getMessage() { return message; }
+
+    @Override
+    public String toString() {
+        return field + " [" + code + "]: " + message;
+    }
+}
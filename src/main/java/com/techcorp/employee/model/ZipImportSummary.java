@@ -0,0 +1,67 @@
+package com.techcorp.employee.model;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Wynik importu archiwum ZIP – podsumowanie dla każdego pliku
+ * (w kolejności wpisów w archiwum) oraz sumy dla całego archiwum.
+ */
+public class ZipImportSummary {
+    private final ImportMode mode;
+    private final Map<String, ImportSummary> files;
+    private final List<String> archiveErrors; // wpisy pominięte lub nieczytelne
+
+    public ZipImportSummary(ImportMode mode, Map<String, ImportSummary> files, List<String> archiveErrors) {
+        this.mode = mode;
+        this.files = files != null ? files : Collections.emptyMap();
+        this.archiveErrors = archiveErrors != null ? archiveErrors : Collections.emptyList();
+    }
+
+    public ImportMode getMode() {
+        return mode;
+    }
+
+    public Map<String, ImportSummary> getFiles() {
+        return files;
+    }
+
+    public List<String> getArchiveErrors() {
+        return archiveErrors;
+    }
+
+    public int getFileCount() {
+        return files.size();
+    }
+
+    public int getImportedCount() {
+        return files.values().stream().mapToInt(ImportSummary::getImportedCount).sum();
+    }
+
+    public int getInsertedCount() {
+        return files.values().stream().mapToInt(ImportSummary::getInsertedCount).sum();
+    }
+
+    public int getUpdatedCount() {
+        return files.values().stream().mapToInt(ImportSummary::getUpdatedCount).sum();
+    }
+
+    public int getUnchangedCount() {
+        return files.values().stream().mapToInt(ImportSummary::getUnchangedCount).sum();
+    }
+
+    public int getErrorCount() {
+        return archiveErrors.size() + (int) files.values().stream().mapToLong(ImportSummary::getErrorCount).sum();
+    }
+
+    @Override
+    public String toString() {
+        return "ZipImportSummary{" +
+                "mode=" + mode +
+                ", files=" + files.keySet() +
+                ", importedCount=" + getImportedCount() +
+                ", errorCount=" + getErrorCount() +
+                '}';
+    }
+}
@@ -0,0 +1,125 @@
+package com.techcorp.employee.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.techcorp.employee.model.ApiCacheEntry;
+import com.techcorp.employee.model.Employee;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dyskowa pamięć podręczna odpowiedzi zewnętrznego API: treść ostatniej odpowiedzi
+ * z jej ETag / Last-Modified (do żądań warunkowych) oraz sparsowani pracownicy
+ * w pamięci. Zapisana odpowiedź służy też jako zapas, gdy API jest niedostępne.
+ */
+@Service
+public class ApiResponseCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApiResponseCache.class);
+
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+    private final Map<String, ApiCacheEntry> entries = new ConcurrentHashMap<>();
+    private final Map<String, List<Employee>> parsed = new ConcurrentHashMap<>();
+
+    public ApiResponseCache(@Qualifier("jacksonObjectMapper") ObjectMapper objectMapper,
+                            @Value("${app.api.cache.directory:cache/api}") String directory) {
+        this.objectMapper = objectMapper;
+        this.directory = Paths.get(directory).toAbsolutePath().normalize();
+    }
+
+    // Metadane zapisanej odpowiedzi albo null, gdy adres nie był jeszcze pobrany
+    public ApiCacheEntry getEntry(URI uri) {
+        String key = key(uri);
+        ApiCacheEntry entry = entries.get(key);
+        if (entry != null) return entry;
+
+        Path metaFile = directory.resolve(key + ".meta.json");
+        if (!Files.exists(metaFile) || !Files.exists(bodyFile(uri))) return null;
+        try {
+            entry = objectMapper.readValue(metaFile.toFile(), ApiCacheEntry.class);
+            entries.put(key, entry);
+            return entry;
+        } catch (IOException e) {
+            logger.warn("Nie można wczytać metadanych odpowiedzi {}: {}", uri, e.getMessage());
+            return null;
+        }
+    }
+
+    public Path bodyFile(URI uri) {
+        return directory.resolve(key(uri) + ".json");
+    }
+
+    public Path newTempBodyFile(URI uri) throws IOException {
+        Files.createDirectories(directory);
+        return Files.createTempFile(directory, key(uri), ".tmp");
+    }
+
+    /**
+     * Zapamiętuje pobraną odpowiedź: plik tymczasowy z treścią zastępuje atomowo
+     * poprzednią wersję, metadane trafiają obok. Błąd zapisu jest tylko logowany.
+     */
+    public void store(URI uri, String etag, String lastModified, Path tempBody, List<Employee> employees) {
+        String key = key(uri);
+        ApiCacheEntry entry = new ApiCacheEntry(uri.toString(), etag, lastModified, LocalDateTime.now().toString());
+        try {
+            Files.move(tempBody, bodyFile(uri), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Path metaTmp = directory.resolve(key + ".meta.json.tmp");
+            objectMapper.writeValue(metaTmp.toFile(), entry);
+            Files.move(metaTmp, directory.resolve(key + ".meta.json"),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            entries.put(key, entry);
+            remember(uri, employees);
+        } catch (IOException e) {
+            logger.warn("Nie można zapisać odpowiedzi {} w pamięci podręcznej: {}", uri, e.getMessage());
+            discard(tempBody);
+        }
+    }
+
+    public void remember(URI uri, List<Employee> employees) {
+        parsed.put(key(uri), employees.stream().map(ApiResponseCache::copyOf).toList());
+    }
+
+    // Kopie – pracownicy zwróceni wywołującemu mogą być potem modyfikowani
+    public List<Employee> getEmployees(URI uri) {
+        List<Employee> employees = parsed.get(key(uri));
+        return employees != null ? employees.stream().map(ApiResponseCache::copyOf).toList() : null;
+    }
+
+    public void discard(Path tempBody) {
+        try {
+            Files.deleteIfExists(tempBody);
+        } catch (IOException ignored) {
+            // plik tymczasowy zostanie nadpisany przy kolejnym pobraniu
+        }
+    }
+
+    private static Employee copyOf(Employee e) {
+        return new Employee(e.getFirstName(), e.getLastName(), e.getEmailAddress(),
+                e.getCompanyName(), e.getJobTitle(), e.getSalary());
+    }
+
+    // Nazwa pliku z adresu – skrót SHA-256, bez znaków niedozwolonych w ścieżkach
+    private static String key(URI uri) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(uri.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Brak algorytmu SHA-256", e);
+        }
+    }
+}
@@ -1,73 +1,286 @@
 package com.techcorp.employee.service;
 
 import com.google.gson.*;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
+import com.techcorp.employee.model.ApiCacheEntry;
 import com.techcorp.employee.model.Employee;
 import com.techcorp.employee.model.JobTitle;
+import com.techcorp.employee.exception.ApiDataException;
 import com.techcorp.employee.exception.ApiException;
+import com.techcorp.employee.util.TeeInputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.*;
-import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 
 @Service
 public class ApiService {
 
+    private static final Logger logger = LoggerFactory.getLogger(ApiService.class);
+
     private final HttpClient httpClient;
     private final Gson gson;
     private final String apiUrl;
+    private final ApiResponseCache responseCache; // null = bez żądań warunkowych
+    private final Executor responseExecutor;      // parsowanie odpowiedzi pobieranych asynchronicznie
 
-    public ApiService(HttpClient httpClient, Gson gson, @Value("${app.api.url}") String apiUrl) {
+    public ApiService(HttpClient httpClient, Gson gson, @Value("${app.api.url}") String apiUrl,
+                      ApiResponseCache responseCache,
+                      @Qualifier("apiResponseExecutor") Executor responseExecutor) {
         this.httpClient = httpClient;
         this.gson = gson;
         this.apiUrl = apiUrl;
+        this.responseCache = responseCache;
+        this.responseExecutor = responseExecutor;
     }
 
+    /**
+     * Pobranie przy starcie / ręcznym odświeżeniu. Gdy API jest nieosiągalne
+     * (sieć, timeout, 5xx), zwracana jest ostatnia zapisana odpowiedź.
+     */
     public List<Employee> fetchEmployeesFromApi() throws ApiException {
+        URI uri = URI.create(apiUrl);
+        List<Employee> employees = new ArrayList<>();
+        try {
+            fetchEmployees(uri, null, employees::add);
+        } catch (ApiException e) {
+            if (responseCache == null || !e.isRetryable() || responseCache.getEntry(uri) == null) throw e;
+            logger.warn("API niedostępne ({}), używam zapisanej odpowiedzi z {}", e.getMessage(),
+                    responseCache.getEntry(uri).getStoredAt());
+            employees.clear();
+            replayCached(uri, employees::add);
+        }
+        return employees;
+    }
+
+    /**
+     * Blokujące pobranie jednego adresu (np. strony wyników) z limitem czasu
+     * (null = bez limitu). Zwraca liczbę przekazanych pracowników.
+     * Z pamięcią podręczną żądanie jest warunkowe (If-None-Match / If-Modified-Since),
+     * a odpowiedź 304 obsługiwana jest z zapisanych danych.
+     */
+    public int fetchEmployees(URI uri, Duration timeout, Consumer<Employee> consumer) throws ApiException {
+        ApiCacheEntry cached = responseCache != null ? responseCache.getEntry(uri) : null;
         try {
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(apiUrl))
-                    .GET()
-                    .build();
+            HttpResponse<InputStream> response = httpClient.send(buildRequest(uri, timeout, cached), HttpResponse.BodyHandlers.ofInputStream());
+            if (response.statusCode() == 304 && cached != null) {
+                response.body().close();
+                logger.info("Odpowiedź API {} bez zmian (304), używam zapisanych danych", uri);
+                return replayCached(uri, consumer);
+            }
+            if (responseCache == null || response.statusCode() != 200) {
+                return readEmployees(response, consumer);
+            }
+            return readAndStore(uri, response, consumer);
+        } catch (ApiException e) {
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApiException("API error: przerwano pobieranie", e);
+        } catch (Exception e) {
+            // np. ConnectException nie ma komunikatu – wtedy nazwa wyjątku
+            throw new ApiException("API error: " + (e.getMessage() != null ? e.getMessage() : e.toString()), e);
+        }
+    }
+
+    // Odpowiedź 200 parsowana strumieniowo i równocześnie zapisywana na dysk
+    private int readAndStore(URI uri, HttpResponse<InputStream> response, Consumer<Employee> consumer) throws IOException, ApiException {
+        Path tempBody = responseCache.newTempBodyFile(uri);
+        List<Employee> parsed = new ArrayList<>();
+        int count;
+        try (InputStream body = new TeeInputStream(response.body(), Files.newOutputStream(tempBody))) {
+            count = readEmployees(body, employee -> {
+                parsed.add(employee);
+                consumer.accept(employee);
+            });
+        } catch (IOException | IllegalStateException | NumberFormatException e) {
+            responseCache.discard(tempBody);
+            throw readError(e);
+        }
+        responseCache.store(uri,
+                response.headers().firstValue("ETag").orElse(null),
+                response.headers().firstValue("Last-Modified").orElse(null),
+                tempBody, parsed);
+        return count;
+    }
+
+    // Dane z pamięci podręcznej: najpierw sparsowane w pamięci, potem plik z dysku (np. po restarcie)
+    private int replayCached(URI uri, Consumer<Employee> consumer) throws ApiException {
+        List<Employee> employees = responseCache.getEmployees(uri);
+        if (employees == null) {
+            List<Employee> parsed = new ArrayList<>();
+            try (InputStream body = Files.newInputStream(responseCache.bodyFile(uri))) {
+                readEmployees(body, parsed::add);
+            } catch (IOException | IllegalStateException | NumberFormatException e) {
+                // zapisana kopia jest uszkodzona – kolejna próba odczytu da ten sam wynik
+                throw new ApiDataException("API error: nie można odczytać zapisanej odpowiedzi - " + e.getMessage(), e);
+            }
+            responseCache.remember(uri, parsed);
+            employees = responseCache.getEmployees(uri);
+        }
+        employees.forEach(consumer);
+        return employees.size();
+    }
+
+    public String getApiUrl() {
+        return apiUrl;
+    }
+
+    // -------------------- Pobieranie asynchroniczne --------------------
+    // Wątek wywołujący nie czeka na odpowiedź; błędy jako ApiException w CompletionException
+    public CompletableFuture<List<Employee>> fetchEmployeesFromApiAsync() {
+        List<Employee> employees = new ArrayList<>();
+        return streamEmployeesFromApi(employees::add).thenApply(count -> employees);
+    }
 
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    /**
+     * Ciało odpowiedzi czytane strumieniowo (Gson JsonReader) – każdy użytkownik
+     * trafia do consumer zaraz po odczytaniu, bez budowania drzewa JSON
+     * ani trzymania całej odpowiedzi w pamięci. Future zwraca liczbę pracowników.
+     * Odczyt strumienia blokuje wątek, więc odbywa się w puli apiResponseExecutor,
+     * a nie na wątkach HttpClient, które dostarczają dane odpowiedzi.
+     */
+    public CompletableFuture<Integer> streamEmployeesFromApi(Consumer<Employee> consumer) {
+        return httpClient.sendAsync(buildRequest(URI.create(apiUrl), null, null), HttpResponse.BodyHandlers.ofInputStream())
+                .thenApplyAsync(response -> {
+                    try {
+                        return readEmployees(response, consumer);
+                    } catch (ApiException e) {
+                        throw new CompletionException(e);
+                    }
+                }, responseExecutor)
+                .exceptionally(e -> {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    if (cause instanceof ApiException) throw new CompletionException(cause);
+                    throw new CompletionException(new ApiException("API error: " + cause.getMessage(), cause));
+                });
+    }
+
+    private HttpRequest buildRequest(URI uri, Duration timeout, ApiCacheEntry cached) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder()
+                .uri(uri)
+                .GET();
+        if (timeout != null) builder.timeout(timeout);
+        if (cached != null) {
+            if (cached.getEtag() != null) builder.header("If-None-Match", cached.getEtag());
+            if (cached.getLastModified() != null) builder.header("If-Modified-Since", cached.getLastModified());
+        }
+        return builder.build();
+    }
 
+    private int readEmployees(HttpResponse<InputStream> response, Consumer<Employee> consumer) throws ApiException {
+        try (InputStream body = response.body()) {
             if (response.statusCode() != 200) {
-                throw new ApiException("HTTP error: " + response.statusCode());
+                throw new ApiException("HTTP error: " + response.statusCode(), response.statusCode());
             }
+            return readEmployees(body, consumer);
+        } catch (IOException | IllegalStateException | NumberFormatException e) {
+            throw readError(e);
+        }
+    }
 
-            JsonArray array = JsonParser.parseString(response.body()).getAsJsonArray();
-
-            return StreamSupport.stream(array.spliterator(), false)
-                    .map(element -> {
-                        JsonObject obj = element.getAsJsonObject();
-                        String fullName = obj.get("name").getAsString();
-                        String[] nameParts = fullName.split(" ", 2);
-                        String firstName = nameParts.length > 0 ? nameParts[0] : "";
-                        String lastName = nameParts.length > 1 ? nameParts[1] : "";
-                        String email = obj.get("email").getAsString();
-                        String company = obj.getAsJsonObject("company").get("name").getAsString();
-                        String jobTitle = "DEVELOPER";
-                        double salary= 8000.0;
-
-                        return new Employee(
-                                firstName,
-                                lastName,
-                                email,
-                                company,
-                                jobTitle,
-                                salary
-                        );
-                    })
-                    .collect(Collectors.toList());
+    // Niepoprawna treść (składnia JSON, typy, brak pól) nie jest ponawiana; pozostałe
+    // IOException przy czytaniu ciała (zerwane połączenie, ucięta odpowiedź) to błąd transportu
+    private static ApiException readError(Exception e) {
+        if (e instanceof MalformedJsonException || e instanceof IllegalStateException || e instanceof NumberFormatException) {
+            return new ApiDataException("API error: niepoprawny format danych - " + e.getMessage(), e);
+        }
+        return new ApiException("API error: błąd odczytu odpowiedzi - " + e.getMessage(), e);
+    }
 
-        } catch (Exception e) {
-            throw new ApiException("API error: " + e.getMessage());
+    // Tablica użytkowników: [{ "name", "email", "company": { "name" } , ...}, ...]
+    private int readEmployees(InputStream body, Consumer<Employee> consumer) throws IOException {
+        int count = 0;
+        try (JsonReader reader = new JsonReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            reader.beginArray();
+            while (reader.hasNext()) {
+                consumer.accept(readEmployee(reader));
+                count++;
+            }
+            reader.endArray();
+        }
+        return count;
+    }
+
+    private Employee readEmployee(JsonReader reader) throws IOException {
+        String fullName = null;
+        String email = null;
+        String company = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "name" -> fullName = nextStringOrNull(reader);
+                case "email" -> email = nextStringOrNull(reader);
+                case "company" -> company = readCompanyName(reader);
+                default -> reader.skipValue(); // adres, telefon itp. – pomijane bez parsowania
+            }
+        }
+        reader.endObject();
+
+        if (fullName == null || email == null || company == null) {
+            throw new MalformedJsonException("brak pola name, email lub company.name w " + reader.getPath());
+        }
+
+        String[] nameParts = fullName.split(" ", 2);
+        String firstName = nameParts.length > 0 ? nameParts[0] : "";
+        String lastName = nameParts.length > 1 ? nameParts[1] : "";
+        String jobTitle = "DEVELOPER";
+        double salary = 8000.0;
+
+        return new Employee(
+                firstName,
+                lastName,
+                email,
+                company,
+                jobTitle,
+                salary
+        );
+    }
+
+    private static String readCompanyName(JsonReader reader) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            reader.skipValue();
+            return null;
+        }
+        String name = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if ("name".equals(reader.nextName())) {
+                name = nextStringOrNull(reader);
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return name;
+    }
+
+    private static String nextStringOrNull(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
         }
+        return reader.nextString();
     }
 }
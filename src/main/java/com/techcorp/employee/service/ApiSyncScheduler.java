@@ -0,0 +1,37 @@
+package com.techcorp.employee.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Okresowa synchronizacja różnicowa z API (app.api.sync.scheduled.*).
+ * Pierwszy przebieg po initial-delay – dane startowe ładuje StartupRunner.
+ */
+@Component
+@EnableScheduling
+@ConditionalOnProperty(name = "app.api.sync.scheduled.enabled", havingValue = "true")
+public class ApiSyncScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApiSyncScheduler.class);
+
+    private final ApiSyncService apiSyncService;
+
+    public ApiSyncScheduler(ApiSyncService apiSyncService) {
+        this.apiSyncService = apiSyncService;
+    }
+
+    @Scheduled(fixedDelayString = "${app.api.sync.scheduled.interval:PT15M}",
+            initialDelayString = "${app.api.sync.scheduled.initial-delay:PT15M}")
+    public void scheduledSync() {
+        try {
+            apiSyncService.sync();
+        } catch (Exception e) {
+            // wyjątek nie może zatrzymać kolejnych przebiegów
+            logger.error("Zaplanowana synchronizacja z API nie powiodła się: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package com.techcorp.employee.service;
+
+import com.techcorp.employee.exception.ApiException;
+import com.techcorp.employee.model.ApiSyncResult;
+import com.techcorp.employee.model.ApiSyncStatus;
+import com.techcorp.employee.model.Employee;
+import com.techcorp.employee.model.ImportMode;
+import com.techcorp.employee.model.ImportOutcome;
+import com.techcorp.employee.model.SaveResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.net.URI;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Synchronizacja pracowników z zewnętrznego API: wiele adresów i stron pobieranych
+ * równolegle (liczba jednoczesnych żądań = rozmiar puli apiSyncExecutor),
+ * z limitem czasu na całą stronę i ponowieniami z wykładniczym opóźnieniem.
+ * Do magazynu trafia tylko różnica (nowi, zmienieni, usunięci).
+ */
+@Service
+public class ApiSyncService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApiSyncService.class);
+
+    private final ApiService apiService;
+    private final EmployeeService employeeService;
+    private final ExecutorService apiSyncExecutor;
+    private final ExecutorService apiPageExecutor;
+    private final List<String> endpoints;
+    private final String pageParam;     // pusty = bez stronicowania
+    private final int maxPages;
+    private final int pagesPerRound;
+    private final Duration requestTimeout;
+    private final int maxRetries;
+    private final Duration retryBackoff;
+
+    private final ReentrantLock syncLock = new ReentrantLock();
+
+    // Metryki (pod blokadą obiektu)
+    private ApiSyncResult lastResult;
+    private LocalDateTime lastSuccessAt;
+    private long syncCount;
+    private long failedSyncCount;
+    private int consecutiveFailures;
+    private volatile boolean running;
+
+    public ApiSyncService(ApiService apiService,
+                          EmployeeService employeeService,
+                          @Qualifier("apiSyncExecutor") ExecutorService apiSyncExecutor,
+                          @Qualifier("apiPageExecutor") ExecutorService apiPageExecutor,
+                          @Value("${app.api.sync.endpoints:}") List<String> endpoints,
+                          @Value("${app.api.sync.page-param:}") String pageParam,
+                          @Value("${app.api.sync.max-pages:100}") int maxPages,
+                          @Value("${app.api.sync.concurrency:4}") int concurrency,
+                          @Value("${app.api.sync.request-timeout:10s}") Duration requestTimeout,
+                          @Value("${app.api.sync.max-retries:3}") int maxRetries,
+                          @Value("${app.api.sync.retry-backoff:500ms}") Duration retryBackoff) {
+        this.apiService = apiService;
+        this.employeeService = employeeService;
+        this.apiSyncExecutor = apiSyncExecutor;
+        this.apiPageExecutor = apiPageExecutor;
+        this.endpoints = endpoints.stream().filter(e -> !e.isBlank()).map(String::trim).toList();
+        this.pageParam = pageParam.trim();
+        this.maxPages = maxPages;
+        this.pagesPerRound = Math.max(1, concurrency);
+        this.requestTimeout = requestTimeout;
+        this.maxRetries = maxRetries;
+        this.retryBackoff = retryBackoff;
+    }
+
+    /**
+     * Synchronizacja różnicowa: pobiera dane z API i porównuje je z magazynem po emailu.
+     * Do EmployeeService trafiają tylko nowi i zmienieni (jedna paczka), a pracownicy
+     * pochodzący z API (także wczytani przy starcie), których API już nie zwraca, są usuwani.
+     * Pracownicy dodani z innych źródeł nie są przez API zmieniane ani usuwane.
+     * Równoległe wywołanie (np. ręczne w trakcie zaplanowanego) czeka na zakończenie bieżącego.
+     */
+    public ApiSyncResult sync() {
+        syncLock.lock();
+        running = true;
+        try {
+            ApiSyncResult result = doSync();
+            recordResult(result);
+            return result;
+        } finally {
+            running = false;
+            syncLock.unlock();
+        }
+    }
+
+    public synchronized ApiSyncStatus getStatus() {
+        return new ApiSyncStatus(lastResult, lastSuccessAt, syncCount, failedSyncCount, consecutiveFailures, running);
+    }
+
+    private synchronized void recordResult(ApiSyncResult result) {
+        lastResult = result;
+        syncCount++;
+        if (result.isSuccessful()) {
+            lastSuccessAt = result.getStartedAt();
+            consecutiveFailures = 0;
+        } else {
+            failedSyncCount++;
+            consecutiveFailures++;
+        }
+    }
+
+    private ApiSyncResult doSync() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        long start = System.nanoTime();
+        List<Employee> fetched = Collections.synchronizedList(new ArrayList<>());
+        List<String> errors = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger requests = new AtomicInteger();
+        AtomicInteger retries = new AtomicInteger();
+
+        // Adresy, dla których pobieramy kolejne strony; bez stronicowania każdy ma jedną "stronę"
+        List<String> active = new ArrayList<>(endpoints.isEmpty() ? List.of(apiService.getApiUrl()) : endpoints);
+        int firstPage = 1;
+        while (!active.isEmpty() && firstPage <= maxPages) {
+            // Runda: po pagesPerRound stron dla każdego aktywnego adresu, wszystkie naraz
+            int lastPage = pageParam.isEmpty() ? firstPage : Math.min(maxPages, firstPage + pagesPerRound - 1);
+            Map<String, List<Future<Integer>>> round = new LinkedHashMap<>();
+            for (String endpoint : active) {
+                for (int page = firstPage; page <= lastPage; page++) {
+                    URI uri = pageUri(endpoint, page);
+                    round.computeIfAbsent(endpoint, k -> new ArrayList<>()).add(apiSyncExecutor.submit(
+                            () -> fetchWithRetry(uri, fetched::add, requests, retries)));
+                }
+            }
+
+            List<String> next = new ArrayList<>();
+            for (Map.Entry<String, List<Future<Integer>>> entry : round.entrySet()) {
+                boolean morePages = !pageParam.isEmpty();
+                for (Future<Integer> future : entry.getValue()) {
+                    try {
+                        if (future.get() == 0) morePages = false; // pusta strona = koniec danych
+                    } catch (ExecutionException e) {
+                        errors.add(entry.getKey() + ": " + e.getCause().getMessage());
+                        morePages = false;
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        errors.add("Synchronizacja przerwana");
+                        morePages = false;
+                    }
+                }
+                if (morePages) next.add(entry.getKey());
+            }
+            active = next;
+            firstPage = lastPage + 1;
+        }
+        // Limit stron osiągnięty, a adresy wciąż zwracają dane – pobranie niepełne, więc bez usuwania
+        for (String endpoint : active) {
+            errors.add(endpoint + ": przerwano po " + maxPages + " stronach (app.api.sync.max-pages) – dane niepełne");
+        }
+
+        // Różnica względem magazynu po emailu (ostatni wpis wygrywa przy duplikatach w API)
+        Map<String, Employee> remote = new LinkedHashMap<>();
+        for (Employee employee : fetched) {
+            if (employee.getEmailAddress() != null) remote.put(employee.getEmailAddress().toLowerCase(), employee);
+        }
+        // Pracownicy z innych źródeł (CSV, XML, REST) nie są nadpisywani ani przejmowane przez API
+        Map<String, Employee> current = employeeService.findByEmails(remote.keySet());
+        Set<String> apiEmails = employeeService.findApiEmails();
+        List<Employee> newEmployees = new ArrayList<>();
+        List<Employee> changed = new ArrayList<>();
+        int unchanged = 0, skipped = 0;
+        for (Map.Entry<String, Employee> entry : remote.entrySet()) {
+            Employee existing = current.get(entry.getKey());
+            if (existing == null) {
+                newEmployees.add(entry.getValue());
+            } else if (!apiEmails.contains(entry.getKey())) {
+                skipped++;
+            } else if (existing.hasSameData(entry.getValue())) {
+                unchanged++;
+            } else {
+                changed.add(entry.getValue());
+            }
+        }
+
+        // Tylko zmiany, wsadowo: nowi w trybie INSERT (dodany w międzyczasie z innego źródła
+        // zostanie odrzucony, a nie nadpisany), zmienieni pracownicy z API w trybie UPSERT
+        int inserted = 0, updated = 0, rejected = 0;
+        List<String> insertedEmails = new ArrayList<>();
+        List<SaveResult> insertResults = employeeService.saveEmployees(newEmployees, ImportMode.INSERT);
+        for (int i = 0; i < insertResults.size(); i++) {
+            if (insertResults.get(i).isSaved()) {
+                inserted++;
+                insertedEmails.add(newEmployees.get(i).getEmailAddress());
+            } else {
+                rejected++;
+            }
+        }
+        employeeService.markFromApi(insertedEmails);
+        for (SaveResult result : employeeService.saveEmployees(changed, ImportMode.UPSERT)) {
+            if (!result.isSaved()) {
+                rejected++;
+            } else if (result.getOutcome() == ImportOutcome.UNCHANGED) {
+                unchanged++;
+            } else {
+                updated++;
+            }
+        }
+
+        // Usuwanie tylko po kompletnym pobraniu – przy błędach brakujący pracownicy mogą być na niepobranej stronie
+        int removed = 0;
+        if (errors.isEmpty()) {
+            Set<String> gone = employeeService.findApiEmails();
+            gone.removeAll(remote.keySet());
+            removed = employeeService.removeEmployees(gone);
+        }
+
+        ApiSyncResult result = new ApiSyncResult(startedAt, (System.nanoTime() - start) / 1_000_000,
+                requests.get(), retries.get(), fetched.size(), inserted, updated, unchanged, skipped, rejected, removed,
+                new ArrayList<>(errors));
+        logger.info("Synchronizacja z API zakończona: {}", result);
+        return result;
+    }
+
+    private int fetchWithRetry(URI uri, Consumer<Employee> consumer,
+                               AtomicInteger requests, AtomicInteger retries) throws ApiException, InterruptedException {
+        for (int attempt = 0; ; attempt++) {
+            // Strona zbierana osobno – po nieudanej próbie nie zostają jej fragmenty
+            List<Employee> page = new ArrayList<>();
+            try {
+                int count = fetchPage(uri, page);
+                page.forEach(consumer);
+                requests.incrementAndGet();
+                return count;
+            } catch (ApiException e) {
+                if (!e.isRetryable() || attempt >= maxRetries) throw e;
+                long delay = retryBackoff.toMillis() << attempt; // 1x, 2x, 4x...
+                logger.warn("Błąd pobierania {} ({}), ponowienie za {} ms", uri, e.getMessage(), delay);
+                retries.incrementAndGet();
+                Thread.sleep(delay);
+            }
+        }
+    }
+
+    // Limit czasu na całą stronę (nagłówki i ciało) – HttpRequest.timeout obejmuje tylko nagłówki.
+    // Po jego przekroczeniu pobieranie jest przerywane, a błąd ponawiany jak inne błędy sieci
+    private int fetchPage(URI uri, List<Employee> page) throws ApiException, InterruptedException {
+        Future<Integer> future = apiPageExecutor.submit(() -> apiService.fetchEmployees(uri, requestTimeout, page::add));
+        try {
+            return future.get(requestTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new ApiException("API error: strona nie została pobrana w ciągu " + requestTimeout.toMillis() + " ms",
+                    new HttpTimeoutException("przekroczony limit czasu strony " + uri));
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ApiException apiException) throw apiException;
+            throw new ApiException("API error: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            future.cancel(true); // po przekroczeniu czasu albo przerwaniu – zwalnia połączenie i wątek
+        }
+    }
+
+    private URI pageUri(String endpoint, int page) {
+        if (pageParam.isEmpty()) return URI.create(endpoint);
+        return URI.create(endpoint + (endpoint.contains("?") ? "&" : "?") + pageParam + "=" + page);
+    }
+}
@@ -0,0 +1,124 @@
+package com.techcorp.employee.service;
+
+import com.techcorp.employee.exception.FileNotFoundException;
+import com.techcorp.employee.model.EmployeeDocument;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Archiwum ZIP z dokumentami pracowników budowane w locie, prosto do strumienia odpowiedzi.
+ * Każdy plik kopiowany jest przez stały bufor, więc zużycie pamięci nie zależy od liczby
+ * ani rozmiaru dokumentów. Typy już skompresowane (pdf, obrazy, archiwa) zapisywane są
+ * bez ponownej kompresji (STORED), pozostałe – kompresowane (DEFLATED).
+ */
+@Service
+public class DocumentBundleService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DocumentBundleService.class);
+
+    private static final Set<String> COMPRESSED_EXTENSIONS = Set.of("pdf", "png", "jpg", "jpeg", "gif", "zip", "gz");
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final FileStorageService fileStorageService;
+    private final DocumentIndex documentIndex;
+
+    public DocumentBundleService(FileStorageService fileStorageService, DocumentIndex documentIndex) {
+        this.fileStorageService = fileStorageService;
+        this.documentIndex = documentIndex;
+    }
+
+    /**
+     * Zapisuje dokumenty podanych pracowników jako archiwum ZIP (katalog {email}/ na pracownika).
+     * Brakujący plik nie przerywa archiwum – nagłówki odpowiedzi są już wysłane, więc jest pomijany.
+     *
+     * @return liczba plików w archiwum
+     */
+    public int writeBundle(Collection<String> emails, OutputStream out) throws IOException {
+        int entries = 0;
+        byte[] buffer = new byte[BUFFER_SIZE];
+        ZipOutputStream zip = new ZipOutputStream(out);
+        for (String email : emails) {
+            Set<String> names = new HashSet<>();
+            for (EmployeeDocument document : documentIndex.list(email)) {
+                try {
+                    writeEntry(zip, document, uniqueName(email.toLowerCase() + "/", document, names), buffer);
+                    entries++;
+                } catch (FileNotFoundException e) {
+                    logger.warn("Pominięto w archiwum brakujący plik dokumentu {} ({})", document.getId(), email);
+                }
+            }
+        }
+        zip.finish(); // strumień odpowiedzi zamyka kontener
+        zip.flush();
+        return entries;
+    }
+
+    private void writeEntry(ZipOutputStream zip, EmployeeDocument document, String name, byte[] buffer) throws IOException {
+        ZipEntry entry = new ZipEntry(name);
+        if (document.getUploadDate() != null) {
+            entry.setTime(document.getUploadDate().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        }
+        if (isCompressed(document.getOriginalFileName())) {
+            // STORED wymaga rozmiaru i CRC przed treścią – dodatkowy odczyt pliku zamiast buforowania
+            CRC32 crc = new CRC32();
+            long size = 0;
+            try (InputStream in = fileStorageService.openDocument(document)) {
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    crc.update(buffer, 0, read);
+                    size += read;
+                }
+            }
+            entry.setMethod(ZipEntry.STORED);
+            entry.setSize(size);
+            entry.setCompressedSize(size);
+            entry.setCrc(crc.getValue());
+        } else {
+            entry.setMethod(ZipEntry.DEFLATED);
+        }
+
+        // Plik otwierany przed putNextEntry – brakujący plik nie zostawia w archiwum pustego wpisu
+        try (InputStream in = fileStorageService.openDocument(document)) {
+            zip.putNextEntry(entry);
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                zip.write(buffer, 0, read);
+            }
+        }
+        zip.closeEntry();
+    }
+
+    private static boolean isCompressed(String fileName) {
+        if (fileName == null || !fileName.contains(".")) return false;
+        return COMPRESSED_EXTENSIONS.contains(fileName.substring(fileName.lastIndexOf('.') + 1).toLowerCase());
+    }
+
+    // Nazwa bez ścieżek podanych przez klienta; powtórzenia w katalogu dostają sufiks " (2)", " (3)"...
+    private static String uniqueName(String folder, EmployeeDocument document, Set<String> used) {
+        String original = document.getOriginalFileName() != null ? document.getOriginalFileName() : document.getId();
+        String name = original.replace('\\', '/');
+        name = name.substring(name.lastIndexOf('/') + 1);
+        if (name.isBlank() || name.equals(".") || name.equals("..")) name = document.getId();
+
+        String candidate = name;
+        int dot = name.lastIndexOf('.');
+        for (int i = 2; !used.add(candidate.toLowerCase()); i++) {
+            candidate = dot > 0
+                    ? name.substring(0, dot) + " (" + i + ")" + name.substring(dot)
+                    : name + " (" + i + ")";
+        }
+        return folder + candidate;
+    }
+}
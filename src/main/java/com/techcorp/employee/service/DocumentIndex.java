@@ -0,0 +1,270 @@
+package com.techcorp.employee.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.techcorp.employee.exception.FileStorageException;
+import com.techcorp.employee.model.EmployeeDocument;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Trwały indeks metadanych dokumentów pracowników (email -> id -> dokument).
+ * Każda zmiana dopisywana jest do dziennika (jedna linia JSON, fsync), a co
+ * compact-after wpisów stan zapisywany jest jako snapshot i dziennik jest czyszczony.
+ * Indeks wczytywany leniwie przy pierwszym użyciu: snapshot + odtworzenie dziennika.
+ * <p>
+ * Indeks przechowuje też znaczniki usunięcia pracowników (jawne usunięcie w EmployeeService).
+ * Tylko dokumenty i zdjęcia pracowników ze znacznikiem może usunąć sprzątanie magazynu –
+ * pracownicy żyją w pamięci, więc brak pracownika po restarcie nie oznacza jego usunięcia.
+ */
+@Service
+public class DocumentIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(DocumentIndex.class);
+
+    private static final String PUT = "PUT";
+    private static final String DELETE = "DELETE";
+    private static final String TOMBSTONE = "TOMBSTONE";
+    private static final String UNTOMBSTONE = "UNTOMBSTONE";
+
+    private final ObjectMapper objectMapper;
+    private final FileStorageService fileStorageService;
+    private final Path snapshotFile;
+    private final Path logFile;
+    private final int compactAfter;
+
+    // email (małe litery) -> id -> dokument, w kolejności dodania
+    private final Map<String, LinkedHashMap<String, EmployeeDocument>> documents = new HashMap<>();
+    private final Set<String> deletedEmployees = new TreeSet<>(); // znaczniki usunięcia (email małymi literami)
+    private FileChannel log;
+    private int logEntries;
+    private boolean loaded;
+
+    public DocumentIndex(@Qualifier("jacksonObjectMapper") ObjectMapper objectMapper,
+                         FileStorageService fileStorageService,
+                         @Value("${app.documents.index.file:uploads/document-index}") String indexFile,
+                         @Value("${app.documents.index.compact-after:1000}") int compactAfter) {
+        this.objectMapper = objectMapper;
+        this.fileStorageService = fileStorageService;
+        Path base = Paths.get(indexFile).toAbsolutePath().normalize();
+        this.snapshotFile = base.resolveSibling(base.getFileName() + ".json");
+        this.logFile = base.resolveSibling(base.getFileName() + ".log");
+        this.compactAfter = compactAfter;
+    }
+
+    public synchronized void add(EmployeeDocument document) {
+        ensureLoaded();
+        ObjectNode entry = objectMapper.createObjectNode().put("op", PUT);
+        entry.set("document", objectMapper.valueToTree(document));
+        append(entry);
+        put(document);
+        compactIfNeeded();
+    }
+
+    public synchronized EmployeeDocument find(String email, String id) {
+        ensureLoaded();
+        Map<String, EmployeeDocument> byId = documents.get(key(email));
+        return byId != null ? byId.get(id) : null;
+    }
+
+    public synchronized List<EmployeeDocument> list(String email) {
+        ensureLoaded();
+        Map<String, EmployeeDocument> byId = documents.get(key(email));
+        return byId != null ? new ArrayList<>(byId.values()) : Collections.emptyList();
+    }
+
+    // Kopia wszystkich dokumentów (uzgadnianie magazynu z indeksem)
+    public synchronized List<EmployeeDocument> listAll() {
+        ensureLoaded();
+        List<EmployeeDocument> all = new ArrayList<>();
+        documents.values().forEach(byId -> all.addAll(byId.values()));
+        return all;
+    }
+
+    // Usunięty dokument albo null, gdy nie istniał
+    public synchronized EmployeeDocument remove(String email, String id) {
+        ensureLoaded();
+        Map<String, EmployeeDocument> byId = documents.get(key(email));
+        if (byId == null || !byId.containsKey(id)) return null;
+        append(objectMapper.createObjectNode().put("op", DELETE).put("email", key(email)).put("id", id));
+        EmployeeDocument removed = delete(key(email), id);
+        compactIfNeeded();
+        return removed;
+    }
+
+    // -------------------- Znaczniki usunięcia pracowników --------------------
+    // Pracownik jawnie usunięty – jego pliki mogą zostać sprzątnięte po okresie karencji
+    public synchronized void markEmployeeDeleted(String email) {
+        ensureLoaded();
+        if (deletedEmployees.contains(key(email))) return;
+        append(objectMapper.createObjectNode().put("op", TOMBSTONE).put("email", key(email)));
+        deletedEmployees.add(key(email));
+        compactIfNeeded();
+    }
+
+    // Pracownik wrócił albo jego pliki już usunięto – znacznik niepotrzebny
+    public synchronized void clearEmployeeDeleted(String email) {
+        ensureLoaded();
+        if (!deletedEmployees.contains(key(email))) return;
+        append(objectMapper.createObjectNode().put("op", UNTOMBSTONE).put("email", key(email)));
+        deletedEmployees.remove(key(email));
+        compactIfNeeded();
+    }
+
+    public synchronized boolean isEmployeeDeleted(String email) {
+        ensureLoaded();
+        return deletedEmployees.contains(key(email));
+    }
+
+    public synchronized Set<String> listDeletedEmployees() {
+        ensureLoaded();
+        return new TreeSet<>(deletedEmployees);
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        try {
+            if (log != null) log.close();
+        } catch (IOException e) {
+            logger.warn("Nie można zamknąć dziennika dokumentów {}: {}", logFile, e.getMessage());
+        }
+    }
+
+    // -------------------- Stan w pamięci --------------------
+    private void put(EmployeeDocument document) {
+        documents.computeIfAbsent(key(document.getEmployeeEmail()), k -> new LinkedHashMap<>())
+                .put(document.getId(), document);
+    }
+
+    private EmployeeDocument delete(String email, String id) {
+        LinkedHashMap<String, EmployeeDocument> byId = documents.get(email);
+        if (byId == null) return null;
+        EmployeeDocument removed = byId.remove(id);
+        if (byId.isEmpty()) documents.remove(email);
+        return removed;
+    }
+
+    private static String key(String email) {
+        return email.toLowerCase();
+    }
+
+    // -------------------- Dziennik i snapshot --------------------
+    private void ensureLoaded() {
+        if (loaded) return;
+        try {
+            Files.createDirectories(logFile.getParent());
+            if (Files.exists(snapshotFile)) {
+                readSnapshot(objectMapper.readTree(snapshotFile.toFile()));
+            }
+            log = FileChannel.open(logFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            long validLength = replayLog();
+            // niepełna ostatnia linia (awaria w trakcie zapisu) jest odcinana
+            log.truncate(validLength);
+            log.position(validLength);
+        } catch (IOException e) {
+            throw new FileStorageException("Nie można wczytać indeksu dokumentów: " + snapshotFile, e);
+        }
+
+        int count = 0;
+        for (Map<String, EmployeeDocument> byId : documents.values()) {
+            for (EmployeeDocument document : byId.values()) {
+                if (document.getBlobHash() != null) fileStorageService.registerBlobReference(document.getBlobHash());
+                count++;
+            }
+        }
+        loaded = true;
+        logger.info("Wczytano indeks dokumentów: {} dokumentów, {} wpisów dziennika", count, logEntries);
+    }
+
+    // Snapshot: {"documents": [...], "deletedEmployees": [...]}; starszy zapis to sama tablica dokumentów
+    private void readSnapshot(JsonNode snapshot) throws IOException {
+        JsonNode documentNodes = snapshot.isArray() ? snapshot : snapshot.path("documents");
+        List<EmployeeDocument> loadedDocuments = objectMapper.convertValue(documentNodes,
+                new TypeReference<List<EmployeeDocument>>() {});
+        if (loadedDocuments != null) loadedDocuments.forEach(this::put);
+        snapshot.path("deletedEmployees").forEach(email -> deletedEmployees.add(email.asText()));
+    }
+
+    private long replayLog() throws IOException {
+        byte[] bytes = Files.readAllBytes(logFile);
+        int lineStart = 0;
+        for (int i = 0; i < bytes.length; i++) {
+            if (bytes[i] != '\n') continue;
+            String line = new String(bytes, lineStart, i - lineStart, StandardCharsets.UTF_8);
+            lineStart = i + 1;
+            if (line.isBlank()) continue;
+            try {
+                apply(objectMapper.readTree(line));
+                logEntries++;
+            } catch (IOException e) {
+                logger.warn("Pominięto uszkodzony wpis dziennika dokumentów: {}", e.getMessage());
+            }
+        }
+        return lineStart;
+    }
+
+    private void apply(JsonNode entry) throws IOException {
+        if (PUT.equals(entry.path("op").asText())) {
+            put(objectMapper.treeToValue(entry.get("document"), EmployeeDocument.class));
+        } else if (DELETE.equals(entry.path("op").asText())) {
+            delete(entry.path("email").asText(), entry.path("id").asText());
+        } else if (TOMBSTONE.equals(entry.path("op").asText())) {
+            deletedEmployees.add(entry.path("email").asText());
+        } else if (UNTOMBSTONE.equals(entry.path("op").asText())) {
+            deletedEmployees.remove(entry.path("email").asText());
+        }
+    }
+
+    private void append(JsonNode entry) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap((objectMapper.writeValueAsString(entry) + "\n").getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                log.write(buffer);
+            }
+            log.force(false); // wpis trwały, zanim odpowiemy klientowi
+        } catch (IOException e) {
+            throw new FileStorageException("Nie można zapisać indeksu dokumentów: " + logFile, e);
+        }
+        logEntries++;
+    }
+
+    // Snapshot przez plik tymczasowy i atomową podmianę; awaria przed wyczyszczeniem
+    // dziennika jest bezpieczna – ponowne odtworzenie wpisów daje ten sam stan
+    private void compactIfNeeded() {
+        if (logEntries < compactAfter) return;
+        Path tmp = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+        try {
+            List<EmployeeDocument> all = new ArrayList<>();
+            documents.values().forEach(byId -> all.addAll(byId.values()));
+            ObjectNode snapshot = objectMapper.createObjectNode();
+            snapshot.set("documents", objectMapper.valueToTree(all));
+            snapshot.set("deletedEmployees", objectMapper.valueToTree(deletedEmployees));
+            objectMapper.writeValue(tmp.toFile(), snapshot);
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+            Files.move(tmp, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.truncate(0);
+            log.position(0);
+            log.force(true);
+            logEntries = 0;
+            logger.info("Indeks dokumentów skompaktowany: {} dokumentów", all.size());
+        } catch (IOException e) {
+            // dziennik zostaje – kompaktowanie zostanie ponowione przy kolejnym wpisie
+            logger.error("Nie można zapisać snapshotu indeksu dokumentów {}: {}", snapshotFile, e.getMessage());
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.techcorp.employee.exception.FileNotFoundException;
 import com.techcorp.employee.exception.InvalidDataException;
 import com.techcorp.employee.model.EmployeeDocument;
 import com.techcorp.employee.model.DocumentType;
+import com.techcorp.employee.model.StoredFile;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -13,10 +14,11 @@ import java.util.*;
 public class EmployeeDocumentService {
 
     private final FileStorageService fileStorageService;
-    private final Map<String, List<EmployeeDocument>> employeeDocuments = new HashMap<>();
+    private final DocumentIndex documentIndex;
 
-    public EmployeeDocumentService(FileStorageService fileStorageService) {
+    public EmployeeDocumentService(FileStorageService fileStorageService, DocumentIndex documentIndex) {
         this.fileStorageService = fileStorageService;
+        this.documentIndex = documentIndex;
     }
 
     public EmployeeDocument saveDocument(String employeeEmail, MultipartFile file, DocumentType type) {
@@ -24,41 +26,27 @@ public class EmployeeDocumentService {
             throw new InvalidDataException("Email pracownika nie może być pusty");
         }
 
-        // zapis pliku w podfolderze email
-        String uniqueFileName = fileStorageService.saveFile(file, "documents/" + employeeEmail);
+        // treść trafia do współdzielonego magazynu – identyczne pliki zapisywane są raz
+        StoredFile blob = fileStorageService.saveBlob(file);
+        EmployeeDocument doc = new EmployeeDocument(employeeEmail, blob, file.getOriginalFilename(), type);
 
-        String filePath = "documents/" + employeeEmail + "/" + uniqueFileName;
-        EmployeeDocument doc = new EmployeeDocument(
-                employeeEmail,
-                uniqueFileName,
-                file.getOriginalFilename(),
-                type,
-                filePath
-        );
-
-        employeeDocuments.computeIfAbsent(employeeEmail, k -> new ArrayList<>()).add(doc);
+        documentIndex.add(doc);
         return doc;
     }
 
     public List<EmployeeDocument> getDocuments(String employeeEmail) {
-        return employeeDocuments.getOrDefault(employeeEmail, Collections.emptyList());
+        return documentIndex.list(employeeEmail);
     }
 
     public EmployeeDocument getDocumentById(String employeeEmail, String documentId) {
-        return getDocuments(employeeEmail).stream()
-                .filter(d -> d.getId().equals(documentId))
-                .findFirst()
-                .orElseThrow(() -> new FileNotFoundException("Dokument nie znaleziony: " + documentId));
+        EmployeeDocument doc = documentIndex.find(employeeEmail, documentId);
+        if (doc == null) throw new FileNotFoundException("Dokument nie znaleziony: " + documentId);
+        return doc;
     }
 
     public void deleteDocument(String employeeEmail, String documentId) {
-        List<EmployeeDocument> docs = getDocuments(employeeEmail);
-        EmployeeDocument doc = docs.stream()
-                .filter(d -> d.getId().equals(documentId))
-                .findFirst()
-                .orElseThrow(() -> new FileNotFoundException("Dokument nie znaleziony: " + documentId));
-
-        fileStorageService.deleteFile("documents/" + employeeEmail, doc.getFileName());
-        docs.remove(doc);
+        EmployeeDocument doc = documentIndex.remove(employeeEmail, documentId);
+        if (doc == null) throw new FileNotFoundException("Dokument nie znaleziony: " + documentId);
+        fileStorageService.deleteDocument(doc);
     }
 }
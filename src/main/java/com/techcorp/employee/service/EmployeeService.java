@@ -5,10 +5,10 @@ import com.techcorp.employee.mapper.EmployeeMapper;
 import com.techcorp.employee.exception.InvalidDataException;
 import com.techcorp.employee.model.*;
 import com.techcorp.employee.util.CsvUtils;
+import com.techcorp.employee.util.EmployeeValidator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.multipart.MultipartFile;
@@ -21,59 +21,55 @@ public class EmployeeService {
 
     private static final Logger logger = LoggerFactory.getLogger(EmployeeService.class);
 
+    // Dostęp do listy tylko w metodach synchronized – importy działają też w wątkach w tle
     private final EmailSet emailSet;
+    private final DocumentIndex documentIndex; // znaczniki usunięcia dla sprzątania plików (null w testach)
     private final List<Employee> employees;
+    private final Map<String, Employee> employeesByEmail = new HashMap<>(); // email (małe litery) -> pracownik
+    private final Map<String, List<Employee>> employeesByCompany = new HashMap<>(); // firma (małe litery) -> pracownicy
+    private final Set<String> apiEmails = new HashSet<>(); // pracownicy pochodzący z API (email małymi literami)
 
-    @Autowired
-    public EmployeeService(EmailSet emailSet, @Qualifier("xmlEmployees") List<Employee> xmlEmployees) throws InvalidDataException {
-        this.emailSet = emailSet;
-        this.employees = new ArrayList<>();
+    // Wersja zbioru pracowników: instancja + licznik usunięć. Dopóki się nie zmieni,
+    // żaden zapisany wcześniej pracownik nie zniknął (także po restarcie – nowa instancja)
+    private final String storeId = UUID.randomUUID().toString();
+    private long removals;
 
-        if (xmlEmployees != null && !xmlEmployees.isEmpty()) {
-            for (Employee e : xmlEmployees) {
-                addEmployee(e);
-            }
-            logger.info("Dodano pracowników z beana:");
-            printAllEmployees(); // pozostaje dokładnie tak jak było
-        }
-    }
-
-    public EmployeeService(EmailSet emailSet) {
+    // Pracownicy z beans.xml są dodawani przez StartupService razem z CSV i API
+    @Autowired
+    public EmployeeService(EmailSet emailSet, DocumentIndex documentIndex) {
         this.emailSet = emailSet;
+        this.documentIndex = documentIndex;
         this.employees = new ArrayList<>();
         logger.info("EmployeeService utworzony z pustą listą pracowników.");
     }
 
     public EmployeeService() {
         this.emailSet = new EmailSet();
+        this.documentIndex = null;
         this.employees = new ArrayList<>();
         logger.info("EmployeeService utworzony z pustą listą pracowników.");
     }
 
     // --- Metody z EmployeeDTO ---
-    public List<EmployeeDTO> getAllEmployees() {
+    public synchronized List<EmployeeDTO> getAllEmployees() {
         return employees.stream()
                 .map(EmployeeMapper::toDTO)
                 .collect(Collectors.toList());
     }
 
-    public EmployeeDTO getEmployeeByEmail(String email) {
-        return employees.stream()
-                .filter(e -> e.getEmailAddress().equalsIgnoreCase(email))
-                .findFirst()
-                .map(EmployeeMapper::toDTO)
-                .orElse(null);
-    }
-
-    public EmployeeDTO updateEmployee(String email, EmployeeDTO updatedDTO) {
-        for (Employee e : employees) {
-            if (e.getEmailAddress().equalsIgnoreCase(email)) {
-                e.setSalary(updatedDTO.getSalary());
-                // pozostawiamy przypisanie jobTitle dokładnie jak w poprzednim kodzie
-                // e.setJobTitle(updatedDTO.getPosition());
-                logger.info("Zaktualizowano dane pracownika z emailem: {}", email);
-                return EmployeeMapper.toDTO(e);
-            }
+    public synchronized EmployeeDTO getEmployeeByEmail(String email) {
+        Employee employee = findByEmail(email);
+        return employee != null ? EmployeeMapper.toDTO(employee) : null;
+    }
+
+    public synchronized EmployeeDTO updateEmployee(String email, EmployeeDTO updatedDTO) {
+        Employee e = findByEmail(email);
+        if (e != null) {
+            e.setSalary(updatedDTO.getSalary());
+            // pozostawiamy przypisanie jobTitle dokładnie jak w poprzednim kodzie
+            // e.setJobTitle(updatedDTO.getPosition());
+            logger.info("Zaktualizowano dane pracownika z emailem: {}", email);
+            return EmployeeMapper.toDTO(e);
         }
         logger.warn("Nie znaleziono pracownika do aktualizacji: {}", email);
         return null;
@@ -83,12 +79,8 @@ public class EmployeeService {
         return removeEmployeeByEmail(email);
     }
 
-    public EmployeeDTO updateEmployeeStatus(String email, EmploymentStatus status) {
-        Employee employee = employees.stream()
-                .filter(e -> e.getEmailAddress().equalsIgnoreCase(email))
-                .findFirst()
-                .orElse(null);
-
+    public synchronized EmployeeDTO updateEmployeeStatus(String email, EmploymentStatus status) {
+        Employee employee = findByEmail(email);
         if (employee == null) return null;
 
         // poprawione: faktycznie zmieniamy status w modelu Employee
@@ -100,7 +92,7 @@ public class EmployeeService {
         return dto;
     }
 
-    public List<EmployeeDTO> getEmployeesByStatus(EmploymentStatus status) {
+    public synchronized List<EmployeeDTO> getEmployeesByStatus(EmploymentStatus status) {
         // teraz poprawnie zwraca listę pracowników o podanym statusie
         return employees.stream()
                 .filter(e -> e.getStatus() == status)
@@ -109,38 +101,146 @@ public class EmployeeService {
     }
 
     // --- Metody operujące na modelu Employee ---
-    public boolean addEmployee(Employee employee) throws InvalidDataException {
-        if (employee == null) throw new InvalidDataException("Pracownik nie może być null.");
-        validateEmployeeData(employee);
+    public synchronized boolean addEmployee(Employee employee) throws InvalidDataException {
+        SaveResult result = trySaveEmployee(employee, ImportMode.INSERT);
+        if (!result.isSaved()) throw new InvalidDataException(result.getError());
+        return true;
+    }
 
-        if (emailSet.containsEmail(employee.getEmailAddress())) {
-            throw new InvalidDataException("Email " + employee.getEmailAddress() + " już istnieje!");
+    /**
+     * Zapis pracownika z importu. W trybie UPSERT istniejący pracownik (po emailu)
+     * jest aktualizowany tylko wtedy, gdy jego dane faktycznie się zmieniły.
+     */
+    public synchronized ImportOutcome saveEmployee(Employee employee, ImportMode mode) throws InvalidDataException {
+        SaveResult result = trySaveEmployee(employee, mode);
+        if (!result.isSaved()) throw new InvalidDataException(result.getError());
+        return result.getOutcome();
+    }
+
+    /**
+     * Jak saveEmployee, ale odrzucenie zwracane jest jako SaveResult.rejected
+     * zamiast wyjątku – dla importów, gdzie złe wiersze są częste.
+     */
+    public synchronized SaveResult trySaveEmployee(Employee employee, ImportMode mode) {
+        ValidationResult validation = EmployeeValidator.validate(employee);
+        if (!validation.isValid()) return SaveResult.rejected(validation);
+
+        Employee existing = findByEmail(employee.getEmailAddress());
+        if (existing == null) {
+            insert(employee);
+            return SaveResult.saved(ImportOutcome.INSERTED);
         }
+        if (mode != ImportMode.UPSERT) {
+            return SaveResult.rejected(ValidationResult.of(new Violation("email", Violation.DUPLICATE_EMAIL,
+                    "Email " + employee.getEmailAddress() + " już istnieje!")));
+        }
+
+        if (existing.hasSameData(employee)) {
+            return SaveResult.saved(ImportOutcome.UNCHANGED);
+        }
+        String previousCompany = companyKey(existing);
+        existing.copyDataFrom(employee);
+        if (!previousCompany.equals(companyKey(existing))) {
+            unindexCompany(existing, previousCompany);
+            employeesByCompany.computeIfAbsent(companyKey(existing), k -> new ArrayList<>()).add(existing);
+        }
+        logger.info("Zaktualizowano pracownika z importu: {}", existing.getEmailAddress());
+        return SaveResult.saved(ImportOutcome.UPDATED);
+    }
+
+    /**
+     * Zapis wsadowy – jedna blokada na całą paczkę zamiast na każdy wiersz.
+     * Odrzucone wiersze zwracane jako SaveResult.rejected, bez przerywania paczki.
+     */
+    public synchronized List<SaveResult> saveEmployees(List<Employee> batch, ImportMode mode) {
+        List<SaveResult> results = new ArrayList<>(batch.size());
+        for (Employee employee : batch) {
+            results.add(trySaveEmployee(employee, mode));
+        }
+        return results;
+    }
+
+    private void insert(Employee employee) {
         if (employee.getStatus() == null) employee.setStatus(EmploymentStatus.ACTIVE);
 
         employees.add(employee);
+        employeesByEmail.put(employee.getEmailAddress().toLowerCase(), employee);
+        employeesByCompany.computeIfAbsent(companyKey(employee), k -> new ArrayList<>()).add(employee);
         emailSet.addEmail(employee.getEmailAddress());
         logger.info("Dodano pracownika: {} {}", employee.getFirstName(), employee.getLastName());
-        return true;
     }
 
-    private void validateEmployeeData(Employee employee) throws InvalidDataException {
-        if (employee.getFirstName() == null || employee.getFirstName().isBlank())
-            throw new InvalidDataException("Imię nie może być puste.");
-        if (employee.getLastName() == null || employee.getLastName().isBlank())
-            throw new InvalidDataException("Nazwisko nie może być puste.");
-        if (employee.getEmailAddress() == null || employee.getEmailAddress().isBlank())
-            throw new InvalidDataException("Email nie może być pusty.");
-        if (employee.getCompanyName() == null || employee.getCompanyName().isBlank())
-            throw new InvalidDataException("Nazwa firmy nie może być pusta.");
-        if (employee.getJobTitle() == null || employee.getJobTitle().isBlank())
-            throw new InvalidDataException("Stanowisko nie może być puste.");
+    // Pracownicy o podanych emailach pod jedną blokadą (klucz: email małymi literami)
+    public synchronized Map<String, Employee> findByEmails(Collection<String> emails) {
+        Map<String, Employee> found = new HashMap<>();
+        for (String email : emails) {
+            Employee employee = findByEmail(email);
+            if (employee != null) found.put(email.toLowerCase(), employee);
+        }
+        return found;
     }
 
-    public boolean removeEmployeeByEmail(String email) {
-        boolean removed = employees.removeIf(e -> e.getEmailAddress().equalsIgnoreCase(email));
+    // Usunięcie wsadowe – zwraca liczbę faktycznie usuniętych
+    public synchronized int removeEmployees(Collection<String> emails) {
+        int removed = 0;
+        for (String email : emails) {
+            if (removeEmployeeByEmail(email)) removed++;
+        }
+        return removed;
+    }
+
+    // Pracownicy pochodzący z API (start aplikacji, synchronizacja) – tylko ich
+    // usuwa synchronizacja, gdy API przestanie ich zwracać; nieistniejący są pomijani
+    public synchronized void markFromApi(Collection<String> emails) {
+        for (String email : emails) {
+            if (findByEmail(email) != null) apiEmails.add(email.toLowerCase());
+        }
+    }
+
+    public synchronized Set<String> findApiEmails() {
+        return new HashSet<>(apiEmails);
+    }
+
+    public synchronized String getStoreVersion() {
+        return storeId + ":" + removals;
+    }
+
+    // Wersja zbioru, jeśli wszyscy podani pracownicy istnieją (null, gdy któregoś już nie ma)
+    public synchronized String getStoreVersionIfAllExist(Collection<String> emails) {
+        for (String email : emails) {
+            if (findByEmail(email) == null) return null;
+        }
+        return getStoreVersion();
+    }
+
+    public synchronized boolean existsByEmail(String email) {
+        return findByEmail(email) != null;
+    }
+
+    private Employee findByEmail(String email) {
+        return email != null ? employeesByEmail.get(email.toLowerCase()) : null;
+    }
+
+    private static String companyKey(Employee employee) {
+        return employee.getCompanyName() != null ? employee.getCompanyName().toLowerCase() : "";
+    }
+
+    private void unindexCompany(Employee employee, String company) {
+        List<Employee> companyEmployees = employeesByCompany.get(company);
+        if (companyEmployees == null) return;
+        companyEmployees.remove(employee);
+        if (companyEmployees.isEmpty()) employeesByCompany.remove(company);
+    }
+
+    public synchronized boolean removeEmployeeByEmail(String email) {
+        Employee employee = employeesByEmail.remove(email.toLowerCase());
+        boolean removed = employee != null && employees.remove(employee);
         if (removed) {
+            unindexCompany(employee, companyKey(employee));
             emailSet.removeEmail(email);
+            apiEmails.remove(email.toLowerCase());
+            removals++;
+            if (documentIndex != null) documentIndex.markEmployeeDeleted(email);
             logger.info("Usunięto pracownika z emailem: {}", email);
         } else {
             logger.warn("Nie znaleziono pracownika z emailem: {}", email);
@@ -149,7 +249,7 @@ public class EmployeeService {
     }
 
     // --- Pozostałe metody, statystyki, grupowania ---
-    public void printAllEmployees() {
+    public synchronized void printAllEmployees() {
         if (employees.isEmpty()) {
             logger.info("Brak pracowników do wyświetlenia.");
             return;
@@ -160,35 +260,39 @@ public class EmployeeService {
         }
     }
 
-    public List<Employee> findEmployeesByCompany(String companyName) {
-        return employees.stream()
-                .filter(e -> e.getCompanyName().equalsIgnoreCase(companyName))
-                .collect(Collectors.toList());
+    // Kopia listy z indeksu firm – bez przeglądania wszystkich pracowników
+    public synchronized List<Employee> findEmployeesByCompany(String companyName) {
+        if (companyName == null) return new ArrayList<>();
+        return new ArrayList<>(employeesByCompany.getOrDefault(companyName.toLowerCase(), Collections.emptyList()));
+    }
+
+    public synchronized List<Employee> findAllEmployees() {
+        return new ArrayList<>(employees);
     }
 
-    public Map<String, List<Employee>> groupEmployeesByJobTitle() {
+    public synchronized Map<String, List<Employee>> groupEmployeesByJobTitle() {
         return employees.stream()
                 .collect(Collectors.groupingBy(Employee::getJobTitle));
     }
 
-    public Map<String, Long> countEmployeesByJobTitle() {
+    public synchronized Map<String, Long> countEmployeesByJobTitle() {
         return employees.stream()
                 .collect(Collectors.groupingBy(Employee::getJobTitle, Collectors.counting()));
     }
 
-    public double calculateAverageSalary() {
+    public synchronized double calculateAverageSalary() {
         return employees.stream()
                 .mapToDouble(Employee::getSalary)
                 .average()
                 .orElse(0.0);
     }
 
-    public Optional<Employee> findHighestPaidEmployee() {
+    public synchronized Optional<Employee> findHighestPaidEmployee() {
         return employees.stream()
                 .max(Comparator.comparingDouble(Employee::getSalary));
     }
 
-    public Map<String, CompanyStatistics> getCompanyStatistics() {
+    public synchronized Map<String, CompanyStatistics> getCompanyStatistics() {
         return employees.stream()
                 .collect(Collectors.groupingBy(
                         Employee::getCompanyName,
@@ -201,7 +305,7 @@ public class EmployeeService {
                 ));
     }
 
-    public Map<EmploymentStatus, Long> getEmployeesStatusStatistics() {
+    public synchronized Map<EmploymentStatus, Long> getEmployeesStatusStatistics() {
         // Tworzymy mapę z każdym statusem i liczbą pracowników
         return Arrays.stream(EmploymentStatus.values())
                 .collect(Collectors.toMap(
@@ -216,13 +320,8 @@ public class EmployeeService {
     public int importFromCsv(MultipartFile file) throws InvalidDataException {
         List<Employee> importedEmployees = CsvUtils.parseCsv(file); // osobny helper do parsowania
         int count = 0;
-        for (Employee e : importedEmployees) {
-            try {
-                addEmployee(e);
-                count++;
-            } catch (InvalidDataException ex) {
-                // pomijamy lub logujemy błędne rekordy
-            }
+        for (SaveResult result : saveEmployees(importedEmployees, ImportMode.INSERT)) {
+            if (result.isSaved()) count++; // błędne rekordy pomijamy
         }
         return count;
     }
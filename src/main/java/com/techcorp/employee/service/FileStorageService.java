@@ -1,28 +1,84 @@
 package com.techcorp.employee.service;
 
 import com.techcorp.employee.exception.*;
+import com.techcorp.employee.model.ChunkedUpload;
+import com.techcorp.employee.model.EmployeeDocument;
+import com.techcorp.employee.model.StoredFile;
+import com.techcorp.employee.util.FileTypeSniffer;
+import com.techcorp.employee.util.GzipUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
 import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.BufferedInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
 
 @Service
 public class FileStorageService {
 
+    private static final Logger logger = LoggerFactory.getLogger(FileStorageService.class);
+
+    private static final String CHUNKS_FOLDER = "chunks";
+    private static final int CHUNK_BUFFER_SIZE = 64 * 1024;
+    private static final String ERROR_REPORT_PREFIX = "import-errors-";
+    private static final String BLOBS_FOLDER = "blobs";
+    private static final String PHOTOS_FOLDER = "photos";
+    private static final String IMPORTS_FOLDER = "uploads";
+    private static final long MAX_FILE_SIZE = 2 * 1024 * 1024; // 2 MB – pliki przesyłane jako multipart
+    private static final Set<String> COMPRESSIBLE_EXTENSIONS = Set.of("csv", "txt", "xml");
+    private static final Set<String> ALLOWED_EXTENSIONS = Set.of("csv", "xml", "pdf", "txt", "jpg", "jpeg", "png", "gif");
+    // archiwa tylko dla plików importu – import pilnuje limitu rozpakowanej treści
+    private static final Set<String> ARCHIVE_EXTENSIONS = Set.of("gz", "zip");
+    private static final Set<String> PHOTO_EXTENSIONS = Set.of("jpg", "jpeg", "png", "gif");
+
     private final Path uploadPath;
     private final Path reportsPath;
+    private final long maxChunkedUploadSize;
+    private final long maxStreamedUploadSize;
+    private final boolean compressText;
+    private final Map<String, ChunkedUpload> chunkedUploads = new ConcurrentHashMap<>();
+    private final Map<String, Integer> blobReferences = new HashMap<>(); // sha256 -> liczba dokumentów; dostęp pod blokadą mapy
 
     public FileStorageService(
             @Value("${app.upload.directory}") String uploadDir,
-            @Value("${app.reports.directory}") String reportsDir) {
+            @Value("${app.reports.directory}") String reportsDir,
+            @Value("${app.upload.chunked.max-size:10GB}") DataSize maxChunkedUploadSize,
+            @Value("${app.upload.stream.max-size:100MB}") DataSize maxStreamedUploadSize,
+            @Value("${app.upload.compress-text:false}") boolean compressText) {
 
         this.uploadPath = Paths.get(uploadDir).toAbsolutePath().normalize();
         this.reportsPath = Paths.get(reportsDir).toAbsolutePath().normalize();
+        this.maxChunkedUploadSize = maxChunkedUploadSize.toBytes();
+        this.maxStreamedUploadSize = maxStreamedUploadSize.toBytes();
+        this.compressText = compressText;
 
         try {
             Files.createDirectories(this.uploadPath);
@@ -33,27 +89,50 @@ public class FileStorageService {
     }
 
     public String saveFile(MultipartFile file, String subfolder) {
-        validateFile(file);
+        return saveFileWithDigest(file, subfolder).getFileName();
+    }
+
+    // Zapis z sumą SHA-256 liczoną w tym samym przebiegu co kopiowanie. Pliki tekstowe przy
+    // włączonej kompresji trafiają na dysk jako "<uuid>.csv.gz" (import rozpakowuje je w locie);
+    // suma i rozmiar dotyczą zawsze treści przesłanej przez klienta.
+    public StoredFile saveFileWithDigest(MultipartFile file, String subfolder) {
+        validateFile(file, IMPORTS_FOLDER.equals(subfolder));
 
         String originalName = file.getOriginalFilename();
         String extension = getExtension(originalName);
-        String uniqueName = UUID.randomUUID() + "." + extension;
+        boolean compress = shouldCompress(extension);
+        String uniqueName = UUID.randomUUID() + "." + extension + (compress ? ".gz" : "");
 
-        Path targetDir = uploadPath.resolve(subfolder).normalize();
-        try {
+        Path targetDir = shardDirectory(subfolder, uniqueName);
+        try (DigestInputStream in = new DigestInputStream(file.getInputStream(), newSha256())) {
             Files.createDirectories(targetDir);
-            Files.copy(file.getInputStream(),
-                    targetDir.resolve(uniqueName),
-                    StandardCopyOption.REPLACE_EXISTING);
-            return uniqueName;
+            long size;
+            try (OutputStream out = openForWrite(targetDir.resolve(uniqueName), compress)) {
+                size = in.transferTo(out);
+            }
+            return new StoredFile(uniqueName, HexFormat.of().formatHex(in.getMessageDigest().digest()), size);
         } catch (IOException e) {
             throw new FileStorageException("Błąd zapisu pliku: " + originalName, e);
         }
     }
 
+    public Path getUploadRoot() {
+        return uploadPath;
+    }
+
+    // Plik w układzie z podziałem; pliki sprzed migracji znajdowane w starym, płaskim miejscu
+    public Path resolvePath(String subfolder, String filename) {
+        Path sharded = shardDirectory(subfolder, filename).resolve(filename);
+        if (!Files.exists(sharded)) {
+            Path legacy = uploadPath.resolve(subfolder).resolve(filename).normalize();
+            if (Files.exists(legacy)) return legacy;
+        }
+        return sharded;
+    }
+
     public Resource loadFile(String subfolder, String filename) {
         try {
-            Path path = uploadPath.resolve(subfolder).resolve(filename).normalize();
+            Path path = resolvePath(subfolder, filename);
             Resource resource = new UrlResource(path.toUri());
             if (!resource.exists()) throw new FileNotFoundException("Plik nie istnieje: " + filename);
             return resource;
@@ -64,38 +143,551 @@ public class FileStorageService {
 
     public void deleteFile(String subfolder, String filename) {
         try {
-            Files.deleteIfExists(uploadPath.resolve(subfolder).resolve(filename));
+            Files.deleteIfExists(resolvePath(subfolder, filename));
         } catch (IOException e) {
             throw new FileStorageException("Nie udało się usunąć pliku: " + filename, e);
         }
     }
 
+    // -------------------- Magazyn treści (deduplikacja po SHA-256) --------------------
+    // Ta sama treść (np. szablon umowy wgrany dla wielu pracowników) zapisywana jest raz,
+    // pod nazwą równą sumie SHA-256; każdy dokument to jedna referencja do bloba.
+    public StoredFile saveBlob(MultipartFile file) {
+        validateFile(file);
+        try {
+            return storeBlob(file.getInputStream(), file.getOriginalFilename(), MAX_FILE_SIZE);
+        } catch (IOException e) {
+            throw new FileStorageException("Błąd zapisu pliku: " + file.getOriginalFilename(), e);
+        }
+    }
+
+    // Treść żądania bez multipartu – limit app.upload.stream.max-size; zadeklarowany
+    // Content-Length ponad limit odrzucany od razu, bez czytania treści
+    public StoredFile saveBlob(InputStream content, String originalFileName, Long contentLength) {
+        if (contentLength != null && contentLength > maxStreamedUploadSize) {
+            throw new FileTooLargeException("Plik jest za duży. Maksymalny rozmiar to "
+                    + DataSize.ofBytes(maxStreamedUploadSize).toMegabytes() + " MB.");
+        }
+        return storeBlob(content, originalFileName, maxStreamedUploadSize);
+    }
+
+    /**
+     * Zapis strumienia (treść żądania bez multipartu) prosto do magazynu w jednym przebiegu:
+     * limit rozmiaru sprawdzany w trakcie kopiowania, typ rozpoznawany po sygnaturze
+     * pierwszych bajtów, a suma SHA-256 liczona równocześnie z zapisem.
+     */
+    private StoredFile storeBlob(InputStream content, String originalFileName, long maxSize) {
+        String extension = getExtension(originalFileName).toLowerCase();
+        checkAllowedExtension(extension, false);
+
+        Path blobsDir = uploadPath.resolve(BLOBS_FOLDER);
+        Path tempFile = blobsDir.resolve(UUID.randomUUID() + ".part");
+        boolean stored = false;
+        try (InputStream in = content) {
+            Files.createDirectories(blobsDir);
+            MessageDigest digest = newSha256();
+            byte[] head = new byte[FileTypeSniffer.SNIFF_LENGTH];
+            int headLength = 0;
+            boolean typeChecked = false;
+            long size = 0;
+
+            try (OutputStream out = openForWrite(tempFile, shouldCompress(extension))) {
+                byte[] buffer = new byte[CHUNK_BUFFER_SIZE];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    size += read;
+                    if (size > maxSize) {
+                        throw new FileTooLargeException("Plik jest za duży. Maksymalny rozmiar to "
+                                + DataSize.ofBytes(maxSize).toMegabytes() + " MB.");
+                    }
+                    if (!typeChecked) {
+                        int copied = Math.min(read, head.length - headLength);
+                        System.arraycopy(buffer, 0, head, headLength, copied);
+                        headLength += copied;
+                        if (headLength == head.length) {
+                            checkContentType(extension, head, headLength); // przed zapisem reszty pliku
+                            typeChecked = true;
+                        }
+                    }
+                    digest.update(buffer, 0, read);
+                    out.write(buffer, 0, read);
+                }
+            }
+            if (size == 0) throw new InvalidFileException("Plik jest pusty!");
+            if (!typeChecked) checkContentType(extension, head, headLength);
+
+            String sha256 = HexFormat.of().formatHex(digest.digest());
+            synchronized (blobReferences) {
+                Path blob = blobPath(sha256);
+                if (Files.exists(blob)) {
+                    Files.delete(tempFile); // treść już jest w magazynie
+                } else {
+                    Files.createDirectories(blob.getParent());
+                    Files.move(tempFile, blob, StandardCopyOption.ATOMIC_MOVE);
+                }
+                blobReferences.merge(sha256, 1, Integer::sum);
+            }
+            stored = true;
+            return new StoredFile(sha256, sha256, size);
+        } catch (IOException e) {
+            throw new FileStorageException("Błąd zapisu pliku: " + originalFileName, e);
+        } finally {
+            if (!stored) deleteQuietly(tempFile);
+        }
+    }
+
+    // -------------------- Kompresja plików tekstowych --------------------
+    // csv/txt/xml kompresują się kilkukrotnie; blob zapisany w gzip rozpoznawany jest
+    // po sygnaturze (tekst nie zaczyna się od 0x1f 0x8b), więc starsze pliki pozostają czytelne
+    private boolean shouldCompress(String extension) {
+        return compressText && COMPRESSIBLE_EXTENSIONS.contains(extension.toLowerCase());
+    }
+
+    private static OutputStream openForWrite(Path file, boolean compress) throws IOException {
+        OutputStream out = Files.newOutputStream(file, StandardOpenOption.CREATE_NEW);
+        return compress ? new GZIPOutputStream(out, CHUNK_BUFFER_SIZE) : out;
+    }
+
+    // Czy dokument leży na dysku w postaci gzip (można go wysłać z Content-Encoding: gzip).
+    // Decyduje sygnatura bloba, nie rozszerzenie dokumentu – blob jest współdzielony przez
+    // dokumenty o tej samej treści, także wgrane pod innym rozszerzeniem (np. pdf jako .txt).
+    public boolean isStoredCompressed(EmployeeDocument document) {
+        if (isClientGzip(document)) return false;
+        try (BufferedInputStream in = new BufferedInputStream(loadDocument(document).getInputStream(), 2)) {
+            return GzipUtils.isGzipped(in);
+        } catch (IOException e) {
+            throw new FileStorageException("Nie można odczytać pliku: " + document.getOriginalFileName(), e);
+        }
+    }
+
+    // Treść dokumentu w postaci przesłanej przez klienta (gzip rozpakowywany w locie)
+    public InputStream openDocument(EmployeeDocument document) throws IOException {
+        InputStream in = loadDocument(document).getInputStream();
+        return isClientGzip(document) ? in : GzipUtils.decompressIfGzipped(in);
+    }
+
+    // Plik .gz przesłany przez klienta zapisywany jest bez zmian; żaden inny typ nie zaczyna się
+    // sygnaturą gzip (tekst z nią jest odrzucany), więc u pozostałych blobów sygnatura oznacza naszą kompresję
+    private static boolean isClientGzip(EmployeeDocument document) {
+        String name = document.getOriginalFileName();
+        return name != null && name.toLowerCase().endsWith(".gz");
+    }
+
+    private static void checkContentType(String extension, byte[] head, int length) {
+        if (!FileTypeSniffer.matchesExtension(extension, head, length)) {
+            throw new InvalidFileException("Zawartość pliku nie odpowiada rozszerzeniu: " + extension);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+            // plik tymczasowy (.part) usunie sprzątanie magazynu
+        }
+    }
+
+    // Zwalnia referencję; plik jest usuwany dopiero razem z ostatnią z nich
+    public void releaseBlob(String sha256) {
+        synchronized (blobReferences) {
+            Integer references = blobReferences.get(sha256);
+            if (references == null) {
+                return; // referencje nieznane – bloba nie usuwamy na ślepo
+            }
+            if (references > 1) {
+                blobReferences.put(sha256, references - 1);
+                return;
+            }
+            blobReferences.remove(sha256);
+            try {
+                Files.deleteIfExists(blobPath(sha256));
+            } catch (IOException e) {
+                throw new FileStorageException("Nie udało się usunąć pliku: " + sha256, e);
+            }
+        }
+    }
+
+    // Odtworzenie licznika po restarcie – DocumentIndex zgłasza dokumenty wczytane z dysku
+    public void registerBlobReference(String sha256) {
+        synchronized (blobReferences) {
+            blobReferences.merge(sha256, 1, Integer::sum);
+        }
+    }
+
+    // Usuwa blob bez żadnej referencji (sprzątanie osieroconych plików); sprawdzenie i usunięcie
+    // pod tą samą blokadą co zapis, więc równoległy upload tej samej treści nie straci pliku
+    public boolean deleteUnreferencedBlob(String sha256) {
+        synchronized (blobReferences) {
+            if (blobReferences.getOrDefault(sha256, 0) > 0) return false;
+            try {
+                return Files.deleteIfExists(blobPath(sha256));
+            } catch (IOException e) {
+                throw new FileStorageException("Nie udało się usunąć pliku: " + sha256, e);
+            }
+        }
+    }
+
+    public int getBlobReferences(String sha256) {
+        synchronized (blobReferences) {
+            return blobReferences.getOrDefault(sha256, 0);
+        }
+    }
+
+    public Resource loadBlob(String sha256) {
+        Path blob = blobPath(sha256);
+        if (!Files.exists(blob)) throw new FileNotFoundException("Plik nie istnieje: " + sha256);
+        return new FileSystemResource(blob);
+    }
+
+    // Dokumenty pracowników: blob z magazynu albo (starszy zapis) plik w documents/{email}
+    public Resource loadDocument(EmployeeDocument document) {
+        return document.getBlobHash() != null
+                ? loadBlob(document.getBlobHash())
+                : loadFile("documents/" + document.getEmployeeEmail(), document.getFileName());
+    }
+
+    public void deleteDocument(EmployeeDocument document) {
+        if (document.getBlobHash() != null) {
+            releaseBlob(document.getBlobHash());
+        } else {
+            deleteFile("documents/" + document.getEmployeeEmail(), document.getFileName());
+        }
+    }
+
+    public Path blobPath(String sha256) {
+        if (sha256 == null || !sha256.matches("[0-9a-f]{64}")) {
+            throw new FileNotFoundException("Niepoprawny identyfikator pliku: " + sha256);
+        }
+        return resolvePath(BLOBS_FOLDER, sha256);
+    }
+
+    // -------------------- Zdjęcia pracowników --------------------
+    // Jedno zdjęcie na pracownika, zapisane pod nazwą równą emailowi; nowe zastępuje poprzednie
+    // atomowo, więc równoległe odczyty (np. generowanie miniatury) widzą cały stary albo cały nowy plik
+    public Path savePhoto(MultipartFile file, String email) {
+        validateFile(file);
+        String extension = getExtension(file.getOriginalFilename()).toLowerCase();
+        if (!PHOTO_EXTENSIONS.contains(extension)) {
+            throw new InvalidFileException("Niepoprawne rozszerzenie zdjęcia. Oczekiwano: jpg, png lub gif");
+        }
+
+        Path target = shardDirectory(PHOTOS_FOLDER, email).resolve(email);
+        Path tempFile = target.resolveSibling(UUID.randomUUID() + ".part");
+        try {
+            Files.createDirectories(target.getParent());
+            Files.copy(file.getInputStream(), tempFile);
+            byte[] head = new byte[FileTypeSniffer.SNIFF_LENGTH];
+            int headLength;
+            try (InputStream in = Files.newInputStream(tempFile)) {
+                headLength = in.readNBytes(head, 0, head.length);
+            }
+            checkContentType(extension, head, headLength);
+            Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return target;
+        } catch (IOException e) {
+            throw new FileStorageException("Błąd zapisu zdjęcia: " + file.getOriginalFilename(), e);
+        } finally {
+            deleteQuietly(tempFile);
+        }
+    }
+
+    // -------------------- Układ katalogów z podziałem --------------------
+    // uploads/<podfolder>/<aa>/<bb>/<nazwa>: najwyżej 256 podkatalogów na poziom, więc
+    // katalogi pozostają małe (szybkie wyszukiwanie i listowanie) także przy milionach plików.
+    // Nazwy UUID i sumy SHA-256 dzielone są po własnym prefiksie, pozostałe po skrócie nazwy.
+    static String shardOf(String fileName) {
+        String key = startsWithHex(fileName, 4) ? fileName : sha256Hex(fileName);
+        return key.substring(0, 2) + "/" + key.substring(2, 4);
+    }
+
+    private Path shardDirectory(String subfolder, String fileName) {
+        return uploadPath.resolve(subfolder).resolve(shardOf(fileName)).normalize();
+    }
+
+    /**
+     * Przenosi pliki zapisane w starym, płaskim układzie do katalogów z podziałem.
+     * Można uruchamiać wielokrotnie – pliki już przeniesione są pomijane.
+     */
+    public int migrateToShardedLayout() {
+        int moved = 0;
+        try (Stream<Path> files = Files.walk(uploadPath)) {
+            Iterator<Path> iterator = files.filter(Files::isRegularFile).iterator();
+            while (iterator.hasNext()) {
+                Path file = iterator.next();
+                Path target = shardedLocation(file);
+                if (target == null) continue;
+                Files.createDirectories(target.getParent());
+                Files.move(file, target, StandardCopyOption.ATOMIC_MOVE);
+                moved++;
+            }
+        } catch (IOException e) {
+            throw new FileStorageException("Migracja układu katalogów przerwana po " + moved + " plikach.", e);
+        }
+        return moved;
+    }
+
+    // null = plik jest już na swoim miejscu albo nie podlega migracji
+    private Path shardedLocation(Path file) {
+        String name = file.getFileName().toString();
+        Path relative = uploadPath.relativize(file);
+        if (relative.getNameCount() < 2 || name.startsWith(".") || name.endsWith(".part")
+                || relative.startsWith(CHUNKS_FOLDER)) {
+            return null; // pliki tymczasowe i uploady w toku zostają na miejscu
+        }
+        Path parent = file.getParent();
+        if (parent.endsWith(shardOf(name))) return null;
+        return parent.resolve(shardOf(name)).resolve(name);
+    }
+
+    private static boolean startsWithHex(String value, int length) {
+        if (value.length() < length) return false;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) return false;
+        }
+        return true;
+    }
+
+    private static String sha256Hex(String value) {
+        return HexFormat.of().formatHex(newSha256().digest(value.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    // -------------------- Raporty błędów importu --------------------
+    // Nowy (jeszcze nieistniejący) plik w katalogu raportów – ImportProgress tworzy go przy pierwszym błędzie
+    public Path newErrorReportPath() {
+        return reportsPath.resolve(ERROR_REPORT_PREFIX + UUID.randomUUID() + ".txt");
+    }
+
+    // Retencja raportów błędów – zwraca liczbę usuniętych plików
+    public int deleteErrorReportsOlderThan(Instant cutoff) {
+        int deleted = 0;
+        try (DirectoryStream<Path> reports = Files.newDirectoryStream(reportsPath, ERROR_REPORT_PREFIX + "*.txt")) {
+            for (Path report : reports) {
+                try {
+                    if (Files.getLastModifiedTime(report).toInstant().isBefore(cutoff) && Files.deleteIfExists(report)) {
+                        deleted++;
+                    }
+                } catch (IOException e) {
+                    logger.warn("Nie udało się usunąć raportu błędów {}: {}", report.getFileName(), e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Nie można przejrzeć katalogu raportów {}: {}", reportsPath, e.getMessage());
+        }
+        return deleted;
+    }
+
+    public Resource loadErrorReport(String fileName) {
+        // tylko nazwy nadawane przez newErrorReportPath – bez dostępu do innych plików
+        if (fileName == null || !fileName.matches(ERROR_REPORT_PREFIX + "[0-9a-f-]{36}\\.txt")) {
+            throw new FileNotFoundException("Raport błędów nie istnieje: " + fileName);
+        }
+        Path path = reportsPath.resolve(fileName);
+        if (!Files.exists(path)) {
+            throw new FileNotFoundException("Raport błędów nie istnieje: " + fileName);
+        }
+        return new FileSystemResource(path);
+    }
+
+    // -------------------- Upload w częściach (duże pliki importu) --------------------
+    public ChunkedUpload initChunkedUpload(String originalFileName, long totalSize) {
+        if (totalSize <= 0) {
+            throw new InvalidFileException("Plik jest pusty!");
+        }
+        if (totalSize > maxChunkedUploadSize) {
+            throw new InvalidFileException("Plik jest za duży. Maksymalny rozmiar to "
+                    + DataSize.ofBytes(maxChunkedUploadSize).toMegabytes() + " MB.");
+        }
+
+        Path chunksDir = uploadPath.resolve(CHUNKS_FOLDER);
+        Path partFile = chunksDir.resolve(UUID.randomUUID() + ".part");
+        try {
+            Files.createDirectories(chunksDir);
+            // rezerwujemy docelowy rozmiar – części są zapisywane od razu na swoje miejsce
+            try (RandomAccessFile raf = new RandomAccessFile(partFile.toFile(), "rw")) {
+                raf.setLength(totalSize);
+            }
+        } catch (IOException e) {
+            throw new FileStorageException("Nie można utworzyć pliku uploadu: " + originalFileName, e);
+        }
+
+        ChunkedUpload upload = new ChunkedUpload(originalFileName, totalSize, partFile);
+        chunkedUploads.put(upload.getId(), upload);
+        return upload;
+    }
+
+    public ChunkedUpload getChunkedUpload(String uploadId) {
+        ChunkedUpload upload = chunkedUploads.get(uploadId);
+        if (upload == null) throw new FileNotFoundException("Nie znaleziono uploadu: " + uploadId);
+        return upload;
+    }
+
+    public ChunkedUpload writeChunk(String uploadId, long offset, InputStream data) {
+        ChunkedUpload upload = getChunkedUpload(uploadId);
+        if (offset < 0 || offset >= upload.getTotalSize()) {
+            throw new InvalidFileException("Niepoprawny offset części: " + offset);
+        }
+
+        long position = offset;
+        try (FileChannel channel = FileChannel.open(upload.getPartFile(), StandardOpenOption.WRITE)) {
+            byte[] chunk = new byte[CHUNK_BUFFER_SIZE];
+            int read;
+            while ((read = data.read(chunk)) != -1) {
+                if (position + read > upload.getTotalSize()) {
+                    throw new InvalidFileException("Część wykracza poza zadeklarowany rozmiar pliku.");
+                }
+                ByteBuffer buffer = ByteBuffer.wrap(chunk, 0, read);
+                while (buffer.hasRemaining()) {
+                    position += channel.write(buffer, position);
+                }
+            }
+        } catch (IOException e) {
+            // zapisany fragment i tak oznaczamy – klient wznowi od getNextOffset()
+            upload.markReceived(offset, position);
+            throw new FileStorageException("Błąd zapisu części pliku: " + upload.getFileName(), e);
+        }
+
+        upload.markReceived(offset, position);
+        return upload;
+    }
+
+    /**
+     * Weryfikuje sumę SHA-256 i przenosi kompletny plik do podfolderu.
+     */
+    public StoredFile completeChunkedUpload(String uploadId, String expectedSha256, String subfolder) {
+        ChunkedUpload upload = getChunkedUpload(uploadId);
+        if (!upload.isComplete()) {
+            throw new InvalidFileException("Upload niekompletny – brakuje "
+                    + (upload.getTotalSize() - upload.getReceivedBytes()) + " bajtów.");
+        }
+
+        // Plik tekstowy przy włączonej kompresji zapisywany jak w saveFileWithDigest ("<uuid>.csv.gz"),
+        // z sumą liczoną w tym samym przebiegu; pozostałe pliki przenoszone bez kopiowania
+        String extension = getExtension(upload.getFileName());
+        boolean compress = shouldCompress(extension);
+        String uniqueName = UUID.randomUUID() + "." + extension + (compress ? ".gz" : "");
+        Path target = shardDirectory(subfolder, uniqueName).resolve(uniqueName);
+
+        String actualSha256 = compress ? compressPartFile(upload, target) : sha256(upload.getPartFile());
+        if (expectedSha256 == null || !actualSha256.equalsIgnoreCase(expectedSha256.trim())) {
+            if (compress) deleteQuietly(target);
+            throw new InvalidFileException("Niezgodna suma kontrolna SHA-256: " + actualSha256);
+        }
+
+        try {
+            if (compress) {
+                Files.delete(upload.getPartFile());
+            } else {
+                Files.createDirectories(target.getParent());
+                Files.move(upload.getPartFile(), target, StandardCopyOption.ATOMIC_MOVE);
+            }
+        } catch (IOException e) {
+            throw new FileStorageException("Błąd zapisu pliku: " + upload.getFileName(), e);
+        }
+        chunkedUploads.remove(uploadId);
+        return new StoredFile(uniqueName, actualSha256, upload.getTotalSize());
+    }
+
+    public void abortChunkedUpload(String uploadId) {
+        ChunkedUpload upload = chunkedUploads.remove(uploadId);
+        if (upload == null) throw new FileNotFoundException("Nie znaleziono uploadu: " + uploadId);
+        try {
+            Files.deleteIfExists(upload.getPartFile());
+        } catch (IOException e) {
+            throw new FileStorageException("Nie udało się usunąć pliku: " + upload.getFileName(), e);
+        }
+    }
+
+    /**
+     * Usuwa uploady bez aktywności dłużej niż idleTimeout razem z ich plikiem .part
+     * (zarezerwowanym na pełny rozmiar). Zwraca liczbę wygaszonych uploadów.
+     */
+    public int expireChunkedUploads(Duration idleTimeout) {
+        Instant cutoff = Instant.now().minus(idleTimeout);
+        int expired = 0;
+        for (ChunkedUpload upload : chunkedUploads.values()) {
+            if (!upload.getLastActivity().isBefore(cutoff) || !chunkedUploads.remove(upload.getId(), upload)) continue;
+            try {
+                Files.deleteIfExists(upload.getPartFile());
+            } catch (IOException e) {
+                // plik bez uploadu usunie sprzątanie magazynu (katalog chunks)
+                logger.warn("Nie udało się usunąć pliku porzuconego uploadu {}: {}", upload.getId(), e.getMessage());
+            }
+            logger.info("Wygasł porzucony upload {} ({})", upload.getId(), upload.getFileName());
+            expired++;
+        }
+        return expired;
+    }
+
+    // Pliki .part trwających uploadów – pozostałe w katalogu chunks są porzucone
+    public Set<Path> activeChunkFiles() {
+        Set<Path> files = new HashSet<>();
+        chunkedUploads.values().forEach(upload -> files.add(upload.getPartFile()));
+        return files;
+    }
+
+    // Złożony plik .part skompresowany do magazynu; zwraca sumę SHA-256 nieskompresowanej treści
+    private String compressPartFile(ChunkedUpload upload, Path target) {
+        try (DigestInputStream in = new DigestInputStream(Files.newInputStream(upload.getPartFile()), newSha256())) {
+            Files.createDirectories(target.getParent());
+            try (OutputStream out = openForWrite(target, true)) {
+                in.transferTo(out);
+            }
+            return HexFormat.of().formatHex(in.getMessageDigest().digest());
+        } catch (IOException e) {
+            deleteQuietly(target);
+            throw new FileStorageException("Błąd zapisu pliku: " + upload.getFileName(), e);
+        }
+    }
+
+    private String sha256(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MessageDigest digest = newSha256();
+            ByteBuffer buffer = ByteBuffer.allocateDirect(CHUNK_BUFFER_SIZE);
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (IOException e) {
+            throw new FileStorageException("Nie można obliczyć sumy kontrolnej pliku: " + file.getFileName(), e);
+        }
+    }
+
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Brak algorytmu SHA-256", e);
+        }
+    }
+
     private void validateFile(MultipartFile file) {
+        validateFile(file, false);
+    }
+
+    private void validateFile(MultipartFile file, boolean allowArchives) {
         if (file.isEmpty()) {
             throw new InvalidFileException("Plik jest pusty!");
         }
 
         // --- Walidacja rozszerzenia ---
         String filename = file.getOriginalFilename();
-        String extension = getExtension(filename).toLowerCase();
+        checkAllowedExtension(getExtension(filename).toLowerCase(), allowArchives);
 
-        String[] allowedExtensions = {"csv", "pdf", "txt", "jpg", "jpeg", "png", "gif"};
-        boolean allowed = false;
-        for (String ext : allowedExtensions) {
-            if (ext.equals(extension)) {
-                allowed = true;
-                break;
-            }
+        // --- Walidacja rozmiaru pliku ---
+        if (file.getSize() > MAX_FILE_SIZE) {
+            throw new InvalidFileException("Plik jest za duży. Maksymalny rozmiar to 2 MB.");
         }
+    }
+
+    private void checkAllowedExtension(String extension, boolean allowArchives) {
+        boolean allowed = ALLOWED_EXTENSIONS.contains(extension)
+                || (allowArchives && ARCHIVE_EXTENSIONS.contains(extension));
         if (!allowed) {
             throw new InvalidFileException("Nieobsługiwany typ pliku: " + extension);
         }
-
-        // --- Walidacja rozmiaru pliku ---
-        long maxSizeBytes = 2 * 1024 * 1024; // 2 MB
-        if (file.getSize() > maxSizeBytes) {
-            throw new InvalidFileException("Plik jest za duży. Maksymalny rozmiar to 2 MB.");
-        }
     }
 
     private String getExtension(String filename) {
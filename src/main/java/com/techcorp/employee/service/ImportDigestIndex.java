@@ -0,0 +1,117 @@
+package com.techcorp.employee.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.techcorp.employee.model.ImportMode;
+import com.techcorp.employee.model.ImportRecord;
+import com.techcorp.employee.model.ImportSummary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * Trwały indeks zaimportowanych plików (SHA-256 -> podsumowanie importu).
+ * Pozwala pominąć parsowanie pliku identycznego z już zaimportowanym – ale tylko gdy
+ * pracownicy zapisani tym importem nadal istnieją. Zamiast listy emaili wpis przechowuje
+ * wersję zbioru pracowników (EmployeeService.getStoreVersion): pracownicy żyją wyłącznie
+ * w pamięci, więc po restarcie albo usunięciu dowolnego pracownika wpis jest nieaktualny
+ * i plik importujemy ponownie.
+ * Importy w trybie UPSERT nie są pomijane: plik mógł zostać nadpisany innym, a ponowne
+ * przesłanie ma przywrócić jego dane.
+ */
+@Service
+public class ImportDigestIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportDigestIndex.class);
+
+    private final ObjectMapper objectMapper;
+    private final EmployeeService employeeService;
+    private final Path indexFile;
+    private final int maxEntries;
+
+    // kolejność dostępu – najdawniej używane wpisy usuwane po przekroczeniu maxEntries
+    private final LinkedHashMap<String, ImportRecord> records = new LinkedHashMap<>(16, 0.75f, true);
+
+    public ImportDigestIndex(@Qualifier("jacksonObjectMapper") ObjectMapper objectMapper,
+                             EmployeeService employeeService,
+                             @Value("${app.import.digest-index.file:uploads/import-index.json}") String indexFile,
+                             @Value("${app.import.digest-index.max-entries:1000}") int maxEntries) {
+        this.objectMapper = objectMapper;
+        this.employeeService = employeeService;
+        this.indexFile = Paths.get(indexFile).toAbsolutePath().normalize();
+        this.maxEntries = maxEntries;
+        load();
+    }
+
+    public synchronized ImportSummary findCached(ImportMode mode, String sha256) {
+        if (mode == ImportMode.UPSERT) return null;
+        String key = ImportRecord.key(mode, sha256);
+        ImportRecord record = records.get(key);
+        if (record == null) return null;
+        if (!isStillApplied(record)) {
+            logger.info("Pracownicy z importu pliku {} ({}) nie są już zapisani, importuję ponownie",
+                    record.getFileName(), record.getImportedAt());
+            records.remove(key);
+            save();
+            return null;
+        }
+        logger.info("Plik {} był już zaimportowany ({}), pomijam import", record.getFileName(), record.getImportedAt());
+        return record.toCachedSummary();
+    }
+
+    public synchronized void record(String sha256, String format, String fileName, ImportSummary summary) {
+        if (summary.getMode() == ImportMode.UPSERT) return;
+        // Sprawdzenie emaili raz, przy zapisie wpisu – później wystarczy porównać wersję zbioru
+        String storeVersion = summary.getStoredEmails() != null
+                ? employeeService.getStoreVersionIfAllExist(summary.getStoredEmails()) : null;
+        ImportRecord record = new ImportRecord(sha256, format, fileName, LocalDateTime.now().toString(), summary, storeVersion);
+        // Import bez zapisanych wierszy (np. same błędy) nie jest zapamiętywany – plik można poprawić
+        // danymi w systemie i przesłać ponownie, a wpis nie miałby czego sprawdzić
+        if (record.storedNothing() || storeVersion == null) return;
+        records.put(ImportRecord.key(summary.getMode(), sha256), record);
+        while (records.size() > maxEntries) {
+            String eldest = records.keySet().iterator().next();
+            records.remove(eldest);
+        }
+        save();
+    }
+
+    // Od importu nikogo nie usunięto, więc wszyscy zapisani nim pracownicy nadal istnieją
+    private boolean isStillApplied(ImportRecord record) {
+        return employeeService.getStoreVersion().equals(record.getStoreVersion());
+    }
+
+    private void load() {
+        if (!Files.exists(indexFile)) return;
+        try {
+            List<ImportRecord> loaded = objectMapper.readValue(indexFile.toFile(), new TypeReference<List<ImportRecord>>() {});
+            loaded.forEach(r -> records.put(ImportRecord.key(r.getMode(), r.getSha256()), r));
+            logger.info("Wczytano indeks importów: {} wpisów", records.size());
+        } catch (IOException e) {
+            // uszkodzony indeks nie może blokować startu – najwyżej plik zostanie zaimportowany ponownie
+            logger.warn("Nie można wczytać indeksu importów {}: {}", indexFile, e.getMessage());
+        }
+    }
+
+    // Zapis do pliku tymczasowego i atomowa podmiana – brak częściowo zapisanego indeksu
+    private void save() {
+        Path tmp = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(indexFile.getParent());
+            objectMapper.writeValue(tmp.toFile(), new ArrayList<>(records.values()));
+            Files.move(tmp, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // import już się odbył – brak wpisu oznacza tylko utratę skrótu przy kolejnym przesłaniu
+            logger.error("Nie można zapisać indeksu importów {}: {}", indexFile, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.techcorp.employee.service;
+
+import com.techcorp.employee.model.ImportJob;
+import com.techcorp.employee.model.ImportMode;
+import com.techcorp.employee.model.ImportSummary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+@Service
+public class ImportJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportJobService.class);
+
+    private final ImportService importService;
+    private final ImportDigestIndex importDigestIndex;
+    private final FileStorageService fileStorageService;
+    private final ExecutorService importExecutor;
+    private final long retentionMinutes;
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    public ImportJobService(ImportService importService,
+                            ImportDigestIndex importDigestIndex,
+                            FileStorageService fileStorageService,
+                            @Qualifier("importExecutor") ExecutorService importExecutor,
+                            @Value("${app.import.jobs.retention-minutes:60}") long retentionMinutes) {
+        this.importService = importService;
+        this.importDigestIndex = importDigestIndex;
+        this.fileStorageService = fileStorageService;
+        this.importExecutor = importExecutor;
+        this.retentionMinutes = retentionMinutes;
+    }
+
+    /**
+     * Zleca import zapisanego pliku w tle i od razu zwraca zadanie.
+     * Po udanym imporcie suma sha256 trafia do indeksu importów (może być null).
+     *
+     * @throws RejectedExecutionException gdy kolejka importów jest pełna
+     */
+    public ImportJob submit(String format, Path file, String originalFileName, ImportMode mode, String sha256) {
+        purgeFinishedJobs();
+
+        ImportJob job = new ImportJob(format, originalFileName, mode);
+        job.getProgress().spillErrorsTo(fileStorageService.newErrorReportPath());
+        jobs.put(job.getId(), job);
+        try {
+            job.setFuture(importExecutor.submit(() -> run(job, file, sha256)));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            logger.warn("Odrzucono zadanie importu {} – kolejka pełna", originalFileName);
+            throw e;
+        }
+        logger.info("Zlecono import {} ({}), zadanie {}", originalFileName, format, job.getId());
+        return job;
+    }
+
+    // Identyczny plik był już zaimportowany – zadanie od razu zakończone
+    public ImportJob completedFromCache(String format, String originalFileName, ImportSummary cachedSummary) {
+        ImportJob job = new ImportJob(format, originalFileName, cachedSummary.getMode());
+        job.start();
+        job.complete(cachedSummary);
+        jobs.put(job.getId(), job);
+        return job;
+    }
+
+    public ImportJob getJob(String id) {
+        return jobs.get(id);
+    }
+
+    public ImportJob cancel(String id) {
+        ImportJob job = jobs.get(id);
+        if (job != null && !job.isFinished()) {
+            job.cancel();
+            logger.info("Anulowano zadanie importu {}", id);
+        }
+        return job;
+    }
+
+    private void run(ImportJob job, Path file, String sha256) {
+        if (!job.start()) return; // anulowane przed startem
+
+        try {
+            ImportSummary summary = "xml".equals(job.getFormat())
+                    ? importService.importFromXml(file.toString(), job.getProgress())
+                    : importService.importFromCsv(file.toString(), job.getProgress());
+            if (sha256 != null && !job.getProgress().isCancelled()) {
+                importDigestIndex.record(sha256, job.getFormat(), job.getFileName(), summary);
+            }
+            job.complete(summary);
+            logger.info("Zadanie importu {} zakończone: {}, wierszy: {}", job.getId(), job.getStatus(), job.getRowsProcessed());
+        } catch (Exception e) {
+            logger.error("Zadanie importu {} zakończone błędem: {}", job.getId(), e.getMessage());
+            job.fail(e.getMessage());
+        }
+    }
+
+    // Zakończone zadania trzymamy tylko przez retentionMinutes
+    private void purgeFinishedJobs() {
+        LocalDateTime threshold = LocalDateTime.now().minusMinutes(retentionMinutes);
+        jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(threshold));
+    }
+}
@@ -1,71 +1,131 @@
 package com.techcorp.employee.service;
 
-import com.techcorp.employee.exception.InvalidDataException;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.techcorp.employee.model.Employee;
 import com.techcorp.employee.model.JobTitle;
+import com.techcorp.employee.model.ImportMode;
+import com.techcorp.employee.model.ImportOutcome;
+import com.techcorp.employee.model.ImportProgress;
 import com.techcorp.employee.model.ImportSummary;
+import com.techcorp.employee.model.SaveResult;
+import com.techcorp.employee.model.ValidationResult;
+import com.techcorp.employee.model.Violation;
+import com.techcorp.employee.util.EmployeeValidator;
+import com.techcorp.employee.util.GzipUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.w3c.dom.*;
+import org.springframework.util.unit.DataSize;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.function.Function;
 
 @Service
 public class ImportService {
 
     private static final Logger logger = LoggerFactory.getLogger(ImportService.class);
 
+    private static final String EMPLOYEE_CLASS = "com.techcorp.employee.model.Employee";
+    // XMLInputFactory jest bezpieczna wątkowo po skonfigurowaniu
+    private static final XMLInputFactory XML_INPUT_FACTORY = createXmlInputFactory();
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final int BATCH_SIZE = 500; // wierszy na jedno wywołanie EmployeeService.saveEmployees
+
     private final EmployeeService employeeService;
     private final String csvPath;
+    private final long maxDecompressedSize; // limit rozpakowanej treści pliku gzip (ochrona przed "bombą" gzip)
 
     public ImportService(EmployeeService employeeService,
-                         @Value("${app.import.csv-file}") String csvPath) {
+                         @Value("${app.import.csv-file}") String csvPath,
+                         @Value("${app.import.max-decompressed-size:1GB}") DataSize maxDecompressedSize) {
         this.employeeService = employeeService;
         this.csvPath = csvPath;
+        this.maxDecompressedSize = maxDecompressedSize.toBytes();
     }
 
     // -------------------- Istniejący import z resources --------------------
     public ImportSummary importFromCsv() {
-        return importFromCsvFilePath(null); // null -> użyj domyślnej ścieżki z resources
+        return importFromCsv(null, new ImportProgress()); // null -> użyj domyślnej ścieżki z resources
     }
 
     // -------------------- Nowa metoda importu z dowolnej ścieżki --------------------
     public ImportSummary importFromCsv(String filePath) {
-        return importFromCsvFilePath(filePath);
+        return importFromCsv(filePath, new ImportProgress());
+    }
+
+    public ImportSummary importFromCsv(String filePath, ImportMode mode) {
+        return importFromCsv(filePath, new ImportProgress(mode));
     }
 
-    private ImportSummary importFromCsvFilePath(String filePath) {
-        List<String> errors = new ArrayList<>();
-        List<Employee> importedEmployees = new ArrayList<>();
-        int importedCount = 0;
+    // Wariant z postępem – używany przez zadania importu w tle (tryb importu w ImportProgress).
+    // Pliki skompresowane gzip są rozpakowywane w locie (rozpoznawane po sygnaturze).
+    public ImportSummary importFromCsv(String filePath, ImportProgress progress) {
+        InputStream in = openCsv(filePath, progress);
+        return in != null ? importCsv(in, progress) : progress.toSummary();
+    }
 
-        try (BufferedReader reader = filePath == null ?
-                new BufferedReader(new InputStreamReader(getClass().getClassLoader().getResourceAsStream(csvPath))) :
-                new BufferedReader(new FileReader(filePath))) {
+    // Domyślny plik CSV wczytany bez zapisu – poprawne wiersze trafiają do 'staged',
+    // a zapisuje je później jedno wywołanie saveEmployees (równoległy start aplikacji)
+    public ImportSummary readDefaultCsv(List<Employee> staged) {
+        ImportProgress progress = new ImportProgress();
+        InputStream in = openCsv(null, progress);
+        if (in == null) return progress.toSummary();
+        return importCsv(in, new RowBatch(progress, batch -> {
+            staged.addAll(batch);
+            return Collections.nCopies(batch.size(), SaveResult.saved(ImportOutcome.INSERTED));
+        }));
+    }
 
-            if (reader == null) {
-                String msg = "Nie znaleziono pliku CSV: " + (filePath != null ? filePath : csvPath);
-                logger.error(msg);
-                errors.add(msg);
-                return new ImportSummary(importedCount, errors, importedEmployees);
-            }
+    private InputStream openCsv(String filePath, ImportProgress progress) {
+        InputStream in = null;
+        try {
+            in = filePath == null
+                    ? getClass().getClassLoader().getResourceAsStream(csvPath)
+                    : new FileInputStream(filePath);
+        } catch (IOException e) {
+            // obsłużone poniżej jak brak pliku
+        }
+
+        if (in == null) {
+            String msg = "Nie znaleziono pliku CSV: " + (filePath != null ? filePath : csvPath);
+            logger.error(msg);
+            progress.fileError(msg);
+        }
+        return in;
+    }
+
+    // Import CSV z dowolnego strumienia (plik, wpis archiwum ZIP); strumień jest zamykany
+    public ImportSummary importCsv(InputStream in, ImportProgress progress) {
+        return importCsv(in, new RowBatch(progress));
+    }
 
+    private ImportSummary importCsv(InputStream in, RowBatch batch) {
+        ImportProgress progress = batch.progress;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(GzipUtils.decompressIfGzipped(in, maxDecompressedSize)))) {
             String line;
             int lineNumber = 0;
 
             while ((line = reader.readLine()) != null) {
                 lineNumber++;
+                if (progress.isCancelled()) {
+                    logger.warn("Import CSV przerwany w linii {}", lineNumber);
+                    break;
+                }
 
                 if (lineNumber == 1 || line.trim().isEmpty()) continue; // nagłówek lub puste linie
 
                 String[] parts = line.split(",");
                 if (parts.length != 6) {
-                    errors.add("Linia " + lineNumber + ": niepoprawna liczba pól (" + parts.length + ")");
+                    batch.reject(Violation.INVALID_FORMAT, "Linia " + lineNumber + ": niepoprawna liczba pól (" + parts.length + ")");
                     continue;
                 }
 
@@ -76,129 +136,314 @@ public class ImportService {
                 String positionStr = parts[4].trim();
                 String salaryStr = parts[5].trim();
 
-                // Walidacja stanowiska
-                JobTitle jobTitle;
-                try {
-                    if (positionStr.isBlank()) throw new InvalidDataException("Stanowisko nie może być puste.");
-                    jobTitle = Arrays.stream(JobTitle.values())
-                            .filter(j -> j.getDisplayName().equalsIgnoreCase(positionStr))
-                            .findFirst()
-                            .orElseThrow(() -> new InvalidDataException("Nieznane stanowisko '" + positionStr + "'"));
-                } catch (InvalidDataException e) {
-                    errors.add("Linia " + lineNumber + ": błąd danych - " + e.getMessage());
+                // Walidacja stanowiska i pensji – bez wyjątków dla złych wierszy
+                ValidationResult validation = EmployeeValidator.validateImportFields(positionStr, salaryStr);
+                if (!validation.isValid()) {
+                    batch.reject(validation.getCode(), "Linia " + lineNumber + ": błąd danych - " + validation.getMessage());
                     continue;
                 }
+                JobTitle jobTitle = EmployeeValidator.findJobTitle(positionStr);
+                double salary = Double.parseDouble(salaryStr);
 
-                // Walidacja pensji
-                double salary;
-                try {
-                    salary = Double.parseDouble(salaryStr);
-                } catch (NumberFormatException e) {
-                    errors.add("Linia " + lineNumber + ": niepoprawna wartość pensji '" + salaryStr + "'");
-                    continue;
-                }
-
-                // Tworzenie pracownika i dodanie do listy
+                // Tworzenie pracownika i dodanie do paczki
                 try {
                     Employee emp = new Employee(firstName, lastName, email, company, jobTitle.getDisplayName(), salary);
-                    employeeService.addEmployee(emp);
-                    importedEmployees.add(emp); // <-- dodanie do listy
-                    importedCount++;
-                    logger.info("Zaimportowano pracownika: {} {} ({})", firstName, lastName, email);
-                } catch (InvalidDataException e) {
-                    errors.add("Linia " + lineNumber + ": błąd danych - " + e.getMessage());
+                    batch.add(emp, "Linia " + lineNumber + ": błąd danych - ");
                 } catch (Exception e) {
-                    errors.add("Linia " + lineNumber + ": nieoczekiwany błąd - " + e.getMessage());
+                    batch.reject(Violation.UNEXPECTED, "Linia " + lineNumber + ": nieoczekiwany błąd - " + e.getMessage());
                 }
             }
 
         } catch (IOException e) {
+            batch.flush(); // błąd pliku po błędach wcześniejszych wierszy
             String msg = "Błąd odczytu pliku CSV: " + e.getMessage();
             logger.error(msg);
-            errors.add(msg);
+            progress.fileError(msg);
+        } finally {
+            batch.flush();
         }
 
-        logger.info("Import CSV zakończony. Zaimportowano: {} pracowników, błędów: {}", importedCount, errors.size());
-        return new ImportSummary(importedCount, errors, importedEmployees);
+        logger.info("Import CSV zakończony. Zaimportowano: {} pracowników, błędów: {}", progress.getImportedCount(), progress.getErrorCount());
+        return progress.toSummary();
     }
 
-    // -------------------- Import XML --------------------
+    // -------------------- Import XML (StAX) --------------------
+    // Plik czytany strumieniowo – w pamięci trzymamy tylko bieżący bean,
+    // więc zużycie pamięci nie zależy od rozmiaru pliku.
     public ImportSummary importFromXml(String filePath) {
-        List<String> errors = new ArrayList<>();
-        List<Employee> importedEmployees = new ArrayList<>();
-        int importedCount = 0;
+        return importFromXml(filePath, new ImportProgress());
+    }
 
+    public ImportSummary importFromXml(String filePath, ImportMode mode) {
+        return importFromXml(filePath, new ImportProgress(mode));
+    }
+
+    public ImportSummary importFromXml(String filePath, ImportProgress progress) {
         File xmlFile = new File(filePath);
         if (!xmlFile.exists()) {
             String msg = "Nie znaleziono pliku XML: " + filePath;
             logger.error(msg);
-            errors.add(msg);
-            return new ImportSummary(importedCount, errors, importedEmployees);
+            progress.fileError(msg);
+            return progress.toSummary();
         }
 
         try {
-            DocumentBuilderFactory dbFactory = DocumentBuilderFactory.newInstance();
-            dbFactory.setNamespaceAware(true);
-            DocumentBuilder dBuilder = dbFactory.newDocumentBuilder();
-            Document doc = dBuilder.parse(xmlFile);
-            doc.getDocumentElement().normalize();
+            return importXml(new FileInputStream(xmlFile), progress);
+        } catch (IOException e) {
+            String msg = "Błąd odczytu lub parsowania pliku XML: " + e.getMessage();
+            logger.error(msg);
+            progress.fileError(msg);
+            return progress.toSummary();
+        }
+    }
 
-            NodeList employeeNodes = doc.getElementsByTagName("bean");
-            for (int i = 0; i < employeeNodes.getLength(); i++) {
-                Node beanNode = employeeNodes.item(i);
+    // Import XML z dowolnego strumienia (plik, wpis archiwum ZIP); strumień jest zamykany
+    public ImportSummary importXml(InputStream source, ImportProgress progress) {
+        try (InputStream in = GzipUtils.decompressIfGzipped(source, maxDecompressedSize)) {
+            importBeans(in, progress);
+        } catch (Exception e) {
+            String msg = "Błąd odczytu lub parsowania pliku XML: " + e.getMessage();
+            logger.error(msg);
+            progress.fileError(msg);
+        }
 
-                if (beanNode.getNodeType() == Node.ELEMENT_NODE) {
-                    Element beanElement = (Element) beanNode;
+        logger.info("Import XML zakończony. Zaimportowano: {} pracowników, błędów: {}", progress.getImportedCount(), progress.getErrorCount());
+        return progress.toSummary();
+    }
 
-                    if (!"com.techcorp.employee.model.Employee".equals(beanElement.getAttribute("class"))) {
-                        continue; // pomiń inne beany
+    private void importBeans(InputStream in, ImportProgress progress) throws XMLStreamException {
+        XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(in);
+        RowBatch batch = new RowBatch(progress);
+        try {
+            String beanId = null;      // id bieżącego beana pracownika (null = poza beanem)
+            int beanDepth = 0;         // zagnieżdżenie wewnątrz beana
+            List<String> args = new ArrayList<>(6);
+
+            while (reader.hasNext() && !progress.isCancelled()) {
+                int event = reader.next();
+
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    String name = reader.getLocalName();
+                    if (beanId != null) {
+                        beanDepth++;
+                        if ("constructor-arg".equals(name)) {
+                            args.add(attributeOrEmpty(reader, "value").trim());
+                        }
+                    } else if ("bean".equals(name)
+                            && EMPLOYEE_CLASS.equals(attributeOrEmpty(reader, "class"))) {
+                        beanId = attributeOrEmpty(reader, "id");
+                        beanDepth = 0;
+                        args.clear();
                     }
-
-                    NodeList args = beanElement.getElementsByTagName("constructor-arg");
-                    if (args.getLength() != 6) {
-                        errors.add("Bean " + beanElement.getAttribute("id") + ": niepoprawna liczba argumentów (" + args.getLength() + ")");
+                } else if (event == XMLStreamConstants.END_ELEMENT && beanId != null) {
+                    if (beanDepth > 0) {
+                        beanDepth--;
                         continue;
                     }
-
-                    try {
-                        String firstName = getArgValue(args.item(0));
-                        String lastName = getArgValue(args.item(1));
-                        String email = getArgValue(args.item(2));
-                        String company = getArgValue(args.item(3));
-                        String positionStr = getArgValue(args.item(4));
-                        double salary = Double.parseDouble(getArgValue(args.item(5)));
-
-                        JobTitle jobTitle = Arrays.stream(JobTitle.values())
-                                .filter(j -> j.getDisplayName().equalsIgnoreCase(positionStr))
-                                .findFirst()
-                                .orElseThrow(() -> new InvalidDataException("Nieznane stanowisko '" + positionStr + "'"));
-
-                        Employee emp = new Employee(firstName, lastName, email, company, jobTitle.getDisplayName(), salary);
-                        employeeService.addEmployee(emp);
-                        importedEmployees.add(emp); // <-- dodanie do listy
-                        importedCount++;
-                        logger.info("Zaimportowano pracownika z XML: {} {} ({})", firstName, lastName, email);
-
-                    } catch (Exception e) {
-                        errors.add("Bean " + beanElement.getAttribute("id") + ": błąd - " + e.getMessage());
-                    }
+                    importBean(beanId, args, batch);
+                    beanId = null;
                 }
             }
+        } finally {
+            batch.flush(); // także przed zgłoszeniem błędu parsowania – raport w kolejności beanów
+            reader.close();
+        }
+    }
+
+    private void importBean(String beanId, List<String> args, RowBatch batch) {
+        if (args.size() != 6) {
+            batch.reject(Violation.INVALID_FORMAT, "Bean " + beanId + ": niepoprawna liczba argumentów (" + args.size() + ")");
+            return;
+        }
+
+        try {
+            String firstName = args.get(0);
+            String lastName = args.get(1);
+            String email = args.get(2);
+            String company = args.get(3);
+            String positionStr = args.get(4);
+            String salaryStr = args.get(5);
+
+            ValidationResult validation = EmployeeValidator.validateImportFields(positionStr, salaryStr);
+            if (!validation.isValid()) {
+                batch.reject(validation.getCode(), "Bean " + beanId + ": błąd - " + validation.getMessage());
+                return;
+            }
+            JobTitle jobTitle = EmployeeValidator.findJobTitle(positionStr);
+            double salary = Double.parseDouble(salaryStr);
+
+            Employee emp = new Employee(firstName, lastName, email, company, jobTitle.getDisplayName(), salary);
+            batch.add(emp, "Bean " + beanId + ": błąd - ");
 
         } catch (Exception e) {
-            String msg = "Błąd odczytu lub parsowania pliku XML: " + e.getMessage();
+            batch.reject(Violation.UNEXPECTED, "Bean " + beanId + ": błąd - " + e.getMessage());
+        }
+    }
+
+    // -------------------- Import NDJSON (strumieniowo, paczkami) --------------------
+    // Jeden obiekt JSON na linię. Każda linia parsowana osobno, token po tokenie – bez drzewa
+    // i bez buforowania całego pliku; niepoprawna linia to błąd wiersza, a nie koniec importu.
+    // Pracownicy trafiają do EmployeeService paczkami.
+    public ImportSummary importFromNdjson(InputStream in, ImportProgress progress) {
+        RowBatch batch = new RowBatch(progress);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                GzipUtils.decompressIfGzipped(in, maxDecompressedSize), StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null && !progress.isCancelled()) {
+                lineNumber++;
+                if (line.isBlank()) continue;
+                importNdjsonLine(line, "Linia " + lineNumber, batch);
+            }
+        } catch (IOException e) {
+            batch.flush(); // błąd pliku po błędach wcześniejszych wierszy
+            String msg = "Błąd odczytu NDJSON: " + e.getMessage();
             logger.error(msg);
-            errors.add(msg);
+            progress.fileError(msg);
+        } finally {
+            batch.flush();
+        }
+
+        logger.info("Import NDJSON zakończony. Zaimportowano: {} pracowników, błędów: {}", progress.getImportedCount(), progress.getErrorCount());
+        return progress.toSummary();
+    }
+
+    private void importNdjsonLine(String line, String label, RowBatch batch) {
+        Map<String, String> fields;
+        try (JsonParser parser = JSON_FACTORY.createParser(line)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                batch.reject(Violation.INVALID_FORMAT, label + ": oczekiwano obiektu JSON");
+                return;
+            }
+            fields = readFlatObject(parser);
+            if (parser.nextToken() != null) {
+                batch.reject(Violation.INVALID_FORMAT, label + ": nadmiarowe dane po obiekcie JSON");
+                return;
+            }
+        } catch (IOException e) {
+            batch.reject(Violation.INVALID_FORMAT, label + ": niepoprawny JSON - " + e.getMessage());
+            return;
+        }
+
+        String positionStr = fields.getOrDefault("position", "").trim();
+        String salaryStr = fields.getOrDefault("salary", "").trim();
+        ValidationResult validation = EmployeeValidator.validateImportFields(positionStr, salaryStr);
+        if (!validation.isValid()) {
+            batch.reject(validation.getCode(), label + ": błąd danych - " + validation.getMessage());
+            return;
+        }
+        JobTitle jobTitle = EmployeeValidator.findJobTitle(positionStr);
+        double salary = Double.parseDouble(salaryStr);
+
+        batch.add(new Employee(
+                fields.getOrDefault("firstName", "").trim(),
+                fields.getOrDefault("lastName", "").trim(),
+                fields.getOrDefault("email", "").trim(),
+                fields.getOrDefault("company", "").trim(),
+                jobTitle.getDisplayName(),
+                salary), label + ": błąd danych - ");
+    }
+
+    // Płaski obiekt: wartości skalarne jako tekst, zagnieżdżone struktury pomijane
+    private static Map<String, String> readFlatObject(JsonParser parser) throws IOException {
+        Map<String, String> fields = new HashMap<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (value.isScalarValue()) {
+                if (value != JsonToken.VALUE_NULL) fields.put(name, parser.getText());
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return fields;
+    }
+
+    // -------------------- Zapis paczkami --------------------
+    /**
+     * Paczka wierszy importu zapisywana jednym wywołaniem EmployeeService.saveEmployees
+     * (jedna blokada na paczkę zamiast na wiersz). Wiersze odrzucone przed zapisem czekają
+     * w paczce razem z resztą, więc błędy trafiają do raportu w kolejności wierszy pliku.
+     * Przy imporcie archiwum wiersz rezerwuje email dopiero po pełnej walidacji – zapis może
+     * go wtedy odrzucić już tylko jako duplikat pracownika spoza archiwum.
+     */
+    private final class RowBatch {
+        private final ImportProgress progress;
+        private final Function<List<Employee>, List<SaveResult>> sink;
+        private final List<Employee> employees = new ArrayList<>(); // null = wiersz odrzucony przed zapisem
+        private final List<String> messages = new ArrayList<>();    // prefiks błędu zapisu albo pełny komunikat
+        private final List<String> categories = new ArrayList<>();  // kod błędu wiersza odrzuconego przed zapisem
+
+        RowBatch(ImportProgress progress) {
+            this(progress, batch -> employeeService.saveEmployees(batch, progress.getMode()));
+        }
+
+        RowBatch(ImportProgress progress, Function<List<Employee>, List<SaveResult>> sink) {
+            this.progress = progress;
+            this.sink = sink;
+        }
+
+        void add(Employee employee, String errorPrefix) {
+            if (progress.isSharingEmails()) {
+                ValidationResult validation = EmployeeValidator.validate(employee);
+                SaveResult rejection = validation.isValid()
+                        ? progress.claimEmail(employee.getEmailAddress())
+                        : SaveResult.rejected(validation);
+                if (rejection != null) {
+                    reject(rejection.getErrorCode(), errorPrefix + rejection.getError());
+                    return;
+                }
+            }
+            append(employee, errorPrefix, null);
         }
 
-        logger.info("Import XML zakończony. Zaimportowano: {} pracowników, błędów: {}", importedCount, errors.size());
-        return new ImportSummary(importedCount, errors, importedEmployees);
+        void reject(String category, String message) {
+            append(null, message, category);
+        }
+
+        private void append(Employee employee, String message, String category) {
+            employees.add(employee);
+            messages.add(message);
+            categories.add(category);
+            if (employees.size() == BATCH_SIZE) flush();
+        }
+
+        void flush() {
+            if (employees.isEmpty()) return;
+            List<Employee> toSave = employees.stream().filter(Objects::nonNull).toList();
+            Iterator<SaveResult> results = toSave.isEmpty() ? Collections.emptyIterator() : sink.apply(toSave).iterator();
+            for (int i = 0; i < employees.size(); i++) {
+                Employee employee = employees.get(i);
+                if (employee == null) {
+                    progress.rowRejected(categories.get(i), messages.get(i));
+                    continue;
+                }
+                SaveResult result = results.next();
+                if (result.isSaved()) {
+                    progress.employeeImported(employee, result.getOutcome());
+                } else {
+                    progress.releaseEmail(employee.getEmailAddress());
+                    progress.rowRejected(result.getErrorCode(), messages.get(i) + result.getError());
+                }
+            }
+            employees.clear();
+            messages.clear();
+            categories.clear();
+        }
+    }
+
+    // -------------------- Pomocnicze metody --------------------
+    private static String attributeOrEmpty(XMLStreamReader reader, String name) {
+        String value = reader.getAttributeValue(null, name);
+        return value != null ? value : "";
     }
 
-    // -------------------- Pomocnicza metoda --------------------
-    private String getArgValue(Node constructorArgNode) {
-        if (constructorArgNode.getNodeType() != Node.ELEMENT_NODE) return "";
-        Element elem = (Element) constructorArgNode;
-        return elem.getAttribute("value").trim();
+    private static XMLInputFactory createXmlInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        // brak DTD i encji zewnętrznych – plik pochodzi od użytkownika
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
     }
 }
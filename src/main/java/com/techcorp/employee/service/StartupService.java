@@ -0,0 +1,181 @@
+package com.techcorp.employee.service;
+
+import com.techcorp.employee.exception.ApiException;
+import com.techcorp.employee.model.Employee;
+import com.techcorp.employee.model.ImportMode;
+import com.techcorp.employee.model.ImportSummary;
+import com.techcorp.employee.model.SaveResult;
+import com.techcorp.employee.model.StartupStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
+
+/**
+ * Ładowanie danych przy starcie aplikacji jako graf zadań: pracownicy z beans.xml,
+ * plik CSV i REST API wczytywane równolegle, a potem zapisywane jednym wywołaniem
+ * saveEmployees. Do czasu zakończenia getStatus().isReady() zwraca false.
+ * Błąd jednego źródła trafia do errors i nie blokuje pozostałych; gotowość jest
+ * ogłaszana zawsze po zakończeniu ładowania (failed = true, gdy nie powiodło się scalanie).
+ */
+@Service
+public class StartupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupService.class);
+
+    private final EmployeeService employeeService;
+    private final ImportService importService;
+    private final ApiService apiService;
+    private final List<Employee> xmlEmployees;
+    private final ExecutorService executor;
+
+    private final Map<String, Long> taskMillis = new ConcurrentHashMap<>();
+    private final List<String> errors = new CopyOnWriteArrayList<>();
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime readyAt;
+    private volatile long startNanos;
+    private volatile Long durationMillis;
+    private volatile int loadedCount;
+    private volatile boolean failed;
+    private CompletableFuture<StartupStatus> loading;
+
+    public StartupService(EmployeeService employeeService,
+                          ImportService importService,
+                          ApiService apiService,
+                          @Qualifier("xmlEmployees") List<Employee> xmlEmployees,
+                          @Qualifier("startupExecutor") ExecutorService executor) {
+        this.employeeService = employeeService;
+        this.importService = importService;
+        this.apiService = apiService;
+        this.xmlEmployees = xmlEmployees;
+        this.executor = executor;
+    }
+
+    // Uruchamia ładowanie tylko raz – kolejne wywołania zwracają to samo zadanie
+    public synchronized CompletableFuture<StartupStatus> start() {
+        if (loading != null) return loading;
+        startedAt = LocalDateTime.now();
+        startNanos = System.nanoTime();
+
+        CompletableFuture<List<Employee>> xml = task("xml", () -> new ArrayList<>(xmlEmployees));
+        CompletableFuture<List<Employee>> csv = task("csv", this::readCsv);
+        CompletableFuture<List<Employee>> api = task("api", this::fetchApi);
+
+        loading = CompletableFuture.allOf(xml, csv, api)
+                .thenApplyAsync(ignored -> timed("merge", () -> merge(xml.join(), csv.join(), api.join())), executor)
+                .handle(this::finish);
+        return loading;
+    }
+
+    public StartupStatus getStatus() {
+        return new StartupStatus(readyAt != null, failed, startedAt, readyAt, durationMillis,
+                new TreeMap<>(taskMillis), loadedCount, List.copyOf(errors));
+    }
+
+    // -------------------- Zadania ładowania --------------------
+    private List<Employee> readCsv() {
+        List<Employee> staged = new ArrayList<>();
+        ImportSummary summary = importService.readDefaultCsv(staged);
+        summary.getErrors().forEach(error -> errors.add("CSV: " + error));
+        logger.info("Wczytano z pliku CSV: {} pracowników, błędów: {}", staged.size(), summary.getErrorCount());
+        return staged;
+    }
+
+    private List<Employee> fetchApi() {
+        try {
+            List<Employee> employees = apiService.fetchEmployeesFromApi();
+            logger.info("Pobrano z API: {} pracowników", employees.size());
+            return employees;
+        } catch (ApiException e) {
+            // brak API nie blokuje startu – aplikacja działa na danych z XML i CSV
+            errors.add("API: " + e.getMessage());
+            logger.warn("Błąd podczas pobierania danych z API: {}", e.getMessage());
+            return List.of();
+        }
+    }
+
+    // Stała kolejność XML -> CSV -> API: przy powtórzonym emailu zostaje wcześniejsze źródło
+    private int merge(List<Employee> xml, List<Employee> csv, List<Employee> api) {
+        List<Employee> batch = new ArrayList<>(xml.size() + csv.size() + api.size());
+        List<String> sources = new ArrayList<>(batch.size());
+        addAll(batch, sources, xml, "XML");
+        addAll(batch, sources, csv, "CSV");
+        addAll(batch, sources, api, "API");
+
+        List<SaveResult> results = employeeService.saveEmployees(batch, ImportMode.INSERT);
+        int saved = 0;
+        List<String> fromApi = new ArrayList<>();
+        for (int i = 0; i < results.size(); i++) {
+            SaveResult result = results.get(i);
+            if (result.isSaved()) {
+                saved++;
+                if ("API".equals(sources.get(i))) fromApi.add(batch.get(i).getEmailAddress());
+            } else {
+                errors.add(sources.get(i) + ": nie dodano pracownika " + batch.get(i).getEmailAddress()
+                        + " - " + result.getError());
+            }
+        }
+        employeeService.markFromApi(fromApi); // synchronizacja z API może ich później usunąć
+        return saved;
+    }
+
+    private static void addAll(List<Employee> batch, List<String> sources, List<Employee> employees, String source) {
+        for (Employee employee : employees) {
+            batch.add(employee);
+            sources.add(source);
+        }
+    }
+
+    // Bez ponawiania: aplikacja startuje z tym, co udało się zapisać, a błąd widać w statusie
+    private StartupStatus finish(Integer loaded, Throwable error) {
+        durationMillis = (System.nanoTime() - startNanos) / 1_000_000;
+        if (error != null) {
+            Throwable cause = unwrap(error);
+            failed = true;
+            errors.add("Błąd ładowania danych: " + cause.getMessage());
+            logger.error("Ładowanie danych przy starcie nie powiodło się", cause);
+        } else {
+            loadedCount = loaded;
+            logger.info("Dane startowe załadowane w {} ms: {} pracowników, zadania: {}",
+                    durationMillis, loaded, new TreeMap<>(taskMillis));
+        }
+        readyAt = LocalDateTime.now();
+        return getStatus();
+    }
+
+    // Błąd źródła zastępowany pustą listą – pozostałe źródła i tak są scalane
+    private CompletableFuture<List<Employee>> task(String name, Supplier<List<Employee>> supplier) {
+        return CompletableFuture.supplyAsync(() -> timed(name, supplier), executor)
+                .exceptionally(error -> {
+                    Throwable cause = unwrap(error);
+                    errors.add(name.toUpperCase() + ": błąd ładowania - " + cause.getMessage());
+                    logger.error("Zadanie startowe {} nie powiodło się", name, cause);
+                    return List.of();
+                });
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    private <T> T timed(String name, Supplier<T> supplier) {
+        long start = System.nanoTime();
+        try {
+            return supplier.get();
+        } finally {
+            taskMillis.put(name, (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+}
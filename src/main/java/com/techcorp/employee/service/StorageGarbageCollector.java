@@ -0,0 +1,336 @@
+package com.techcorp.employee.service;
+
+import com.techcorp.employee.model.EmployeeDocument;
+import com.techcorp.employee.model.StorageUsage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Sprzątanie osieroconych plików magazynu i liczniki jego zajętości.
+ * <p>
+ * Przebieg uzgadnia indeks dokumentów z plikami w katalogu uploadów. Jedno uruchomienie
+ * ({@link #runBatch()}) przegląda najwyżej batchSize plików w stałej kolejności (nazwy
+ * posortowane w każdym katalogu) i zapamiętuje, gdzie skończyło – pełny przebieg rozkłada
+ * się na wiele uruchomień, a odczyt metadanych ograniczony jest do filesPerSecond.
+ * <p>
+ * Osierocone są: dokumenty i zdjęcia pracowników jawnie usuniętych (znacznik usunięcia
+ * w DocumentIndex – sam brak pracownika w pamięci, np. po restarcie, niczego nie usuwa),
+ * bloby bez referencji, pliki starszego zapisu documents/{email} spoza indeksu, zapisane
+ * pliki importu (uploads/uploads) i pozostawione pliki tymczasowe .part. Usuwane są dopiero,
+ * gdy pozostają osierocone przez cały okres karencji, liczony od pierwszego wykrycia.
+ * <p>
+ * Uploady w częściach bez aktywności dłużej niż chunkIdleTimeout są wygaszane, a pliki
+ * w katalogu chunks bez trwającego uploadu (np. po restarcie) usuwane po tym samym czasie
+ * od ostatniej modyfikacji. Raporty błędów importu starsze niż reportRetention są usuwane.
+ */
+@Service
+public class StorageGarbageCollector {
+
+    private static final Logger logger = LoggerFactory.getLogger(StorageGarbageCollector.class);
+
+    private static final String BLOBS_FOLDER = "blobs";
+    private static final String PHOTOS_FOLDER = "photos";
+    private static final String DOCUMENTS_FOLDER = "documents";
+    private static final String IMPORTS_FOLDER = "uploads";
+    private static final String CHUNKS_FOLDER = "chunks";
+    private static final String THUMBNAIL_SUFFIX = ".thumb.png";
+
+    private final FileStorageService fileStorageService;
+    private final DocumentIndex documentIndex;
+    private final EmployeeService employeeService;
+    private final Duration gracePeriod;
+    private final int batchSize;
+    private final int filesPerSecond;
+    private final Duration chunkIdleTimeout;
+    private final Duration reportRetention;
+
+    private final Map<String, Instant> orphanSince = new HashMap<>(); // klucz osieroconego pliku/dokumentu -> pierwsze wykrycie
+    private Pass pass;           // bieżący, niedokończony przebieg
+    private List<String> cursor; // ostatni przetworzony plik (ścieżka względna); null = początek przebiegu
+    private long deletedFiles;
+    private long deletedBytes;
+    private long deletedDocuments;
+    private volatile StorageUsage usage = new StorageUsage(0, 0, Collections.emptyMap(), 0, 0, 0, 0, null, null);
+
+    public StorageGarbageCollector(FileStorageService fileStorageService,
+                                   DocumentIndex documentIndex,
+                                   EmployeeService employeeService,
+                                   @Value("${app.storage.gc.grace-period:P7D}") Duration gracePeriod,
+                                   @Value("${app.storage.gc.batch-size:1000}") int batchSize,
+                                   @Value("${app.storage.gc.files-per-second:500}") int filesPerSecond,
+                                   @Value("${app.upload.chunked.idle-timeout:PT24H}") Duration chunkIdleTimeout,
+                                   @Value("${app.storage.gc.report-retention:P30D}") Duration reportRetention) {
+        this.fileStorageService = fileStorageService;
+        this.documentIndex = documentIndex;
+        this.employeeService = employeeService;
+        this.gracePeriod = gracePeriod;
+        this.batchSize = Math.max(1, batchSize);
+        this.filesPerSecond = Math.max(1, filesPerSecond);
+        this.chunkIdleTimeout = chunkIdleTimeout;
+        this.reportRetention = reportRetention;
+    }
+
+    // Zajętość według ostatniego zakończonego przebiegu
+    public StorageUsage getUsage() {
+        return usage;
+    }
+
+    /**
+     * Przetwarza kolejną porcję plików; po dojściu do końca drzewa publikuje nowe liczniki
+     * i następne uruchomienie zaczyna kolejny przebieg.
+     */
+    public synchronized StorageUsage runBatch() {
+        if (pass == null) startPass();
+        Budget budget = new Budget();
+        if (walk(fileStorageService.getUploadRoot(), Collections.emptyList(), budget)) {
+            finishPass();
+        }
+        return usage;
+    }
+
+    // -------------------- Indeks dokumentów --------------------
+    // Dokumenty usuniętych pracowników oraz bajty przypisane pracownikom – na początku przebiegu
+    private void startPass() {
+        pass = new Pass();
+        fileStorageService.expireChunkedUploads(chunkIdleTimeout);
+        pass.activeChunkFiles = fileStorageService.activeChunkFiles();
+        for (String email : documentIndex.listDeletedEmployees()) {
+            if (employeeService.existsByEmail(email)) {
+                documentIndex.clearEmployeeDeleted(email); // pracownik dodany ponownie – pliki znów jego
+            } else {
+                pass.deletedEmployees.add(email);
+            }
+        }
+        for (EmployeeDocument document : documentIndex.listAll()) {
+            String email = document.getEmployeeEmail().toLowerCase();
+            String key = "document:" + document.getId();
+            if (isDeletedEmployee(email) && isExpiredOrphan(key)) {
+                orphanSince.remove(key);
+                pass.seenOrphans.remove(key);
+                if (documentIndex.remove(email, document.getId()) != null) {
+                    fileStorageService.deleteDocument(document);
+                    deletedDocuments++;
+                    logger.info("Usunięto osierocony dokument {} ({})", document.getOriginalFileName(), email);
+                }
+                continue;
+            }
+            pass.addEmployeeBytes(email, document.getSize());
+            if (pass.deletedEmployees.contains(email)) pass.deletedWithFiles.add(email);
+            if (document.getBlobHash() == null) {
+                pass.legacyDocuments.add(email + "/" + document.getFileName());
+            }
+        }
+    }
+
+    private void finishPass() {
+        // znacznik usunięcia zbędny, gdy nie zostały żadne pliki pracownika
+        for (String email : pass.deletedEmployees) {
+            if (!pass.deletedWithFiles.contains(email)) documentIndex.clearEmployeeDeleted(email);
+        }
+        int reports = fileStorageService.deleteErrorReportsOlderThan(Instant.now().minus(reportRetention));
+        if (reports > 0) logger.info("Usunięto {} raportów błędów importu starszych niż {}", reports, reportRetention);
+        orphanSince.keySet().retainAll(pass.seenOrphans); // pliki, które przestały być osierocone
+        usage = new StorageUsage(pass.totalBytes, pass.totalFiles, Collections.unmodifiableMap(pass.bytesByEmployee),
+                orphanSince.size(), deletedFiles, deletedBytes, deletedDocuments, pass.startedAt, LocalDateTime.now());
+        logger.info("Przebieg sprzątania magazynu zakończony: {} plików, {} bajtów, oczekujących sierot: {}",
+                pass.totalFiles, pass.totalBytes, orphanSince.size());
+        pass = null;
+        cursor = null;
+    }
+
+    // -------------------- Przegląd plików --------------------
+    // false = wyczerpany limit uruchomienia; cursor wskazuje ostatni przetworzony plik
+    private boolean walk(Path dir, List<String> parents, Budget budget) {
+        List<Path> children;
+        try (Stream<Path> list = Files.list(dir)) {
+            children = list.sorted(Comparator.comparing(path -> path.getFileName().toString())).toList();
+        } catch (NoSuchFileException e) {
+            return true; // katalog usunięty w trakcie przebiegu
+        } catch (IOException e) {
+            logger.warn("Pominięto katalog {} podczas sprzątania: {}", dir, e.getMessage());
+            return true;
+        }
+
+        String resumeAfter = cursor != null && cursor.size() > parents.size() && cursor.subList(0, parents.size()).equals(parents)
+                ? cursor.get(parents.size()) : null;
+        for (Path child : children) {
+            String name = child.getFileName().toString();
+            boolean directory = Files.isDirectory(child, LinkOption.NOFOLLOW_LINKS);
+            if (resumeAfter != null) {
+                int order = name.compareTo(resumeAfter);
+                if (order < 0 || (order == 0 && !directory)) continue; // przetworzone w poprzednim uruchomieniu
+            }
+            List<String> path = new ArrayList<>(parents);
+            path.add(name);
+
+            if (directory) {
+                if (!walk(child, path, budget)) return false;
+            } else {
+                if (!budget.take()) return false;
+                visit(child, path);
+                cursor = path;
+            }
+        }
+        return true;
+    }
+
+    private void visit(Path file, List<String> path) {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        } catch (IOException e) {
+            return; // plik usunięty w trakcie przebiegu
+        }
+        long size = attributes.size();
+        pass.totalFiles++;
+        pass.totalBytes += size;
+        if (path.size() < 2) return; // pliki w katalogu głównym (indeks dokumentów)
+
+        String folder = path.get(0);
+        String name = path.get(path.size() - 1);
+        String key = String.join("/", path);
+        if (folder.equals(CHUNKS_FOLDER)) {
+            // trwający upload albo świeżo porzucony – o jego wygaśnięciu decyduje czas bezczynności
+            Instant cutoff = Instant.now().minus(chunkIdleTimeout);
+            if (!pass.activeChunkFiles.contains(file) && attributes.lastModifiedTime().toInstant().isBefore(cutoff)) {
+                deleteNow(key, file, size);
+            }
+            return;
+        }
+        if (name.endsWith(".part")) {
+            deleteIfExpired(key, file, size); // pozostałość przerwanego zapisu
+            return;
+        }
+
+        switch (folder) {
+            case BLOBS_FOLDER -> {
+                if (name.matches("[0-9a-f]{64}") && fileStorageService.getBlobReferences(name) == 0
+                        && isExpiredOrphan(key) && fileStorageService.deleteUnreferencedBlob(name)) {
+                    deleted(key, size);
+                }
+            }
+            case PHOTOS_FOLDER -> {
+                String email = name.endsWith(THUMBNAIL_SUFFIX)
+                        ? name.substring(0, name.length() - THUMBNAIL_SUFFIX.length()) : name;
+                if (!isDeletedEmployee(email)) {
+                    pass.addEmployeeBytes(email.toLowerCase(), size);
+                } else if (!deleteIfExpired(key, file, size)) {
+                    pass.deletedWithFiles.add(email.toLowerCase());
+                }
+            }
+            case DOCUMENTS_FOLDER -> {
+                String email = path.get(1).toLowerCase();
+                if (pass.legacyDocuments.contains(email + "/" + name)) {
+                    pass.addEmployeeBytes(email, size);
+                } else {
+                    deleteIfExpired(key, file, size);
+                }
+            }
+            case IMPORTS_FOLDER -> deleteIfExpired(key, file, size); // potrzebne tylko na czas importu
+            default -> {
+                // pozostałe katalogi tylko liczone
+            }
+        }
+    }
+
+    // -------------------- Karencja i usuwanie --------------------
+    // Jawnie usunięty i nie dodany ponownie w trakcie przebiegu
+    private boolean isDeletedEmployee(String email) {
+        return pass.deletedEmployees.contains(email.toLowerCase()) && !employeeService.existsByEmail(email);
+    }
+
+    private boolean isExpiredOrphan(String key) {
+        pass.seenOrphans.add(key);
+        Instant now = Instant.now();
+        Instant first = orphanSince.computeIfAbsent(key, k -> now);
+        return Duration.between(first, now).compareTo(gracePeriod) >= 0;
+    }
+
+    // true = plik usunięty (albo już go nie było)
+    private boolean deleteIfExpired(String key, Path file, long size) {
+        if (!isExpiredOrphan(key)) return false;
+        return deleteNow(key, file, size);
+    }
+
+    private boolean deleteNow(String key, Path file, long size) {
+        try {
+            if (Files.deleteIfExists(file)) deleted(key, size);
+            return true;
+        } catch (IOException e) {
+            logger.warn("Nie udało się usunąć osieroconego pliku {}: {}", key, e.getMessage());
+            return false;
+        }
+    }
+
+    private void deleted(String key, long size) {
+        orphanSince.remove(key);
+        pass.seenOrphans.remove(key);
+        pass.totalFiles--;
+        pass.totalBytes -= size;
+        deletedFiles++;
+        deletedBytes += size;
+        logger.info("Usunięto osierocony plik {} ({} bajtów)", key, size);
+    }
+
+    // Liczniki budowane w trakcie przebiegu – publikowane dopiero po jego zakończeniu
+    private static class Pass {
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final Map<String, Long> bytesByEmployee = new TreeMap<>();
+        private final Set<String> legacyDocuments = new HashSet<>();
+        private final Set<String> deletedEmployees = new HashSet<>();  // znaczniki usunięcia z początku przebiegu
+        private final Set<String> deletedWithFiles = new HashSet<>();  // usunięci, których pliki jeszcze zostały
+        private Set<Path> activeChunkFiles = Collections.emptySet();
+        private final Set<String> seenOrphans = new HashSet<>();
+        private long totalFiles;
+        private long totalBytes;
+
+        private void addEmployeeBytes(String email, long bytes) {
+            bytesByEmployee.merge(email, bytes, Long::sum);
+        }
+    }
+
+    // Limit plików na uruchomienie i tempo odczytu (pliki na sekundę)
+    private class Budget {
+        private final long startNanos = System.nanoTime();
+        private int used;
+
+        private boolean take() {
+            if (used >= batchSize) return false;
+            long due = startNanos + TimeUnit.SECONDS.toNanos(used) / filesPerSecond;
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(wait);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            used++;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.techcorp.employee.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Okresowe sprzątanie magazynu plików (app.storage.gc.*) – każde uruchomienie
+ * przetwarza jedną porcję plików, pełny przebieg trwa wiele uruchomień.
+ */
+@Component
+@EnableScheduling
+@ConditionalOnProperty(name = "app.storage.gc.enabled", havingValue = "true")
+public class StorageGcScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(StorageGcScheduler.class);
+
+    private final StorageGarbageCollector storageGarbageCollector;
+
+    public StorageGcScheduler(StorageGarbageCollector storageGarbageCollector) {
+        this.storageGarbageCollector = storageGarbageCollector;
+    }
+
+    @Scheduled(fixedDelayString = "${app.storage.gc.interval:PT1M}",
+            initialDelayString = "${app.storage.gc.initial-delay:PT5M}")
+    public void scheduledSweep() {
+        try {
+            storageGarbageCollector.runBatch();
+        } catch (Exception e) {
+            // wyjątek nie może zatrzymać kolejnych przebiegów
+            logger.error("Sprzątanie magazynu plików nie powiodło się: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.techcorp.employee.service;
+
+import com.techcorp.employee.exception.FileNotFoundException;
+import com.techcorp.employee.exception.FileStorageException;
+import com.techcorp.employee.exception.InvalidFileException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Miniatury zdjęć pracowników: kwadrat o stałym boku, zapisany jako PNG obok oryginału
+ * (photos/{email}.thumb.png). Generowane w tle po wgraniu zdjęcia na ograniczonej puli
+ * wątków, a gdy miniatury brak (albo zdjęcie zastąpiono) – na żądanie przy odczycie.
+ */
+@Service
+public class ThumbnailService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ThumbnailService.class);
+
+    private static final String PHOTOS_FOLDER = "photos";
+    private static final String THUMBNAIL_SUFFIX = ".thumb.png";
+
+    private final FileStorageService fileStorageService;
+    private final ExecutorService thumbnailExecutor;
+    private final int size;
+    private final long maxPixels; // większe zdjęcie nie jest dekodowane (szerokość x wysokość z nagłówka)
+    // jedno generowanie na email – równoległe żądania czekają na ten sam wynik
+    private final Map<String, CompletableFuture<Path>> inProgress = new ConcurrentHashMap<>();
+
+    public ThumbnailService(FileStorageService fileStorageService,
+                            @Qualifier("thumbnailExecutor") ExecutorService thumbnailExecutor,
+                            @Value("${app.photos.thumbnail.size:128}") int size,
+                            @Value("${app.photos.thumbnail.max-pixels:40000000}") long maxPixels) {
+        this.fileStorageService = fileStorageService;
+        this.thumbnailExecutor = thumbnailExecutor;
+        this.size = size;
+        this.maxPixels = maxPixels;
+    }
+
+    /**
+     * Zleca wygenerowanie miniatury w tle. Pełna kolejka nie jest błędem –
+     * miniatura powstanie przy pierwszym odczycie.
+     */
+    public void generateAsync(String email) {
+        try {
+            thumbnailExecutor.execute(() -> {
+                try {
+                    getThumbnail(email);
+                } catch (RuntimeException e) {
+                    logger.warn("Nie udało się wygenerować miniatury dla {}: {}", email, e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            logger.info("Kolejka miniatur pełna – miniatura dla {} powstanie przy odczycie", email);
+        }
+    }
+
+    // Ścieżka aktualnej miniatury; brakująca lub nieaktualna jest generowana od razu
+    public Path getThumbnail(String email) {
+        Path photo = fileStorageService.resolvePath(PHOTOS_FOLDER, email);
+        if (!Files.exists(photo)) throw new FileNotFoundException("Plik nie istnieje: " + email);
+
+        Path thumbnail = fileStorageService.resolvePath(PHOTOS_FOLDER, email + THUMBNAIL_SUFFIX);
+        if (isUpToDate(thumbnail, photo)) return thumbnail;
+
+        CompletableFuture<Path> own = new CompletableFuture<>();
+        CompletableFuture<Path> running = inProgress.putIfAbsent(email, own);
+        if (running != null) return join(running);
+        try {
+            generate(photo, thumbnail);
+            own.complete(thumbnail);
+            return thumbnail;
+        } catch (RuntimeException e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inProgress.remove(email, own);
+        }
+    }
+
+    // Miniatura dostaje datę modyfikacji zdjęcia, z którego powstała – inna data oznacza,
+    // że zdjęcie zastąpiono (także w trakcie generowania) i miniaturę trzeba odświeżyć
+    private static boolean isUpToDate(Path thumbnail, Path photo) {
+        try {
+            return Files.exists(thumbnail)
+                    && Files.getLastModifiedTime(thumbnail).equals(Files.getLastModifiedTime(photo));
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private void generate(Path photo, Path thumbnail) {
+        long start = System.nanoTime();
+        FileTime photoModified;
+        BufferedImage source;
+        try {
+            photoModified = Files.getLastModifiedTime(photo);
+            source = readImage(photo);
+        } catch (IOException e) {
+            throw new InvalidFileException("Nie można odczytać zdjęcia: " + photo.getFileName());
+        }
+        if (source == null) throw new InvalidFileException("Nieobsługiwany format zdjęcia: " + photo.getFileName());
+
+        Path tempFile = thumbnail.resolveSibling(UUID.randomUUID() + ".part");
+        try {
+            Files.createDirectories(thumbnail.getParent());
+            ImageIO.write(scale(source), "png", tempFile.toFile());
+            Files.setLastModifiedTime(tempFile, photoModified);
+            Files.move(tempFile, thumbnail, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new FileStorageException("Błąd zapisu miniatury: " + thumbnail.getFileName(), e);
+        } finally {
+            try {
+                Files.deleteIfExists(tempFile);
+            } catch (IOException ignored) {
+                // plik tymczasowy (.part) usunie sprzątanie magazynu
+            }
+        }
+        logger.debug("Miniatura {} wygenerowana w {} ms", thumbnail.getFileName(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // Wymiary czytane z nagłówka przed dekodowaniem – mały plik może deklarować
+    // obraz, którego piksele nie zmieszczą się w pamięci; null = nieobsługiwany format
+    private BufferedImage readImage(Path photo) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(photo.toFile())) {
+            Iterator<ImageReader> readers = in != null ? ImageIO.getImageReaders(in) : Collections.emptyIterator();
+            if (!readers.hasNext()) return null;
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxPixels) {
+                    throw new InvalidFileException("Zdjęcie jest za duże (" + width + "x" + height
+                            + "). Maksymalna liczba pikseli to " + maxPixels + ".");
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Środkowy kwadrat zdjęcia przeskalowany do size x size (kanał alfa zachowany dla PNG/GIF)
+    private BufferedImage scale(BufferedImage source) {
+        int side = Math.min(source.getWidth(), source.getHeight());
+        int x = (source.getWidth() - side) / 2;
+        int y = (source.getHeight() - side) / 2;
+
+        BufferedImage target = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, size, size, x, y, x + side, y + side, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private static Path join(CompletableFuture<Path> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+    }
+}
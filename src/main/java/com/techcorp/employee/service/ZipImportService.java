@@ -0,0 +1,190 @@
+package com.techcorp.employee.service;
+
+import com.techcorp.employee.exception.InvalidFileException;
+import com.techcorp.employee.model.ImportMode;
+import com.techcorp.employee.model.ImportProgress;
+import com.techcorp.employee.model.ImportSummary;
+import com.techcorp.employee.model.ZipImportSummary;
+import com.techcorp.employee.util.GzipUtils;
+import com.techcorp.employee.util.LimitedInputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Import archiwum ZIP z wieloma plikami CSV/XML. Każdy wpis parsowany jest
+ * równolegle na osobnym wątku; ten sam email w dwóch plikach jest odrzucany
+ * w pliku, który dotarł do niego później.
+ */
+@Service
+public class ZipImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ZipImportService.class);
+
+    private final ImportService importService;
+    private final FileStorageService fileStorageService;
+    private final ExecutorService parallelImportExecutor;
+    private final int maxEntries;
+    private final long maxEntrySize;  // limit rozpakowanego wpisu (także .gz wewnątrz archiwum)
+    private final long maxTotalSize;  // limit sumy rozpakowanych wpisów całego archiwum
+
+    public ZipImportService(ImportService importService,
+                            FileStorageService fileStorageService,
+                            @Qualifier("parallelImportExecutor") ExecutorService parallelImportExecutor,
+                            @Value("${app.import.zip.max-entries:1000}") int maxEntries,
+                            @Value("${app.import.zip.max-entry-size:256MB}") DataSize maxEntrySize,
+                            @Value("${app.import.zip.max-total-size:1GB}") DataSize maxTotalSize) {
+        this.importService = importService;
+        this.fileStorageService = fileStorageService;
+        this.parallelImportExecutor = parallelImportExecutor;
+        this.maxEntries = maxEntries;
+        this.maxEntrySize = maxEntrySize.toBytes();
+        this.maxTotalSize = maxTotalSize.toBytes();
+    }
+
+    public ZipImportSummary importFromZip(Path zipPath, ImportMode mode) {
+        List<String> archiveErrors = new ArrayList<>();
+        Map<String, EntryImport> imports = new LinkedHashMap<>();
+        Set<String> names = new HashSet<>();
+        ConcurrentMap<String, String> emailOwners = new ConcurrentHashMap<>();
+        AtomicLong totalSize = new AtomicLong(); // rozpakowane bajty wszystkich wpisów
+
+        // ZipFile czyta centralny katalog i pozwala otwierać wpisy z wielu wątków jednocześnie
+        try (ZipFile zip = new ZipFile(zipPath.toFile())) {
+            if (zip.size() > maxEntries) {
+                throw new InvalidFileException("Archiwum zawiera za dużo wpisów (" + zip.size() + "). Maksimum to " + maxEntries + ".");
+            }
+
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                if (entry.isDirectory()) continue;
+
+                String name = entry.getName();
+                // ZipFile otwiera wpis po nazwie – powtórzona nazwa czytałaby treść pierwszego wpisu
+                if (!names.add(name)) {
+                    archiveErrors.add(name + ": pominięto – powtórzona nazwa wpisu w archiwum");
+                    continue;
+                }
+                String format = format(name);
+                if (format == null) {
+                    archiveErrors.add(name + ": pominięto – nieobsługiwany typ pliku");
+                    continue;
+                }
+                // rozmiar z nagłówka wpisu może być fałszywy – limit pilnowany też w trakcie odczytu
+                if (entry.getSize() > maxEntrySize) {
+                    archiveErrors.add(name + ": pominięto – wpis za duży (" + entry.getSize() + " bajtów). Maksimum to " + maxEntrySize + " bajtów.");
+                    continue;
+                }
+
+                ImportProgress progress = new ImportProgress(mode, name, emailOwners);
+                progress.spillErrorsTo(fileStorageService.newErrorReportPath());
+                EntryImport task = new EntryImport(progress);
+                task.future = parallelImportExecutor.submit(() -> task.run(() -> importEntry(zip, entry, format, progress, totalSize)));
+                imports.put(name, task);
+            }
+
+            // Czekamy na wszystkie wpisy przed zamknięciem archiwum
+            Map<String, ImportSummary> files = new LinkedHashMap<>();
+            try {
+                for (Map.Entry<String, EntryImport> i : imports.entrySet()) {
+                    try {
+                        files.put(i.getKey(), i.getValue().future.get());
+                    } catch (ExecutionException e) {
+                        logger.error("Błąd importu wpisu {}: {}", i.getKey(), e.getCause().getMessage());
+                        archiveErrors.add(i.getKey() + ": nieoczekiwany błąd - " + e.getCause().getMessage());
+                    }
+                }
+            } catch (InterruptedException e) {
+                // wpisy w trakcie importu nadal czytają z archiwum – zamykamy je dopiero po ich zakończeniu
+                imports.values().forEach(EntryImport::stop);
+                imports.values().forEach(EntryImport::awaitStopped);
+                Thread.currentThread().interrupt();
+                throw new InvalidFileException("Import archiwum został przerwany");
+            }
+
+            ZipImportSummary summary = new ZipImportSummary(mode, files, archiveErrors);
+            logger.info("Zaimportowano archiwum {}: plików {}, pracowników {}, błędów {}",
+                    zipPath.getFileName(), summary.getFileCount(), summary.getImportedCount(), summary.getErrorCount());
+            return summary;
+        } catch (IOException e) {
+            logger.error("Nie można odczytać archiwum ZIP {}: {}", zipPath, e.getMessage());
+            throw new InvalidFileException("Niepoprawne archiwum ZIP: " + e.getMessage());
+        }
+    }
+
+    // Wpis .gz rozpakowywany tutaj, żeby limity dotyczyły treści faktycznie parsowanej
+    private ImportSummary importEntry(ZipFile zip, ZipEntry entry, String format, ImportProgress progress,
+                                      AtomicLong totalSize) throws IOException {
+        InputStream in = new LimitedInputStream(
+                new LimitedInputStream(GzipUtils.decompressIfGzipped(zip.getInputStream(entry)), maxEntrySize, "Wpis " + entry.getName()),
+                totalSize, maxTotalSize, "Archiwum");
+        return "xml".equals(format)
+                ? importService.importXml(in, progress)
+                : importService.importCsv(in, progress);
+    }
+
+    /**
+     * Import jednego wpisu w tle. Zadanie albo startuje, albo – po przerwaniu importu
+     * archiwum – zostaje pominięte; o tym, co zaszło pierwsze, decyduje jedno compareAndSet,
+     * więc przed zamknięciem ZipFile wiadomo, na które zadania trzeba poczekać
+     * (także na te usunięte z kolejki przez shutdownNow, które nigdy nie ruszą).
+     */
+    private static final class EntryImport {
+        private final ImportProgress progress;
+        private final AtomicBoolean claimed = new AtomicBoolean(); // zadanie wystartowało albo zostało pominięte
+        private final CompletableFuture<Void> stopped = new CompletableFuture<>();
+        private Future<ImportSummary> future;
+
+        EntryImport(ImportProgress progress) {
+            this.progress = progress;
+        }
+
+        ImportSummary run(Callable<ImportSummary> body) throws Exception {
+            if (!claimed.compareAndSet(false, true)) return null; // import archiwum już przerwany
+            try {
+                return body.call();
+            } finally {
+                stopped.complete(null);
+            }
+        }
+
+        // Nierozpoczęty wpis już nie ruszy, rozpoczęty kończy się po bieżącej paczce wierszy
+        void stop() {
+            progress.cancel();
+            future.cancel(false);
+            if (claimed.compareAndSet(false, true)) stopped.complete(null);
+        }
+
+        void awaitStopped() {
+            stopped.join(); // join nie reaguje na przerwanie – archiwum zamykamy dopiero po zakończeniu wpisu
+        }
+    }
+
+    // csv / xml (także .gz) albo null dla innych wpisów
+    private static String format(String entryName) {
+        String name = GzipUtils.stripGzSuffix(entryName).toLowerCase();
+        if (name.endsWith(".csv")) return "csv";
+        if (name.endsWith(".xml")) return "xml";
+        return null;
+    }
+}
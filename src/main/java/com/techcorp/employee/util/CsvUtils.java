@@ -21,12 +21,8 @@ public class CsvUtils {
                 if (row.length < 5) continue; // minimalna liczba pól
 
                 double salary = 0.0;
-                if (row.length > 5 && !row[5].isBlank()) {
-                    try {
-                        salary = Double.parseDouble(row[5].trim());
-                    } catch (NumberFormatException ex) {
-                        salary = 0.0;
-                    }
+                if (row.length > 5 && EmployeeValidator.isNumber(row[5])) {
+                    salary = Double.parseDouble(row[5].trim());
                 }
 
                 Employee e = new Employee(
@@ -0,0 +1,67 @@
+package com.techcorp.employee.util;
+
+import com.techcorp.employee.model.Employee;
+import com.techcorp.employee.model.JobTitle;
+import com.techcorp.employee.model.ValidationResult;
+import com.techcorp.employee.model.Violation;
+
+import java.util.regex.Pattern;
+
+/**
+ * Reguły walidacji pracownika wspólne dla REST-a i wszystkich importów.
+ * Metody niczego nie rzucają – zwracają ValidationResult; wyjątek
+ * (InvalidDataException) tworzy dopiero ścieżka pojedynczego pracownika.
+ */
+public final class EmployeeValidator {
+
+    // Liczba w formacie akceptowanym przez Double.parseDouble (bez NaN/Infinity i sufiksów d/f)
+    private static final Pattern NUMBER = Pattern.compile("[+-]?(\\d+(\\.\\d*)?|\\.\\d+)([eE][+-]?\\d+)?");
+
+    private EmployeeValidator() {
+    }
+
+    // Pola wymagane pracownika
+    public static ValidationResult validate(Employee employee) {
+        ValidationResult result = new ValidationResult();
+        if (employee == null) {
+            return result.add("employee", Violation.REQUIRED, "Pracownik nie może być null.");
+        }
+        requireText(result, "firstName", employee.getFirstName(), "Imię nie może być puste.");
+        requireText(result, "lastName", employee.getLastName(), "Nazwisko nie może być puste.");
+        requireText(result, "email", employee.getEmailAddress(), "Email nie może być pusty.");
+        requireText(result, "company", employee.getCompanyName(), "Nazwa firmy nie może być pusta.");
+        requireText(result, "position", employee.getJobTitle(), "Stanowisko nie może być puste.");
+        return result;
+    }
+
+    // Pola surowego wiersza importu, które trzeba przekonwertować: stanowisko i pensja
+    public static ValidationResult validateImportFields(String position, String salary) {
+        ValidationResult result = new ValidationResult();
+        if (position == null || position.isBlank()) {
+            result.add("position", Violation.REQUIRED, "Stanowisko nie może być puste.");
+        } else if (findJobTitle(position) == null) {
+            result.add("position", Violation.UNKNOWN_JOB_TITLE, "Nieznane stanowisko '" + position + "'");
+        }
+        if (!isNumber(salary)) {
+            result.add("salary", Violation.INVALID_SALARY, "Niepoprawna wartość pensji '" + salary + "'");
+        }
+        return result;
+    }
+
+    public static JobTitle findJobTitle(String position) {
+        if (position == null || position.isBlank()) return null;
+        for (JobTitle jobTitle : JobTitle.values()) {
+            if (jobTitle.getDisplayName().equalsIgnoreCase(position.trim())) return jobTitle;
+        }
+        return null;
+    }
+
+    // Sprawdzenie przed Double.parseDouble – bez NumberFormatException dla złych wierszy
+    public static boolean isNumber(String value) {
+        return value != null && NUMBER.matcher(value.trim()).matches();
+    }
+
+    private static void requireText(ValidationResult result, String field, String value, String message) {
+        if (value == null || value.isBlank()) result.add(field, Violation.REQUIRED, message);
+    }
+}
@@ -0,0 +1,276 @@
+package com.techcorp.employee.util;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Wysyłanie pliku z dysku z obsługą nagłówków Range/If-Range (206, multipart/byteranges)
+ * oraz walidatorów ETag/Last-Modified (304). Treść kopiowana przez FileChannel.transferTo,
+ * a gdy Tomcat obsługuje sendfile – przekazywana jądru bez kopiowania przez JVM.
+ */
+public final class FileDownloadWriter {
+
+    // Atrybuty sendfile Tomcata (te same, których używa DefaultServlet)
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    private static final long SENDFILE_MIN_SIZE = 48 * 1024; // małe pliki taniej wysłać bezpośrednio
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private FileDownloadWriter() {
+    }
+
+    public static void write(Path file, String contentType, String downloadName,
+                             HttpServletRequest request, HttpServletResponse response) throws IOException {
+        write(file, contentType, ContentDisposition.attachment().filename(downloadName, StandardCharsets.UTF_8).build(),
+                "", request, response);
+    }
+
+    /**
+     * Plik przechowywany w postaci gzip. Klient akceptujący gzip dostaje go bez rozpakowywania
+     * (Content-Encoding: gzip, zakresy liczone w bajtach postaci skompresowanej), pozostali –
+     * treść rozpakowywaną w locie, bez Content-Length i bez obsługi zakresów.
+     */
+    public static void writeGzipped(Path file, String contentType, String downloadName,
+                                    HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ContentDisposition disposition = ContentDisposition.attachment().filename(downloadName, StandardCharsets.UTF_8).build();
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (acceptsGzip(request)) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            write(file, contentType, disposition, "-gzip", request, response);
+            return;
+        }
+
+        long lastModified = lastModified(file);
+        String etag = etag(Files.size(file), lastModified, "");
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "none");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, disposition.toString());
+        if (isNotModified(request, etag, lastModified)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(contentType);
+        if ("HEAD".equalsIgnoreCase(request.getMethod())) return;
+        OutputStream out = response.getOutputStream();
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file), GZIP_BUFFER_SIZE)) {
+            in.transferTo(out);
+        }
+        out.flush();
+    }
+
+    // Wyświetlenie w przeglądarce (np. obrazy w <img>) zamiast zapisu na dysk
+    public static void writeInline(Path file, String contentType, String fileName,
+                                   HttpServletRequest request, HttpServletResponse response) throws IOException {
+        write(file, contentType, ContentDisposition.inline().filename(fileName, StandardCharsets.UTF_8).build(),
+                "", request, response);
+    }
+
+    // variant odróżnia ETag postaci skompresowanej od rozpakowanej tego samego pliku
+    private static void write(Path file, String contentType, ContentDisposition disposition, String variant,
+                              HttpServletRequest request, HttpServletResponse response) throws IOException {
+        long length = Files.size(file);
+        long lastModified = lastModified(file);
+        String etag = etag(length, lastModified, variant);
+
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, disposition.toString());
+
+        if (isNotModified(request, etag, lastModified)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        List<long[]> ranges;
+        try {
+            ranges = requestedRanges(request, etag, lastModified, length);
+        } catch (IllegalArgumentException e) {
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+            response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            return;
+        }
+        boolean head = "HEAD".equalsIgnoreCase(request.getMethod());
+
+        if (ranges.isEmpty()) {
+            response.setStatus(HttpServletResponse.SC_OK);
+            response.setContentType(contentType);
+            response.setContentLengthLong(length);
+            if (!head) send(file, 0, length, request, response);
+        } else if (ranges.size() == 1) {
+            long[] range = ranges.get(0);
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setContentType(contentType);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, contentRange(range, length));
+            response.setContentLengthLong(range[1] - range[0] + 1);
+            if (!head) send(file, range[0], range[1] - range[0] + 1, request, response);
+        } else {
+            writeMultipart(file, contentType, length, ranges, head, response);
+        }
+    }
+
+    // -------------------- Walidatory --------------------
+    private static long lastModified(Path file) throws IOException {
+        return Files.getLastModifiedTime(file).toMillis() / 1000 * 1000; // dokładność dat HTTP
+    }
+
+    private static String etag(long length, long lastModified, String variant) {
+        return "\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + variant + "\"";
+    }
+
+    // gzip (lub x-gzip, *) bez q=0 w Accept-Encoding
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding == null) return false;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            String name = parts[0].trim().toLowerCase();
+            if (!name.equals("gzip") && !name.equals("x-gzip") && !name.equals("*")) continue;
+            boolean rejected = false;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim().replace(" ", "");
+                if (param.matches("q=0(\\.0*)?")) rejected = true;
+            }
+            if (!rejected) return true;
+        }
+        return false;
+    }
+
+    private static boolean isNotModified(HttpServletRequest request, String etag, long lastModified) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            // If-None-Match ma pierwszeństwo przed If-Modified-Since
+            for (String tag : ifNoneMatch.split(",")) {
+                String trimmed = tag.trim();
+                if (trimmed.equals("*") || trimmed.equals(etag) || trimmed.equals("W/" + etag)) return true;
+            }
+            return false;
+        }
+        long ifModifiedSince = dateHeader(request, HttpHeaders.IF_MODIFIED_SINCE);
+        return ifModifiedSince != -1 && lastModified <= ifModifiedSince;
+    }
+
+    // Pusta lista = cały plik (brak Range albo If-Range wskazuje na starszą wersję pliku)
+    private static List<long[]> requestedRanges(HttpServletRequest request, String etag,
+                                                long lastModified, long length) {
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader == null || length == 0) return List.of();
+
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null) {
+            boolean current = ifRange.trim().startsWith("\"")
+                    ? ifRange.trim().equals(etag)
+                    : dateHeader(request, HttpHeaders.IF_RANGE) == lastModified;
+            if (!current) return List.of();
+        }
+
+        List<long[]> ranges = new ArrayList<>();
+        long total = 0;
+        for (HttpRange range : HttpRange.parseRanges(rangeHeader)) {
+            long start = range.getRangeStart(length);
+            long end = range.getRangeEnd(length);
+            if (start >= length || start > end) throw new IllegalArgumentException("Zakres poza plikiem: " + rangeHeader);
+            ranges.add(new long[]{start, end});
+            total += end - start + 1;
+        }
+        // jak w Springu: zakresy dłuższe niż cały plik traktujemy jako nadużycie
+        if (total > length && ranges.size() > 1) throw new IllegalArgumentException("Zbyt wiele zakresów: " + rangeHeader);
+        return ranges;
+    }
+
+    private static long dateHeader(HttpServletRequest request, String name) {
+        try {
+            return request.getDateHeader(name);
+        } catch (IllegalArgumentException e) {
+            return -1; // niepoprawna data – nagłówek ignorowany
+        }
+    }
+
+    // -------------------- Wysyłanie treści --------------------
+    private static void writeMultipart(Path file, String contentType, long length, List<long[]> ranges,
+                                       boolean head, HttpServletResponse response) throws IOException {
+        String boundary = UUID.randomUUID().toString().replace("-", "");
+        List<byte[]> partHeaders = new ArrayList<>(ranges.size());
+        long contentLength = 0;
+        for (long[] range : ranges) {
+            byte[] header = ("\r\n--" + boundary + "\r\n"
+                    + HttpHeaders.CONTENT_TYPE + ": " + contentType + "\r\n"
+                    + HttpHeaders.CONTENT_RANGE + ": " + contentRange(range, length) + "\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII);
+            partHeaders.add(header);
+            contentLength += header.length + range[1] - range[0] + 1;
+        }
+        byte[] closing = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+        contentLength += closing.length;
+
+        response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        response.setContentType("multipart/byteranges; boundary=" + boundary);
+        response.setContentLengthLong(contentLength);
+        if (head) return;
+
+        OutputStream out = response.getOutputStream();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(out);
+            for (int i = 0; i < ranges.size(); i++) {
+                out.write(partHeaders.get(i));
+                long[] range = ranges.get(i);
+                transfer(channel, range[0], range[1] - range[0] + 1, target);
+            }
+        }
+        out.write(closing);
+        out.flush();
+    }
+
+    private static void send(Path file, long position, long count,
+                             HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (count >= SENDFILE_MIN_SIZE && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // Tomcat wyśle fragment pliku po zakończeniu żądania (sendfile) – bez zapisu do strumienia
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, position);
+            request.setAttribute(SENDFILE_END, position + count);
+            return;
+        }
+        OutputStream out = response.getOutputStream();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            transfer(channel, position, count, Channels.newChannel(out));
+        }
+        out.flush();
+    }
+
+    private static void transfer(FileChannel channel, long position, long count, WritableByteChannel target) throws IOException {
+        long remaining = count;
+        while (remaining > 0) {
+            long sent = channel.transferTo(position, remaining, target);
+            if (sent <= 0) break; // plik skrócony w trakcie wysyłania
+            position += sent;
+            remaining -= sent;
+        }
+    }
+
+    private static String contentRange(long[] range, long length) {
+        return "bytes " + range[0] + "-" + range[1] + "/" + length;
+    }
+}
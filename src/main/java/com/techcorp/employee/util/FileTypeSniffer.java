@@ -0,0 +1,61 @@
+package com.techcorp.employee.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Rozpoznawanie rzeczywistego typu pliku po pierwszych bajtach (sygnaturze),
+ * niezależnie od rozszerzenia podanego przez klienta.
+ */
+public final class FileTypeSniffer {
+
+    // Tyle bajtów z początku pliku wystarcza do rozpoznania typu
+    public static final int SNIFF_LENGTH = 512;
+
+    private static final byte[] PDF = "%PDF-".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final byte[] JPEG = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF};
+    private static final byte[] GIF = "GIF8".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] ZIP = {'P', 'K', 0x03, 0x04};
+    private static final byte[] GZIP = {0x1F, (byte) 0x8B};
+
+    private FileTypeSniffer() {
+    }
+
+    // Czy treść pasuje do rozszerzenia; pliki tekstowe (csv, txt, xml) nie mogą zawierać bajtu 0
+    // ani zaczynać się od sygnatury gzip
+    public static boolean matchesExtension(String extension, byte[] head, int length) {
+        return switch (extension.toLowerCase()) {
+            case "pdf" -> startsWith(head, length, PDF);
+            case "png" -> startsWith(head, length, PNG);
+            case "jpg", "jpeg" -> startsWith(head, length, JPEG);
+            case "gif" -> startsWith(head, length, GIF);
+            case "zip" -> startsWith(head, length, ZIP);
+            case "gz" -> startsWith(head, length, GZIP);
+            case "csv", "txt", "xml" -> isText(head, length);
+            default -> false;
+        };
+    }
+
+    // Typ MIME obrazu (zdjęcia pracowników zapisywane są bez rozszerzenia); null = nie obraz
+    public static String imageContentType(byte[] head, int length) {
+        if (startsWith(head, length, PNG)) return "image/png";
+        if (startsWith(head, length, JPEG)) return "image/jpeg";
+        if (startsWith(head, length, GIF)) return "image/gif";
+        return null;
+    }
+
+    private static boolean startsWith(byte[] head, int length, byte[] signature) {
+        return length >= signature.length && Arrays.equals(head, 0, signature.length, signature, 0, signature.length);
+    }
+
+    // Tekst nie zaczyna się od sygnatury gzip – dzięki temu blob z tą sygnaturą to zawsze
+    // tekst skompresowany przy zapisie albo plik .gz przesłany przez klienta
+    private static boolean isText(byte[] head, int length) {
+        if (startsWith(head, length, GZIP)) return false;
+        for (int i = 0; i < length; i++) {
+            if (head[i] == 0) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,40 @@
+package com.techcorp.employee.util;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+
+public class GzipUtils {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    // Strumień gzip rozpoznajemy po sygnaturze 0x1f 0x8b, a nie po rozszerzeniu pliku
+    public static boolean isGzipped(BufferedInputStream in) throws IOException {
+        in.mark(2);
+        int b1 = in.read();
+        int b2 = in.read();
+        in.reset();
+        return b1 == 0x1f && b2 == 0x8b;
+    }
+
+    // Zwraca strumień rozpakowywany w locie, jeśli dane są w formacie gzip
+    public static InputStream decompressIfGzipped(InputStream in) throws IOException {
+        return decompressIfGzipped(in, Long.MAX_VALUE);
+    }
+
+    // Jak wyżej, ale rozpakowana treść nie może przekroczyć maxDecompressedSize bajtów
+    public static InputStream decompressIfGzipped(InputStream in, long maxDecompressedSize) throws IOException {
+        BufferedInputStream buffered = in instanceof BufferedInputStream b ? b : new BufferedInputStream(in, BUFFER_SIZE);
+        if (!isGzipped(buffered)) return buffered;
+        return new LimitedInputStream(new GZIPInputStream(buffered, BUFFER_SIZE), maxDecompressedSize, "Plik gzip");
+    }
+
+    // "pracownicy.csv.gz" -> "pracownicy.csv"
+    public static String stripGzSuffix(String filename) {
+        if (filename != null && filename.toLowerCase().endsWith(".gz")) {
+            return filename.substring(0, filename.length() - 3);
+        }
+        return filename;
+    }
+}
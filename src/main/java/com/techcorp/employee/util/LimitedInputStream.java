@@ -0,0 +1,62 @@
+package com.techcorp.employee.util;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Strumień z limitem liczby odczytanych bajtów – chroni przed "bombami" gzip/ZIP,
+ * w których kilka kilobajtów rozpakowuje się do gigabajtów. Licznik może być
+ * wspólny dla wielu strumieni (np. suma wszystkich wpisów jednego archiwum).
+ * Przekroczenie limitu kończy odczyt wyjątkiem IOException.
+ */
+public class LimitedInputStream extends FilterInputStream {
+
+    private final AtomicLong counter;
+    private final long limit;
+    private final String description;
+
+    public LimitedInputStream(InputStream in, long limit, String description) {
+        this(in, new AtomicLong(), limit, description);
+    }
+
+    public LimitedInputStream(InputStream in, AtomicLong counter, long limit, String description) {
+        super(in);
+        this.counter = counter;
+        this.limit = limit;
+        this.description = description;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b != -1) count(1);
+        return b;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        int n = super.read(buffer, offset, length);
+        if (n > 0) count(n);
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = super.skip(n);
+        if (skipped > 0) count(skipped);
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    private void count(long n) throws IOException {
+        if (counter.addAndGet(n) > limit) {
+            throw new IOException(description + " przekracza limit " + limit + " bajtów po rozpakowaniu");
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.techcorp.employee.benchmark;
+
+import ch.qos.logback.classic.Level;
+import com.techcorp.employee.exception.InvalidDataException;
+import com.techcorp.employee.model.ImportProgress;
+import com.techcorp.employee.model.ImportSummary;
+import com.techcorp.employee.model.JobTitle;
+import com.techcorp.employee.model.ValidationResult;
+import com.techcorp.employee.service.EmployeeService;
+import com.techcorp.employee.service.ImportService;
+import com.techcorp.employee.util.EmployeeValidator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Ręczny benchmark walidacji importu CSV na pliku, w którym połowa wierszy jest błędna.
+ * Porównuje walidację przez wyjątki (poprzednie podejście) z ValidationResult.
+ * Nie jest testem JUnit – uruchamiany ręcznie:
+ *
+ *   mvn -q test-compile exec:java -Dexec.classpathScope=test \
+ *       -Dexec.mainClass=com.techcorp.employee.benchmark.ImportValidationBenchmark
+ */
+public class ImportValidationBenchmark {
+
+    private static final int ROWS = 200_000;
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        // Logi każdego wiersza zagłuszyłyby pomiar
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        String[] rows = generateRows(ROWS);
+        byte[] csv = ("firstName,lastName,email,company,position,salary\n" + String.join("\n", rows))
+                .getBytes(StandardCharsets.UTF_8);
+
+        for (int round = 1; round <= ROUNDS; round++) {
+            long exceptions = time(() -> validateWithExceptions(rows));
+            long results = time(() -> validateWithResults(rows));
+            long[] imported = new long[1];
+            long fullImport = time(() -> imported[0] = importCsv(csv).getErrors().size());
+            System.out.printf("Runda %d: wyjątki %d ms, ValidationResult %d ms, pełny import %d ms (błędów: %d)%n",
+                    round, exceptions, results, fullImport, imported[0]);
+        }
+    }
+
+    // Co drugi wiersz błędny: nieznane stanowisko albo niepoprawna pensja
+    private static String[] generateRows(int count) {
+        String[] rows = new String[count];
+        for (int i = 0; i < count; i++) {
+            String position = i % 4 == 1 ? "CEO" : "Developer";
+            String salary = i % 4 == 3 ? "abc" : "8000";
+            rows[i] = "Jan,Nowak,jan" + i + "@example.com,TechCorp," + position + "," + salary;
+        }
+        return rows;
+    }
+
+    private static int validateWithExceptions(String[] rows) {
+        int errors = 0;
+        for (String row : rows) {
+            String[] parts = row.split(",");
+            try {
+                String position = parts[4];
+                Arrays.stream(JobTitle.values())
+                        .filter(j -> j.getDisplayName().equalsIgnoreCase(position))
+                        .findFirst()
+                        .orElseThrow(() -> new InvalidDataException("Nieznane stanowisko '" + position + "'"));
+                Double.parseDouble(parts[5]);
+            } catch (InvalidDataException | NumberFormatException e) {
+                errors++;
+            }
+        }
+        return errors;
+    }
+
+    private static int validateWithResults(String[] rows) {
+        int errors = 0;
+        for (String row : rows) {
+            String[] parts = row.split(",");
+            ValidationResult result = EmployeeValidator.validateImportFields(parts[4], parts[5]);
+            if (!result.isValid()) errors++;
+        }
+        return errors;
+    }
+
+    private static ImportSummary importCsv(byte[] csv) {
+        ImportService importService = new ImportService(new EmployeeService(), "employees.csv", DataSize.ofGigabytes(1));
+        return importService.importCsv(new ByteArrayInputStream(csv), new ImportProgress());
+    }
+
+    private static long time(Runnable task) {
+        long start = System.nanoTime();
+        task.run();
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+}
@@ -0,0 +1,118 @@
+package com.techcorp.employee.benchmark;
+
+import ch.qos.logback.classic.Level;
+import com.google.gson.Gson;
+import com.sun.net.httpserver.HttpServer;
+import com.techcorp.employee.EmployeeManagementApplication;
+import com.techcorp.employee.model.Employee;
+import com.techcorp.employee.service.ApiService;
+import com.techcorp.employee.service.EmployeeService;
+import com.techcorp.employee.service.ImportService;
+import com.techcorp.employee.service.StartupService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.unit.DataSize;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Ręczny benchmark startu aplikacji ze sztucznie opóźnionym API (stub HTTP).
+ * Porównuje ładowanie danych startowych na jednym wątku (kolejno, jak dawniej)
+ * z równoległym grafem zadań oraz mierzy pełny start Springa: czas do otwarcia
+ * portu HTTP i czas do gotowości danych. Nie jest testem JUnit – uruchamiany ręcznie:
+ *
+ *   mvn -q test-compile exec:java -Dexec.classpathScope=test \
+ *       -Dexec.mainClass=com.techcorp.employee.benchmark.StartupBenchmark
+ */
+public class StartupBenchmark {
+
+    private static final int API_DELAY_MILLIS = 500;
+    private static final int ROUNDS = 3;
+
+    public static void main(String[] args) throws Exception {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        ExecutorService serverExecutor = Executors.newFixedThreadPool(4);
+        HttpServer server = startSlowApi(serverExecutor);
+        String apiUrl = "http://localhost:" + server.getAddress().getPort() + "/users";
+        try {
+            for (int round = 1; round <= ROUNDS; round++) {
+                long sequential = loadData(apiUrl, 1);
+                long parallel = loadData(apiUrl, 3);
+                System.out.printf("Runda %d: ładowanie kolejne %d ms, równoległe %d ms%n", round, sequential, parallel);
+            }
+            bootApplication(apiUrl);
+        } finally {
+            server.stop(0);
+            serverExecutor.shutdownNow();
+        }
+    }
+
+    // Ten sam graf zadań – pula jednowątkowa wykonuje je po kolei
+    private static long loadData(String apiUrl, int threads) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            EmployeeService employeeService = new EmployeeService();
+            StartupService startupService = new StartupService(employeeService,
+                    new ImportService(employeeService, "employees.csv", DataSize.ofGigabytes(1)),
+                    new ApiService(HttpClient.newHttpClient(), new Gson(), apiUrl, null, executor),
+                    List.of(new Employee("Jan", "Kowalski", "jan.kowalski@techcorp.com", "TechCorp", "MANAGER", 12500)),
+                    executor);
+            return startupService.start().get().getDurationMillis();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void bootApplication(String apiUrl) throws Exception {
+        Path workDir = Files.createTempDirectory("startup-benchmark");
+        long start = System.nanoTime();
+        try (ConfigurableApplicationContext context = SpringApplication.run(EmployeeManagementApplication.class,
+                "--server.port=0",
+                "--app.api.url=" + apiUrl,
+                "--app.api.sync.scheduled.enabled=false",
+                "--app.api.cache.directory=" + workDir.resolve("cache"),
+                "--app.upload.directory=" + workDir.resolve("uploads"),
+                "--app.reports.directory=" + workDir.resolve("reports"))) {
+            long portOpen = (System.nanoTime() - start) / 1_000_000;
+
+            StartupService startupService = context.getBean(StartupService.class);
+            while (!startupService.getStatus().isReady() && !startupService.getStatus().isFailed()) {
+                Thread.sleep(5);
+            }
+            long ready = (System.nanoTime() - start) / 1_000_000;
+            System.out.printf("Start Springa: port HTTP po %d ms, dane gotowe po %d ms %s%n",
+                    portOpen, ready, startupService.getStatus().getTaskMillis());
+        }
+    }
+
+    private static HttpServer startSlowApi(ExecutorService serverExecutor) throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/users", exchange -> {
+            try {
+                Thread.sleep(API_DELAY_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = ("[{\"name\":\"Leanne Graham\",\"email\":\"sincere@april.biz\","
+                    + "\"company\":{\"name\":\"Romaguera-Crona\"}}]").getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.setExecutor(serverExecutor);
+        server.start();
+        return server;
+    }
+}
@@ -0,0 +1,101 @@
+package com.techcorp.employee.benchmark;
+
+import ch.qos.logback.classic.Level;
+import com.techcorp.employee.service.FileStorageService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Ręczny benchmark opóźnień zapisu, odczytu i usuwania pliku w katalogu
+ * z milionem plików: płaski układ (dawny uploads/uploads/) kontra układ
+ * z podziałem FileStorageService (uploads/uploads/aa/bb/). Nie jest testem JUnit:
+ *
+ *   mvn -q test-compile exec:java -Dexec.classpathScope=test \
+ *       -Dexec.mainClass=com.techcorp.employee.benchmark.StorageLayoutBenchmark \
+ *       -Dexec.args="1000000 /ścieżka/na/dysku/docelowym"
+ */
+public class StorageLayoutBenchmark {
+
+    private static final int SAMPLES = 10_000;
+    private static final byte[] CONTENT = "firstName,lastName\nJan,Nowak\n".getBytes(StandardCharsets.UTF_8);
+
+    public static void main(String[] args) throws IOException {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        int files = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Path root = args.length > 1 ? Files.createDirectories(Path.of(args[1])) : Files.createTempDirectory("storage-benchmark");
+
+        Path flatDir = Files.createDirectories(root.resolve("flat"));
+        FileStorageService storage = new FileStorageService(root.resolve("sharded").toString(),
+                root.resolve("reports").toString(), DataSize.ofMegabytes(1), DataSize.ofMegabytes(100), false);
+
+        String[] names = new String[files];
+        for (int i = 0; i < files; i++) {
+            names[i] = UUID.randomUUID() + ".csv";
+        }
+        System.out.printf("Tworzenie %d plików w każdym układzie (%s)...%n", files, root);
+        for (String name : names) {
+            Files.write(flatDir.resolve(name), CONTENT);
+            write(storage.resolvePath("uploads", name));
+        }
+
+        Random random = new Random(42);
+        String[] sample = new String[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            sample[i] = names[random.nextInt(files)];
+        }
+
+        report("płaski", measure(sample, name -> flatDir.resolve(name)));
+        report("z podziałem", measure(sample, name -> storage.resolvePath("uploads", name)));
+    }
+
+    private interface Layout {
+        Path locate(String name);
+    }
+
+    // [0] zapis nowego pliku, [1] odczyt istniejącego, [2] usunięcie – czasy w mikrosekundach
+    private static long[][] measure(String[] sample, Layout layout) throws IOException {
+        long[][] micros = new long[3][sample.length];
+        for (int i = 0; i < sample.length; i++) {
+            String newName = UUID.randomUUID() + ".csv";
+            long start = System.nanoTime();
+            write(layout.locate(newName));
+            micros[0][i] = (System.nanoTime() - start) / 1_000;
+
+            start = System.nanoTime();
+            Files.readAllBytes(layout.locate(sample[i]));
+            micros[1][i] = (System.nanoTime() - start) / 1_000;
+
+            start = System.nanoTime();
+            Files.deleteIfExists(layout.locate(newName));
+            micros[2][i] = (System.nanoTime() - start) / 1_000;
+        }
+        return micros;
+    }
+
+    private static void write(Path path) throws IOException {
+        Files.createDirectories(path.getParent());
+        Files.write(path, CONTENT);
+    }
+
+    private static void report(String name, long[][] micros) {
+        String[] operations = {"zapis", "odczyt", "usunięcie"};
+        StringBuilder line = new StringBuilder("Układ " + name + ":");
+        for (int op = 0; op < operations.length; op++) {
+            long[] sorted = micros[op].clone();
+            Arrays.sort(sorted);
+            double avg = Arrays.stream(sorted).average().orElse(0);
+            line.append(String.format(" %s śr. %.1f µs / p99 %d µs;", operations[op], avg, sorted[sorted.length * 99 / 100]));
+        }
+        System.out.println(line);
+    }
+}
@@ -3,9 +3,16 @@ package com.techcorp.employee.controller;
 import com.techcorp.employee.exception.FileNotFoundException;
 import com.techcorp.employee.model.DocumentType;
 import com.techcorp.employee.model.EmployeeDocument;
+import com.techcorp.employee.service.DocumentBundleService;
+import com.techcorp.employee.service.DocumentIndex;
+import com.techcorp.employee.service.EmployeeService;
 import com.techcorp.employee.service.FileStorageService;
+import com.techcorp.employee.service.ImportDigestIndex;
+import com.techcorp.employee.service.ImportJobService;
 import com.techcorp.employee.service.ImportService;
 import com.techcorp.employee.service.ReportGeneratorService;
+import com.techcorp.employee.service.ThumbnailService;
+import com.techcorp.employee.service.ZipImportService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -33,9 +40,30 @@ class FileUploadControllerTest {
     @MockBean
     private ImportService importService;
 
+    @MockBean
+    private ImportJobService importJobService;
+
+    @MockBean
+    private ImportDigestIndex importDigestIndex;
+
     @MockBean
     private ReportGeneratorService reportGeneratorService;
 
+    @MockBean
+    private ZipImportService zipImportService;
+
+    @MockBean
+    private DocumentIndex documentIndex;
+
+    @MockBean
+    private DocumentBundleService documentBundleService;
+
+    @MockBean
+    private EmployeeService employeeService;
+
+    @MockBean
+    private ThumbnailService thumbnailService;
+
     // Test 1: Upload pliku CSV
     @Test
     void shouldUploadEmployeeDocument() throws Exception {
@@ -93,6 +121,7 @@ class FileUploadControllerTest {
         byte[] photoContent = new byte[]{1, 2, 3};
         ByteArrayResource resource = new ByteArrayResource(photoContent);
 
+        when(employeeService.existsByEmail(employeeEmail)).thenReturn(true);
         when(fileStorageService.loadFile("photos", employeeEmail)).thenReturn(resource);
 
         mockMvc.perform(get("/api/files/photos/{email}", employeeEmail))
@@ -104,6 +133,7 @@ class FileUploadControllerTest {
     @Test
     void shouldReturn404WhenNoPhotoExists() throws Exception {
         String employeeEmail = "jan@example.com";
+        when(employeeService.existsByEmail(employeeEmail)).thenReturn(true);
         when(fileStorageService.loadFile("photos", employeeEmail)).thenThrow(new FileNotFoundException("Plik nie istnieje"));
 
         mockMvc.perform(get("/api/files/photos/{email}", employeeEmail))
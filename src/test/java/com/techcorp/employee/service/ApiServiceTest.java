@@ -0,0 +1,158 @@
+package com.techcorp.employee.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.gson.Gson;
+import com.sun.net.httpserver.HttpServer;
+import com.techcorp.employee.exception.ApiDataException;
+import com.techcorp.employee.exception.ApiException;
+import com.techcorp.employee.model.Employee;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ApiServiceTest {
+
+    private static final String USERS = "[{\"id\":1,\"name\":\"Leanne Graham\",\"email\":\"leanne@april.biz\","
+            + "\"address\":{\"city\":\"Gwenborough\",\"geo\":{\"lat\":\"-37.3159\"}},"
+            + "\"company\":{\"name\":\"Romaguera-Crona\",\"bs\":\"harness\"}},"
+            + "{\"id\":2,\"name\":\"Ervin Howell\",\"email\":\"ervin@melissa.tv\",\"company\":{\"name\":\"Deckow-Crist\"}}]";
+
+    private static final String ETAG = "\"v1\"";
+
+    @TempDir
+    Path tempDir;
+
+    private HttpServer server;
+    private ExecutorService responseExecutor;
+    private volatile int status = 200;
+    private volatile String body = USERS;
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger notModified = new AtomicInteger();
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/users", exchange -> {
+            requests.incrementAndGet();
+            if (ETAG.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                notModified.incrementAndGet();
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+            exchange.getResponseHeaders().add("ETag", ETAG);
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        server.start();
+        responseExecutor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "api-response-test"));
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+        responseExecutor.shutdownNow();
+    }
+
+    private ApiService apiService() {
+        return new ApiService(HttpClient.newHttpClient(), new Gson(),
+                "http://localhost:" + server.getAddress().getPort() + "/users", null, responseExecutor);
+    }
+
+    private ApiService cachingApiService(String url) {
+        return new ApiService(HttpClient.newHttpClient(), new Gson(), url,
+                new ApiResponseCache(new ObjectMapper(), tempDir.resolve("api-cache").toString()), responseExecutor);
+    }
+
+    // Test 1: Asynchroniczne pobranie i mapowanie użytkowników – parsowanie w puli odpowiedzi, nie w HttpClient
+    @Test
+    void shouldFetchEmployeesAsync() throws Exception {
+        List<String> parsingThreads = new CopyOnWriteArrayList<>();
+        assertEquals(2, apiService().streamEmployeesFromApi(e -> parsingThreads.add(Thread.currentThread().getName()))
+                .get(5, TimeUnit.SECONDS));
+        assertEquals(List.of("api-response-test", "api-response-test"), parsingThreads);
+
+        List<Employee> employees = apiService().fetchEmployeesFromApiAsync().get(5, TimeUnit.SECONDS);
+
+        assertEquals(2, employees.size());
+        assertEquals("Leanne", employees.get(0).getFirstName());
+        assertEquals("Graham", employees.get(0).getLastName());
+        assertEquals("Romaguera-Crona", employees.get(0).getCompanyName());
+        assertEquals("ervin@melissa.tv", employees.get(1).getEmailAddress());
+    }
+
+    // Test 2: Błąd HTTP zgłaszany jako ApiException
+    @Test
+    void shouldFailWithApiExceptionOnHttpError() {
+        status = 500;
+        body = "[]";
+
+        CompletionException e = assertThrows(CompletionException.class,
+                () -> apiService().fetchEmployeesFromApiAsync().join());
+        assertInstanceOf(ApiException.class, e.getCause());
+        assertThrows(ApiException.class, () -> apiService().fetchEmployeesFromApi());
+    }
+
+    // Test 3: Żądanie warunkowe – przy 304 zwracane są zapisane dane
+    @Test
+    void shouldReuseCachedResponseOnNotModified() throws Exception {
+        String url = "http://localhost:" + server.getAddress().getPort() + "/users";
+        cachingApiService(url).fetchEmployeesFromApi();
+
+        // nowa instancja – dane tylko na dysku, jak po restarcie
+        List<Employee> employees = cachingApiService(url).fetchEmployeesFromApi();
+
+        assertEquals(2, requests.get());
+        assertEquals(1, notModified.get());
+        assertEquals(2, employees.size());
+        assertEquals("leanne@april.biz", employees.get(0).getEmailAddress());
+    }
+
+    // Test 4: API niedostępne – ostatnia zapisana odpowiedź jako zapas
+    @Test
+    void shouldFallBackToCachedResponseWhenApiIsDown() throws Exception {
+        String url = "http://localhost:" + server.getAddress().getPort() + "/users";
+        cachingApiService(url).fetchEmployeesFromApi();
+        server.stop(0);
+
+        List<Employee> employees = cachingApiService(url).fetchEmployeesFromApi();
+
+        assertEquals(2, employees.size());
+    }
+
+    // Test 5: Niepoprawna treść odpowiedzi to błąd danych – bez ponowień i bez zapasowej kopii
+    @Test
+    void shouldNotRetryMalformedResponse() throws Exception {
+        String url = "http://localhost:" + server.getAddress().getPort() + "/users";
+        cachingApiService(url).fetchEmployeesFromApi();
+        body = "{\"error\":\"rate limit\"}"; // obiekt zamiast tablicy
+        status = 200;
+
+        ApiException e = assertThrows(ApiException.class,
+                () -> cachingApiService(url).fetchEmployees(URI.create(url + "?page=2"), null, employee -> {}));
+
+        assertInstanceOf(ApiDataException.class, e);
+        assertFalse(e.isRetryable());
+    }
+}
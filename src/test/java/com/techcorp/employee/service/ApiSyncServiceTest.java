@@ -0,0 +1,231 @@
+package com.techcorp.employee.service;
+
+import com.google.gson.Gson;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.techcorp.employee.model.ApiSyncResult;
+import com.techcorp.employee.model.ApiSyncStatus;
+import com.techcorp.employee.model.Employee;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ApiSyncServiceTest {
+
+    private static final int PAGES = 3;
+
+    private HttpServer server;
+    private ExecutorService executor;
+    private EmployeeService employeeService;
+    private final AtomicInteger page2Calls = new AtomicInteger();
+    private final AtomicInteger page3Calls = new AtomicInteger();
+    private ExecutorService pageExecutor;
+    private volatile boolean stallPage3;
+    private volatile int pages = PAGES;
+    private volatile String firstCompany = "FinGroup";
+
+    @BeforeEach
+    void setUp() throws IOException {
+        // Stub API: ?page=1..3 po dwóch użytkowników, dalej pusta tablica;
+        // pierwsze żądanie strony 2 kończy się błędem 503
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/users", exchange -> {
+            int page = Integer.parseInt(exchange.getRequestURI().getQuery().replace("page=", ""));
+            if (page == 2 && page2Calls.incrementAndGet() == 1) {
+                respond(exchange, 503, "[]");
+            } else if (page == 3 && stallPage3 && page3Calls.incrementAndGet() == 1) {
+                stall(exchange);
+            } else if (page > pages) {
+                respond(exchange, 200, "[]");
+            } else {
+                respond(exchange, 200, "[" + user(page, 1) + "," + user(page, 2) + "]");
+            }
+        });
+        server.setExecutor(Executors.newFixedThreadPool(4));
+        server.start();
+
+        executor = Executors.newFixedThreadPool(2);
+        pageExecutor = Executors.newFixedThreadPool(2);
+        employeeService = new EmployeeService();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        executor.shutdownNow();
+        pageExecutor.shutdownNow();
+    }
+
+    private String user(int page, int i) {
+        String company = page == 1 && i == 1 ? firstCompany : "FinGroup";
+        return "{\"name\":\"Jan Nowak" + page + i + "\",\"email\":\"jan" + page + i + "@example.com\","
+                + "\"company\":{\"name\":\"" + company + "\"}}";
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    // Nagłówki i początek ciała wysłane, reszta odpowiedzi utknęła
+    private void stall(HttpExchange exchange) throws IOException {
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream out = exchange.getResponseBody();
+        out.write(("[" + user(3, 1) + ",").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+        try {
+            Thread.sleep(3000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        exchange.close();
+    }
+
+    private ApiSyncService syncService(int maxRetries) {
+        return syncService(maxRetries, 100);
+    }
+
+    private ApiSyncService syncService(int maxRetries, int maxPages) {
+        return syncService(maxRetries, maxPages, Duration.ofSeconds(5));
+    }
+
+    private ApiSyncService syncService(int maxRetries, int maxPages, Duration requestTimeout) {
+        String url = "http://localhost:" + server.getAddress().getPort() + "/users";
+        ApiService apiService = new ApiService(HttpClient.newHttpClient(), new Gson(), url, null, executor);
+        return new ApiSyncService(apiService, employeeService, executor, pageExecutor, List.of(), "page", maxPages, 2,
+                requestTimeout, maxRetries, Duration.ofMillis(10));
+    }
+
+    // Test 1: Wszystkie strony pobrane, błąd przejściowy ponowiony
+    @Test
+    void shouldFetchAllPagesWithRetry() {
+        ApiSyncResult result = syncService(2).sync();
+
+        assertTrue(result.isSuccessful(), result.getErrors().toString());
+        assertEquals(PAGES * 2, result.getFetchedCount());
+        assertEquals(PAGES * 2, result.getInsertedCount());
+        assertEquals(1, result.getRetries());
+        assertNotNull(employeeService.getEmployeeByEmail("jan32@example.com"));
+    }
+
+    // Test 2: Ponowna synchronizacja niczego nie dodaje
+    @Test
+    void shouldMergeRepeatedSyncAsUnchanged() {
+        syncService(2).sync();
+        ApiSyncResult second = syncService(2).sync();
+
+        assertEquals(0, second.getInsertedCount());
+        assertEquals(PAGES * 2, second.getUnchangedCount());
+    }
+
+    // Test 3: Bez ponowień błąd strony trafia do wyniku
+    @Test
+    void shouldReportFailedPageWithoutRetries() {
+        ApiSyncResult result = syncService(0).sync();
+
+        assertFalse(result.isSuccessful());
+        assertTrue(result.getErrors().get(0).contains("503"));
+        assertEquals(0, result.getRetries());
+    }
+
+    // Test 4: Synchronizacja różnicowa – zmienieni i usunięci, metryki
+    @Test
+    void shouldApplyOnlyDeltaOnNextSync() {
+        ApiSyncService service = syncService(2);
+        service.sync();
+
+        pages = PAGES - 1;          // ostatnia strona znika z API
+        firstCompany = "TechCorp";  // jeden pracownik zmienia firmę
+        ApiSyncResult delta = service.sync();
+
+        assertEquals(0, delta.getInsertedCount());
+        assertEquals(1, delta.getUpdatedCount());
+        assertEquals(3, delta.getUnchangedCount());
+        assertEquals(2, delta.getRemovedCount());
+        assertNull(employeeService.getEmployeeByEmail("jan31@example.com"));
+        assertEquals("TechCorp", employeeService.getEmployeeByEmail("jan11@example.com").getCompany());
+
+        ApiSyncStatus status = service.getStatus();
+        assertEquals(2, status.getSyncCount());
+        assertEquals(0, status.getConsecutiveFailures());
+        assertNotNull(status.getLagSeconds());
+        assertSame(delta, status.getLastResult());
+    }
+
+    // Test 5: Usuwani tylko pracownicy pochodzący z API (także wczytani przy starcie), nie z innych źródeł
+    @Test
+    void shouldRemoveOnlyApiEmployeesMissingFromApi() {
+        employeeService.addEmployee(new Employee("Ewa", "Lis", "ewa@example.com", "FinGroup", "DEVELOPER", 8500)); // np. z CSV
+        employeeService.addEmployee(new Employee("Adam", "Nowak", "adam@example.com", "FinGroup", "DEVELOPER", 8500));
+        employeeService.markFromApi(List.of("adam@example.com")); // wczytany z API przy starcie aplikacji
+
+        ApiSyncResult result = syncService(2).sync();
+
+        assertEquals(1, result.getRemovedCount());
+        assertNull(employeeService.getEmployeeByEmail("adam@example.com"));
+        assertNotNull(employeeService.getEmployeeByEmail("ewa@example.com"));
+        assertEquals(PAGES * 2, employeeService.findApiEmails().size());
+    }
+
+    // Test 6: Limit stron osiągnięty przed końcem danych – nikt nie jest usuwany, wynik z błędem
+    @Test
+    void shouldNotRemoveEmployeesWhenPageLimitReached() {
+        employeeService.addEmployee(new Employee("Jan", "Nowak", "jan31@example.com", "FinGroup", "DEVELOPER", 8000));
+        employeeService.markFromApi(List.of("jan31@example.com")); // z poprzedniej, pełnej synchronizacji (strona 3)
+
+        ApiSyncResult result = syncService(2, PAGES - 1).sync();
+
+        assertFalse(result.isSuccessful());
+        assertTrue(result.getErrors().get(0).contains("max-pages"), result.getErrors().toString());
+        assertEquals(0, result.getRemovedCount());
+        assertNotNull(employeeService.getEmployeeByEmail("jan31@example.com"));
+        assertEquals((PAGES - 1) * 2, result.getInsertedCount());
+    }
+
+    // Test 7: Pracownik z innego źródła o emailu zwracanym przez API – nie nadpisany i nie usunięty
+    @Test
+    void shouldNotTakeOverEmployeesFromOtherSources() {
+        employeeService.addEmployee(new Employee("Jan", "Nowak", "jan31@example.com", "TechCorp", "MANAGER", 12000)); // np. z CSV
+        ApiSyncService service = syncService(2);
+
+        ApiSyncResult first = service.sync();
+        pages = PAGES - 1; // API przestaje zwracać stronę 3
+        ApiSyncResult second = service.sync();
+
+        assertEquals(1, first.getSkippedCount());
+        assertEquals(PAGES * 2 - 1, first.getInsertedCount());
+        assertEquals(1, second.getRemovedCount()); // tylko jan32 z API
+        assertEquals("TechCorp", employeeService.getEmployeeByEmail("jan31@example.com").getCompany());
+        assertFalse(employeeService.findApiEmails().contains("jan31@example.com"));
+    }
+
+    // Test 8: Strona, której ciało utknęło, przerwana po limicie czasu i pobrana ponownie
+    @Test
+    void shouldRetryPageStalledPastDeadline() {
+        stallPage3 = true;
+
+        ApiSyncResult result = syncService(2, 100, Duration.ofMillis(500)).sync();
+
+        assertTrue(result.isSuccessful(), result.getErrors().toString());
+        assertEquals(PAGES * 2, result.getFetchedCount());
+        assertEquals(2, result.getRetries()); // 503 strony 2 i przerwana strona 3
+        assertEquals(2, page3Calls.get());
+        assertTrue(result.getDurationMillis() < 2500, "strona czekała na zerwanie połączenia: " + result.getDurationMillis() + " ms");
+    }
+}
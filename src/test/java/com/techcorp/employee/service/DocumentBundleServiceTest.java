@@ -0,0 +1,95 @@
+package com.techcorp.employee.service;
+
+import com.techcorp.employee.model.DocumentType;
+import com.techcorp.employee.model.EmployeeDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DocumentBundleServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private FileStorageService fileStorageService;
+    private DocumentIndex documentIndex;
+    private DocumentBundleService bundleService;
+
+    @BeforeEach
+    void setUp() {
+        fileStorageService = StorageFixture.fileStorage(tempDir, true);
+        documentIndex = StorageFixture.documentIndex(fileStorageService, 100);
+        bundleService = new DocumentBundleService(fileStorageService, documentIndex);
+    }
+
+    private void upload(String email, String fileName, byte[] content) {
+        StorageFixture.upload(fileStorageService, documentIndex, email, fileName, content, DocumentType.OTHER);
+    }
+
+    // Test 1: Dokumenty kilku pracowników w jednym archiwum, pdf bez ponownej kompresji
+    @Test
+    void shouldBundleDocumentsOfEmployees() throws IOException {
+        byte[] pdf = "%PDF-1.7 umowa".getBytes(StandardCharsets.US_ASCII);
+        String notes = "notatka ".repeat(100);
+        upload("jan@example.com", "umowa.pdf", pdf);
+        upload("jan@example.com", "notatki.txt", notes.getBytes(StandardCharsets.UTF_8));
+        upload("jan@example.com", "umowa.pdf", pdf);
+        upload("ewa@example.com", "umowa.pdf", pdf);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(4, bundleService.writeBundle(List.of("jan@example.com", "ewa@example.com"), out));
+
+        Map<String, byte[]> files = new HashMap<>();
+        Map<String, Integer> methods = new HashMap<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                files.put(entry.getName(), zip.readAllBytes());
+                methods.put(entry.getName(), entry.getMethod());
+            }
+        }
+
+        assertEquals(4, files.size());
+        assertArrayEquals(pdf, files.get("jan@example.com/umowa.pdf"));
+        assertArrayEquals(pdf, files.get("jan@example.com/umowa (2).pdf"));
+        assertArrayEquals(pdf, files.get("ewa@example.com/umowa.pdf"));
+        assertEquals(notes, new String(files.get("jan@example.com/notatki.txt"), StandardCharsets.UTF_8));
+        assertEquals(ZipEntry.STORED, methods.get("jan@example.com/umowa.pdf"));
+        assertEquals(ZipEntry.DEFLATED, methods.get("jan@example.com/notatki.txt"));
+    }
+
+    // Test 2: Brakujący plik dokumentu pominięty bez pustego wpisu w archiwum
+    @Test
+    void shouldSkipMissingDocumentWithoutEmptyEntry() throws IOException {
+        EmployeeDocument missing = StorageFixture.upload(fileStorageService, documentIndex, "jan@example.com",
+                "notatki.txt", "notatka".getBytes(StandardCharsets.UTF_8), DocumentType.OTHER);
+        upload("jan@example.com", "cv.txt", "cv".getBytes(StandardCharsets.UTF_8));
+        fileStorageService.deleteDocument(missing); // wpis w indeksie został, pliku już nie ma
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(1, bundleService.writeBundle(List.of("jan@example.com"), out));
+
+        List<String> names = new ArrayList<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                names.add(entry.getName());
+            }
+        }
+        assertEquals(List.of("jan@example.com/cv.txt"), names);
+    }
+}
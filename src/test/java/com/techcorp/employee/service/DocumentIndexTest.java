@@ -0,0 +1,99 @@
+package com.techcorp.employee.service;
+
+import com.techcorp.employee.model.DocumentType;
+import com.techcorp.employee.model.EmployeeDocument;
+import com.techcorp.employee.model.StoredFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DocumentIndexTest {
+
+    private static final String HASH = "a".repeat(64);
+
+    @TempDir
+    Path tempDir;
+
+    private FileStorageService fileStorageService;
+
+    @BeforeEach
+    void setUp() {
+        fileStorageService = StorageFixture.fileStorage(tempDir);
+    }
+
+    private DocumentIndex openIndex(int compactAfter) {
+        return StorageFixture.documentIndex(fileStorageService, compactAfter);
+    }
+
+    private static EmployeeDocument document(String email) {
+        return new EmployeeDocument(email, new StoredFile(HASH, HASH, 10), "umowa.pdf", DocumentType.CONTRACT);
+    }
+
+    // Test 1: Stan odtworzony z dziennika po ponownym otwarciu, liczniki blobów odbudowane
+    @Test
+    void shouldRestoreDocumentsFromLog() {
+        DocumentIndex index = openIndex(100);
+        EmployeeDocument kept = document("jan@example.com");
+        EmployeeDocument removed = document("jan@example.com");
+        index.add(kept);
+        index.add(removed);
+        assertSame(removed, index.remove("JAN@example.com", removed.getId()));
+        index.close();
+
+        DocumentIndex reopened = openIndex(100);
+
+        assertEquals(1, reopened.list("jan@example.com").size());
+        assertEquals("umowa.pdf", reopened.find("jan@example.com", kept.getId()).getOriginalFileName());
+        assertNull(reopened.find("jan@example.com", removed.getId()));
+        assertEquals(1, fileStorageService.getBlobReferences(HASH));
+    }
+
+    // Test 2: Snapshot po kompaktowaniu i odcięcie niepełnego ostatniego wpisu
+    @Test
+    void shouldCompactLogAndIgnoreTornWrite() throws IOException {
+        DocumentIndex index = openIndex(2);
+        EmployeeDocument first = document("jan@example.com");
+        index.add(first);
+        index.add(document("ewa@example.com")); // drugi wpis -> snapshot, pusty dziennik
+        index.add(document("ewa@example.com"));
+        index.close();
+
+        Path log = tempDir.resolve("uploads").resolve("document-index.log");
+        assertTrue(Files.exists(tempDir.resolve("uploads").resolve("document-index.json")));
+        assertEquals(1, Files.readAllLines(log).size());
+        Files.writeString(log, "{\"op\":\"PUT\",\"docu", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        DocumentIndex reopened = openIndex(100);
+
+        assertNotNull(reopened.find("jan@example.com", first.getId()));
+        assertEquals(2, reopened.list("ewa@example.com").size());
+        reopened.add(document("piotr@example.com"));
+        reopened.close();
+        assertEquals(2, Files.readAllLines(log).size());
+    }
+
+    // Test 3: Znaczniki usunięcia pracowników przetrwają kompaktowanie i ponowne otwarcie
+    @Test
+    void shouldKeepEmployeeTombstonesAcrossCompaction() {
+        DocumentIndex index = openIndex(2);
+        index.add(document("ewa@example.com"));
+        index.markEmployeeDeleted("Ewa@example.com"); // drugi wpis -> snapshot
+        index.markEmployeeDeleted("piotr@example.com");
+        index.clearEmployeeDeleted("piotr@example.com");
+        index.close();
+
+        DocumentIndex reopened = openIndex(100);
+
+        assertTrue(reopened.isEmployeeDeleted("ewa@example.com"));
+        assertFalse(reopened.isEmployeeDeleted("piotr@example.com"));
+        assertEquals(1, reopened.list("ewa@example.com").size());
+    }
+}
@@ -2,10 +2,26 @@ package com.techcorp.employee.service;
 
 import com.techcorp.employee.exception.InvalidFileException;
 import com.techcorp.employee.exception.FileStorageException;
+import com.techcorp.employee.exception.FileTooLargeException;
+import com.techcorp.employee.model.ChunkedUpload;
+import com.techcorp.employee.model.DocumentType;
+import com.techcorp.employee.model.EmployeeDocument;
+import com.techcorp.employee.model.StoredFile;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.*;
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.zip.GZIPInputStream;
 
 import static org.mockito.Mockito.*;
 import static org.junit.jupiter.api.Assertions.*;
@@ -69,4 +85,178 @@ class FileStorageServiceTest {
 
         assertThrows(FileStorageException.class, () -> fileStorageService.saveFile(file, "documents"));
     }
+
+    // ✅ Test 5: Upload w częściach przesłanych w dowolnej kolejności
+    @Test
+    void shouldAssembleChunkedUpload(@TempDir Path tempDir) throws Exception {
+        FileStorageService storage = StorageFixture.fileStorage(tempDir);
+        byte[] content = "firstName,lastName\nJan,Nowak\n".getBytes(StandardCharsets.UTF_8);
+
+        ChunkedUpload upload = storage.initChunkedUpload("big.csv", content.length);
+        storage.writeChunk(upload.getId(), 10, new ByteArrayInputStream(content, 10, content.length - 10));
+        assertEquals(0, upload.getNextOffset());
+        assertFalse(upload.isComplete());
+
+        storage.writeChunk(upload.getId(), 0, new ByteArrayInputStream(content, 0, 10));
+        assertTrue(upload.isComplete());
+
+        String sha256 = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        StoredFile saved = storage.completeChunkedUpload(upload.getId(), sha256, "uploads");
+
+        assertEquals(sha256, saved.getSha256());
+        assertArrayEquals(content, Files.readAllBytes(storage.resolvePath("uploads", saved.getFileName())));
+    }
+
+    // ✅ Test 6: Niezgodna suma kontrolna
+    @Test
+    void shouldRejectChunkedUploadWithWrongChecksum(@TempDir Path tempDir) {
+        FileStorageService storage = StorageFixture.fileStorage(tempDir);
+        byte[] content = "abc".getBytes(StandardCharsets.UTF_8);
+
+        ChunkedUpload upload = storage.initChunkedUpload("big.csv", content.length);
+        storage.writeChunk(upload.getId(), 0, new ByteArrayInputStream(content));
+
+        assertThrows(InvalidFileException.class,
+                () -> storage.completeChunkedUpload(upload.getId(), "00", "uploads"));
+    }
+
+    // ✅ Test 7: Ta sama treść zapisana raz, usuwana razem z ostatnią referencją
+    @Test
+    void shouldDeduplicateBlobsAndCountReferences(@TempDir Path tempDir) {
+        FileStorageService storage = StorageFixture.fileStorage(tempDir);
+        byte[] content = "szablon umowy".getBytes(StandardCharsets.UTF_8);
+
+        StoredFile first = storage.saveBlob(new MockMultipartFile("file", "umowa.txt", "text/plain", content));
+        StoredFile second = storage.saveBlob(new MockMultipartFile("file", "umowa-kopia.txt", "text/plain", content));
+
+        assertEquals(first.getSha256(), second.getSha256());
+        assertEquals(2, storage.getBlobReferences(first.getSha256()));
+        assertTrue(Files.exists(storage.blobPath(first.getSha256())));
+
+        storage.releaseBlob(first.getSha256());
+        assertTrue(Files.exists(storage.blobPath(first.getSha256())));
+
+        storage.releaseBlob(first.getSha256());
+        assertFalse(Files.exists(storage.blobPath(first.getSha256())));
+        assertEquals(0, storage.getBlobReferences(first.getSha256()));
+    }
+
+    // ✅ Test 8: Nowe pliki w katalogach z podziałem, stare przenoszone migracją
+    @Test
+    void shouldShardFilesAndMigrateLegacyLayout(@TempDir Path tempDir) throws Exception {
+        Path uploads = tempDir.resolve("uploads");
+        FileStorageService storage = new FileStorageService(uploads.toString(),
+                tempDir.resolve("reports").toString(), DataSize.ofMegabytes(1), DataSize.ofMegabytes(100), false);
+
+        String saved = storage.saveFile(new MockMultipartFile("file", "dane.csv", "text/csv", "a,b".getBytes()), "uploads");
+        Path savedPath = storage.resolvePath("uploads", saved);
+        assertEquals(uploads.resolve("uploads").resolve(saved.substring(0, 2)).resolve(saved.substring(2, 4)).resolve(saved), savedPath);
+
+        Path legacy = uploads.resolve("photos").resolve("jan@example.com");
+        Files.createDirectories(legacy.getParent());
+        Files.writeString(legacy, "zdjęcie");
+        assertEquals(legacy, storage.resolvePath("photos", "jan@example.com"));
+
+        assertEquals(1, storage.migrateToShardedLayout());
+        assertFalse(Files.exists(legacy));
+        assertEquals("zdjęcie", Files.readString(storage.resolvePath("photos", "jan@example.com")));
+        assertEquals(0, storage.migrateToShardedLayout());
+    }
+
+    // ✅ Test 9: Strumień zapisywany w jednym przebiegu – limit rozmiaru i zgodność sygnatury z rozszerzeniem
+    @Test
+    void shouldValidateStreamedUploadWhileWriting(@TempDir Path tempDir) throws Exception {
+        FileStorageService storage = new FileStorageService(tempDir.resolve("uploads").toString(),
+                tempDir.resolve("reports").toString(), DataSize.ofMegabytes(1), DataSize.ofBytes(16), false);
+        byte[] pdf = "%PDF-1.7 umowa".getBytes(StandardCharsets.US_ASCII);
+
+        StoredFile saved = storage.saveBlob(new ByteArrayInputStream(pdf), "umowa.pdf", null);
+        assertEquals(HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(pdf)), saved.getSha256());
+        assertEquals(pdf.length, saved.getSize());
+
+        assertThrows(InvalidFileException.class,
+                () -> storage.saveBlob(new ByteArrayInputStream("to nie pdf".getBytes()), "umowa.pdf", null));
+        assertThrows(FileTooLargeException.class,
+                () -> storage.saveBlob(new ByteArrayInputStream(new byte[17]), "dane.txt", null));
+        try (var files = Files.list(tempDir.resolve("uploads").resolve("blobs"))) {
+            assertTrue(files.noneMatch(f -> f.toString().endsWith(".part"))); // pliki tymczasowe usunięte
+        }
+    }
+
+    // ✅ Test 10: Pliki tekstowe skompresowane na dysku, odczyt zwraca oryginalną treść
+    @Test
+    void shouldStoreTextFilesCompressed(@TempDir Path tempDir) throws Exception {
+        FileStorageService storage = StorageFixture.fileStorage(tempDir, true);
+        String csv = "firstName,lastName,email\n" + "Jan,Nowak,jan@example.com\n".repeat(200);
+
+        StoredFile blob = storage.saveBlob(new MockMultipartFile("file", "lista.csv", "text/csv", csv.getBytes()));
+        EmployeeDocument document = new EmployeeDocument("jan@example.com", blob, "lista.csv", DocumentType.OTHER);
+        assertEquals(csv.length(), blob.getSize());
+        assertTrue(Files.size(storage.blobPath(blob.getSha256())) < csv.length() / 5);
+        assertTrue(storage.isStoredCompressed(document));
+        try (InputStream in = storage.openDocument(document)) {
+            assertEquals(csv, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+
+        StoredFile imported = storage.saveFileWithDigest(new MockMultipartFile("file", "import.csv", "text/csv", csv.getBytes()), "uploads");
+        assertTrue(imported.getFileName().endsWith(".csv.gz"));
+        assertEquals(blob.getSha256(), imported.getSha256());
+    }
+
+    // ✅ Test 11: Blob współdzielony przez dokumenty o różnych rozszerzeniach – rozpakowanie po sygnaturze
+    @Test
+    void shouldInflateSharedBlobRegardlessOfDocumentExtension(@TempDir Path tempDir) throws Exception {
+        FileStorageService storage = StorageFixture.fileStorage(tempDir, true);
+        byte[] pdf = ("%PDF-1.7 " + "umowa ".repeat(100)).getBytes(StandardCharsets.US_ASCII);
+
+        StoredFile asText = storage.saveBlob(new MockMultipartFile("file", "umowa.txt", "text/plain", pdf));
+        StoredFile asPdf = storage.saveBlob(new MockMultipartFile("file", "umowa.pdf", "application/pdf", pdf));
+        EmployeeDocument document = new EmployeeDocument("jan@example.com", asPdf, "umowa.pdf", DocumentType.CONTRACT);
+
+        assertEquals(asText.getSha256(), asPdf.getSha256());
+        assertTrue(storage.isStoredCompressed(document));
+        try (InputStream in = storage.openDocument(document)) {
+            assertArrayEquals(pdf, in.readAllBytes());
+        }
+        byte[] gzip = {0x1f, (byte) 0x8b, 8, 8, 1, 2, 3, 4, 2, 3, 'a', '.', 't', 'x', 't'};
+        assertThrows(InvalidFileException.class,
+                () -> storage.saveBlob(new MockMultipartFile("file", "notatki.txt", "text/plain", gzip)));
+    }
+
+    // ✅ Test 12: Archiwa gz/zip przyjmowane tylko jako pliki importu
+    @Test
+    void shouldAcceptArchivesOnlyForImports(@TempDir Path tempDir) {
+        FileStorageService storage = StorageFixture.fileStorage(tempDir);
+        byte[] zip = {'P', 'K', 3, 4, 0, 0};
+
+        assertThrows(InvalidFileException.class,
+                () -> storage.saveBlob(new MockMultipartFile("file", "dokumenty.zip", "application/zip", zip)));
+        assertThrows(InvalidFileException.class,
+                () -> storage.saveBlob(new ByteArrayInputStream(zip), "umowa.pdf.gz", (long) zip.length));
+        assertThrows(InvalidFileException.class,
+                () -> storage.saveFileWithDigest(new MockMultipartFile("file", "zdjecia.zip", "application/zip", zip), "documents"));
+
+        StoredFile imported = storage.saveFileWithDigest(new MockMultipartFile("file", "pracownicy.zip", "application/zip", zip), "uploads");
+        assertTrue(imported.getFileName().endsWith(".zip"));
+    }
+
+    // ✅ Test 13: Złożony upload w częściach kompresowany jak zwykły plik tekstowy
+    @Test
+    void shouldCompressAssembledChunkedUpload(@TempDir Path tempDir) throws Exception {
+        FileStorageService storage = StorageFixture.fileStorage(tempDir, true);
+        byte[] content = "firstName,lastName\nJan,Nowak\n".repeat(50).getBytes(StandardCharsets.UTF_8);
+
+        ChunkedUpload upload = storage.initChunkedUpload("big.csv", content.length);
+        storage.writeChunk(upload.getId(), 0, new ByteArrayInputStream(content));
+        String sha256 = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        StoredFile saved = storage.completeChunkedUpload(upload.getId(), sha256, "uploads");
+
+        assertTrue(saved.getFileName().endsWith(".csv.gz"));
+        assertEquals(sha256, saved.getSha256());
+        Path stored = storage.resolvePath("uploads", saved.getFileName());
+        assertTrue(Files.size(stored) < content.length);
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(stored))) {
+            assertArrayEquals(content, in.readAllBytes());
+        }
+    }
 }
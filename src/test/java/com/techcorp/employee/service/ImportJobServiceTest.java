@@ -0,0 +1,143 @@
+package com.techcorp.employee.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.techcorp.employee.model.ImportJob;
+import com.techcorp.employee.model.ImportJobStatus;
+import com.techcorp.employee.model.ImportMode;
+import com.techcorp.employee.model.ImportSummary;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImportJobServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private ExecutorService executor;
+    private EmployeeService employeeService;
+    private ImportJobService importJobService;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newSingleThreadExecutor();
+        employeeService = new EmployeeService();
+        ImportService importService = new ImportService(employeeService, "employees.csv", DataSize.ofGigabytes(1));
+        ImportDigestIndex digestIndex = new ImportDigestIndex(new ObjectMapper(), employeeService, tempDir.resolve("import-index.json").toString(), 10);
+        FileStorageService fileStorageService = StorageFixture.fileStorage(tempDir);
+        importJobService = new ImportJobService(importService, digestIndex, fileStorageService, executor, 60);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    // Test 1: Zadanie importu CSV kończy się podsumowaniem
+    @Test
+    void shouldRunCsvImportInBackground() throws Exception {
+        Path csv = tempDir.resolve("employees.csv");
+        Files.writeString(csv, "firstName,lastName,email,company,position,salary\n"
+                + "Jan,Nowak,jan@example.com,FinGroup,Manager,12000\n"
+                + "Ewa,Lis,ewa@example.com,FinGroup,CEO,9000\n");
+
+        ImportJob job = importJobService.submit("csv", csv, "employees.csv", ImportMode.INSERT, "abc123");
+        awaitFinished(job);
+
+        assertEquals(ImportJobStatus.COMPLETED, job.getStatus());
+        assertEquals(2, job.getRowsProcessed());
+        assertEquals(1, job.getSummary().getImportedCount());
+        assertEquals(1, job.getErrorCount());
+        assertNotNull(job.getSummary().getErrorReportFile());
+        assertSame(job, importJobService.getJob(job.getId()));
+    }
+
+    // Test 2: Suma pliku zapamiętana w trwałym indeksie
+    @Test
+    void shouldRecordDigestOfCompletedImport() throws Exception {
+        Path csv = tempDir.resolve("employees.csv");
+        Files.writeString(csv, "firstName,lastName,email,company,position,salary\n"
+                + "Jan,Nowak,jan@example.com,FinGroup,Manager,12000\n");
+
+        awaitFinished(importJobService.submit("csv", csv, "employees.csv", ImportMode.INSERT, "abc123"));
+
+        ImportDigestIndex reloaded = new ImportDigestIndex(new ObjectMapper(), employeeService, tempDir.resolve("import-index.json").toString(), 10);
+        ImportSummary cached = reloaded.findCached(ImportMode.INSERT, "abc123");
+        assertNotNull(cached);
+        assertTrue(cached.isFromCache());
+        assertEquals(1, cached.getImportedCount());
+        assertNull(reloaded.findCached(ImportMode.UPSERT, "abc123"));
+        // indeks przechowuje wersję zbioru pracowników, a nie listę zapisanych emaili
+        assertFalse(Files.readString(tempDir.resolve("import-index.json")).contains("jan@example.com"));
+
+        // pracownika z tego importu już nie ma – wpis nieaktualny, plik trzeba zaimportować ponownie
+        employeeService.removeEmployeeByEmail("jan@example.com");
+        assertNull(reloaded.findCached(ImportMode.INSERT, "abc123"));
+    }
+
+    // Test 3: Import w trybie UPSERT nigdy nie jest pomijany – ponowne przesłanie przywraca dane pliku
+    @Test
+    void shouldNotCacheUpsertImports() throws Exception {
+        Path csv = tempDir.resolve("employees.csv");
+        Files.writeString(csv, "firstName,lastName,email,company,position,salary\n"
+                + "Jan,Nowak,jan@example.com,FinGroup,Manager,12000\n");
+
+        awaitFinished(importJobService.submit("csv", csv, "employees.csv", ImportMode.UPSERT, "abc123"));
+
+        ImportDigestIndex reloaded = new ImportDigestIndex(new ObjectMapper(), employeeService, tempDir.resolve("import-index.json").toString(), 10);
+        assertNull(reloaded.findCached(ImportMode.UPSERT, "abc123"));
+    }
+
+    // Test 4: Import, który nic nie zapisał, nie trafia do indeksu
+    @Test
+    void shouldNotRecordImportThatStoredNothing() throws Exception {
+        Path csv = tempDir.resolve("employees.csv");
+        Files.writeString(csv, "firstName,lastName,email,company,position,salary\n"
+                + "Ewa,Lis,ewa@example.com,FinGroup,CEO,9000\n"); // niepoprawne stanowisko
+
+        ImportJob job = importJobService.submit("csv", csv, "employees.csv", ImportMode.INSERT, "abc123");
+        awaitFinished(job);
+
+        assertEquals(0, job.getSummary().getImportedCount());
+        ImportDigestIndex reloaded = new ImportDigestIndex(new ObjectMapper(), employeeService, tempDir.resolve("import-index.json").toString(), 10);
+        assertNull(reloaded.findCached(ImportMode.INSERT, "abc123"));
+    }
+
+    // Test 5: Anulowanie zadania czekającego w kolejce
+    @Test
+    void shouldCancelQueuedJob() throws IOException {
+        executor.submit(() -> {
+            try {
+                Thread.sleep(500); // blokuje jedyny wątek puli
+            } catch (InterruptedException ignored) {
+            }
+        });
+        Path csv = tempDir.resolve("employees.csv");
+        Files.writeString(csv, "firstName,lastName,email,company,position,salary\n");
+
+        ImportJob job = importJobService.submit("csv", csv, "employees.csv", ImportMode.INSERT, null);
+        importJobService.cancel(job.getId());
+
+        assertEquals(ImportJobStatus.CANCELLED, job.getStatus());
+        assertTrue(job.isFinished());
+    }
+
+    private static void awaitFinished(ImportJob job) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!job.isFinished() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(job.isFinished(), "Zadanie nie zakończyło się w czasie");
+    }
+}
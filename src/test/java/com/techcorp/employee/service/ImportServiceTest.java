@@ -0,0 +1,388 @@
+package com.techcorp.employee.service;
+
+import com.techcorp.employee.model.ImportMode;
+import com.techcorp.employee.model.ImportProgress;
+import com.techcorp.employee.model.ImportSummary;
+import com.techcorp.employee.model.ZipImportSummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImportServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private EmployeeService employeeService;
+    private ImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        employeeService = new EmployeeService();
+        importService = new ImportService(employeeService, "employees.csv", DataSize.ofGigabytes(1));
+    }
+
+    private Path writeFile(String name, String content) throws IOException {
+        Path file = tempDir.resolve(name);
+        Files.writeString(file, content);
+        return file;
+    }
+
+    private static String bean(String id, String... args) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("  <bean id=\"").append(id).append("\" class=\"com.techcorp.employee.model.Employee\">\n");
+        for (String arg : args) {
+            sb.append("    <constructor-arg type=\"java.lang.String\" value=\"").append(arg).append("\"/>\n");
+        }
+        sb.append("  </bean>\n");
+        return sb.toString();
+    }
+
+    private static String beans(String... beans) {
+        return "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<beans xmlns=\"http://www.springframework.org/schema/beans\">\n"
+                + String.join("", beans)
+                + "  <bean id=\"other\" class=\"java.lang.String\"/>\n"
+                + "</beans>\n";
+    }
+
+    // Test 1: Import poprawnych beanów z XML
+    @Test
+    void shouldImportEmployeesFromXml() throws IOException {
+        Path xml = writeFile("employees.xml", beans(
+                bean("e1", "Jan", "Kowalski", "jan@techcorp.com", "TechCorp", "MANAGER", "12500"),
+                bean("e2", "Anna", "Nowak", "anna@techcorp.com", "TechCorp", "Developer", "8500")));
+
+        ImportSummary summary = importService.importFromXml(xml.toString());
+
+        assertEquals(2, summary.getImportedCount());
+        assertTrue(summary.getErrors().isEmpty());
+        assertNotNull(employeeService.getEmployeeByEmail("anna@techcorp.com"));
+    }
+
+    // Test 2: Błędy raportowane osobno dla każdego beana
+    @Test
+    void shouldReportErrorsPerBean() throws IOException {
+        Path xml = writeFile("employees.xml", beans(
+                bean("short", "Jan", "Kowalski", "jan@techcorp.com"),
+                bean("badTitle", "Ewa", "Lis", "ewa@techcorp.com", "TechCorp", "CEO", "9000"),
+                bean("ok", "Anna", "Nowak", "anna@techcorp.com", "TechCorp", "Intern", "3000")));
+
+        ImportSummary summary = importService.importFromXml(xml.toString());
+
+        assertEquals(1, summary.getImportedCount());
+        assertEquals(2, summary.getErrors().size());
+        assertEquals("Bean short: niepoprawna liczba argumentów (3)", summary.getErrors().get(0));
+        assertEquals("Bean badTitle: błąd - Nieznane stanowisko 'CEO'", summary.getErrors().get(1));
+    }
+
+    // Test 3: Brak pliku XML
+    @Test
+    void shouldReportMissingXmlFile() {
+        ImportSummary summary = importService.importFromXml(tempDir.resolve("missing.xml").toString());
+
+        assertEquals(0, summary.getImportedCount());
+        assertEquals(1, summary.getErrors().size());
+    }
+
+    // Test 4: Tryb UPSERT – scalanie po emailu
+    @Test
+    void shouldMergeCsvInUpsertMode() throws IOException {
+        String header = "firstName,lastName,email,company,position,salary\n";
+        Path initial = writeFile("initial.csv", header
+                + "Jan,Nowak,jan@example.com,FinGroup,Manager,12000\n"
+                + "Ewa,Lis,ewa@example.com,FinGroup,Developer,8000\n");
+        importService.importFromCsv(initial.toString());
+
+        Path corrected = writeFile("corrected.csv", header
+                + "Jan,Nowak,jan@example.com,FinGroup,Manager,12000\n"
+                + "Ewa,Lis,EWA@example.com,FinGroup,Developer,9500\n"
+                + "Piotr,Wrona,piotr@example.com,FinGroup,Intern,3000\n");
+        ImportSummary summary = importService.importFromCsv(corrected.toString(), ImportMode.UPSERT);
+
+        assertEquals(1, summary.getInsertedCount());
+        assertEquals(1, summary.getUpdatedCount());
+        assertEquals(1, summary.getUnchangedCount());
+        assertEquals(2, summary.getImportedCount());
+        assertTrue(summary.getErrors().isEmpty());
+        assertEquals(9500, employeeService.getEmployeeByEmail("ewa@example.com").getSalary());
+    }
+
+    // Test 5: Tryb INSERT odrzuca istniejące emaile
+    @Test
+    void shouldRejectExistingEmailInInsertMode() throws IOException {
+        Path csv = writeFile("employees.csv", "firstName,lastName,email,company,position,salary\n"
+                + "Jan,Nowak,jan@example.com,FinGroup,Manager,12000\n");
+        importService.importFromCsv(csv.toString());
+
+        ImportSummary summary = importService.importFromCsv(csv.toString());
+
+        assertEquals(0, summary.getImportedCount());
+        assertEquals(1, summary.getErrors().size());
+    }
+
+    // Test 6: Import NDJSON – poprawne i błędne wiersze
+    @Test
+    void shouldImportNdjsonStream() {
+        String ndjson = "{\"firstName\":\"Jan\",\"lastName\":\"Nowak\",\"email\":\"jan@example.com\",\"company\":\"FinGroup\",\"position\":\"Manager\",\"salary\":12000,\"address\":{\"city\":\"Kraków\"}}\n"
+                + "{\"firstName\":\"Ewa\",\"lastName\":\"Lis\",\"email\":\"ewa@example.com\",\"company\":\"FinGroup\",\"position\":\"CEO\",\"salary\":9000}\n"
+                + "{\"firstName\":\"\",\"lastName\":\"Wrona\",\"email\":\"piotr@example.com\",\"company\":\"FinGroup\",\"position\":\"Intern\",\"salary\":\"3000\"}\n";
+
+        ImportSummary summary = importService.importFromNdjson(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), new ImportProgress());
+
+        assertEquals(1, summary.getImportedCount());
+        assertEquals(2, summary.getErrors().size());
+        assertTrue(summary.getErrors().get(0).startsWith("Linia 2:"));
+        assertTrue(summary.getErrors().get(1).startsWith("Linia 3:"));
+        assertNotNull(employeeService.getEmployeeByEmail("jan@example.com"));
+    }
+
+    // Test 7: Plik CSV skompresowany gzip rozpakowywany w locie
+    @Test
+    void shouldImportGzippedCsv() throws IOException {
+        Path gz = tempDir.resolve("employees.csv.gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(gz))) {
+            out.write(("firstName,lastName,email,company,position,salary\n"
+                    + "Jan,Nowak,jan@example.com,FinGroup,Manager,12000\n").getBytes(StandardCharsets.UTF_8));
+        }
+
+        ImportSummary summary = importService.importFromCsv(gz.toString());
+
+        assertEquals(1, summary.getImportedCount());
+        assertTrue(summary.getErrors().isEmpty());
+    }
+
+    // Test 8: Archiwum ZIP – pliki parsowane równolegle, duplikat emaila między plikami
+    @Test
+    void shouldImportZipArchiveWithCrossFileDuplicates() throws IOException {
+        Path zip = tempDir.resolve("employees.zip");
+        try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(zip))) {
+            out.putNextEntry(new ZipEntry("a.csv"));
+            out.write(("firstName,lastName,email,company,position,salary\n"
+                    + "Jan,Nowak,jan@example.com,FinGroup,Manager,12000\n").getBytes(StandardCharsets.UTF_8));
+            out.putNextEntry(new ZipEntry("b.xml"));
+            out.write(beans(
+                    bean("e1", "Jan", "Nowak", "JAN@example.com", "FinGroup", "Manager", "12000"),
+                    bean("e2", "Anna", "Lis", "anna@example.com", "FinGroup", "Developer", "8500")).getBytes(StandardCharsets.UTF_8));
+            out.putNextEntry(new ZipEntry("readme.txt"));
+            out.write("opis".getBytes(StandardCharsets.UTF_8));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            FileStorageService fileStorageService = StorageFixture.fileStorage(tempDir);
+            ZipImportService zipImportService = new ZipImportService(importService, fileStorageService, executor, 10,
+                    DataSize.ofMegabytes(1), DataSize.ofMegabytes(10));
+            ZipImportSummary summary = zipImportService.importFromZip(zip, ImportMode.INSERT);
+
+            assertEquals(2, summary.getFileCount());
+            assertEquals(2, summary.getImportedCount());
+            assertEquals(2, summary.getErrorCount()); // duplikat + pominięty readme.txt
+            assertEquals(1, summary.getArchiveErrors().size());
+            assertNotNull(employeeService.getEmployeeByEmail("anna@example.com"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // Test 9: Wszystkie naruszenia wiersza w jednym komunikacie
+    @Test
+    void shouldReportAllViolationsOfRow() throws IOException {
+        Path csv = writeFile("employees.csv", "firstName,lastName,email,company,position,salary\n"
+                + "Jan,Nowak,jan@example.com,FinGroup,CEO,abc\n"
+                + ",Lis,ewa@example.com,FinGroup,Developer,8000\n");
+
+        ImportSummary summary = importService.importFromCsv(csv.toString());
+
+        assertEquals(0, summary.getImportedCount());
+        assertEquals("Linia 2: błąd danych - Nieznane stanowisko 'CEO'; Niepoprawna wartość pensji 'abc'", summary.getErrors().get(0));
+        assertEquals("Linia 3: błąd danych - Imię nie może być puste.", summary.getErrors().get(1));
+    }
+
+    // Test 10: Błędy w odpowiedzi ograniczone, pełna lista w pliku raportu
+    @Test
+    void shouldCapErrorsAndSpillThemToReportFile() throws IOException {
+        StringBuilder csv = new StringBuilder("firstName,lastName,email,company,position,salary\n");
+        for (int i = 0; i < 150; i++) {
+            csv.append("Jan,Nowak,jan").append(i).append("@example.com,FinGroup,CEO,12000\n");
+        }
+        csv.append("Jan,Nowak,zle-pola\n");
+        Path file = writeFile("employees.csv", csv.toString());
+        Path report = tempDir.resolve("import-errors.txt");
+
+        ImportProgress progress = new ImportProgress();
+        progress.spillErrorsTo(report);
+        ImportSummary summary = importService.importFromCsv(file.toString(), progress);
+
+        assertEquals(ImportProgress.MAX_ERRORS_IN_SUMMARY, summary.getErrors().size());
+        assertEquals(151, summary.getErrorCount());
+        assertTrue(summary.isErrorsTruncated());
+        assertEquals(150L, summary.getErrorCategories().get("UNKNOWN_JOB_TITLE"));
+        assertEquals(1L, summary.getErrorCategories().get("INVALID_FORMAT"));
+        assertEquals("import-errors.txt", summary.getErrorReportFile());
+        assertEquals(151, Files.readAllLines(report).size());
+    }
+
+    // Test 11: Indeks firm aktualizowany przy zmianie firmy w trybie UPSERT i przy usunięciu
+    @Test
+    void shouldKeepCompanyIndexInSyncWithUpserts() throws IOException {
+        String header = "firstName,lastName,email,company,position,salary\n";
+        importService.importFromCsv(writeFile("initial.csv", header
+                + "Jan,Nowak,jan@example.com,FinGroup,Manager,12000\n"
+                + "Ewa,Lis,ewa@example.com,FinGroup,Developer,8000\n").toString());
+        importService.importFromCsv(writeFile("moved.csv", header
+                + "Ewa,Lis,ewa@example.com,TechCorp,Developer,8000\n").toString(), ImportMode.UPSERT);
+
+        assertEquals(1, employeeService.findEmployeesByCompany("fingroup").size());
+        assertEquals("ewa@example.com", employeeService.findEmployeesByCompany("TECHCORP").get(0).getEmailAddress());
+
+        employeeService.removeEmployeeByEmail("ewa@example.com");
+        assertTrue(employeeService.findEmployeesByCompany("TechCorp").isEmpty());
+        assertTrue(employeeService.existsByEmail("JAN@example.com"));
+    }
+
+    // Test 12: "Bomba" gzip i za duży wpis ZIP zatrzymane limitem rozpakowanej treści
+    @Test
+    void shouldStopImportAtDecompressedSizeLimit() throws IOException {
+        byte[] padding = new byte[64 * 1024];
+        Arrays.fill(padding, (byte) ' ');
+        Path gz = tempDir.resolve("bomb.csv.gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(gz))) {
+            out.write("firstName,lastName,email,company,position,salary\n".getBytes(StandardCharsets.UTF_8));
+            for (int i = 0; i < 32; i++) out.write(padding); // 2 MB spacji
+        }
+
+        ImportService limited = new ImportService(employeeService, "employees.csv", DataSize.ofMegabytes(1));
+        ImportSummary summary = limited.importFromCsv(gz.toString());
+        assertEquals(1L, summary.getErrorCategories().get("FILE_ERROR"));
+        assertTrue(summary.getErrors().get(0).contains("przekracza limit"));
+
+        Path zip = tempDir.resolve("bomb.zip");
+        try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(zip))) {
+            out.putNextEntry(new ZipEntry("bomb.csv.gz"));
+            out.write(Files.readAllBytes(gz));
+        }
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            FileStorageService fileStorageService = StorageFixture.fileStorage(tempDir);
+            ZipImportService zipImportService = new ZipImportService(importService, fileStorageService, executor, 10,
+                    DataSize.ofMegabytes(1), DataSize.ofMegabytes(10));
+            ZipImportSummary zipSummary = zipImportService.importFromZip(zip, ImportMode.INSERT);
+
+            assertTrue(zipSummary.getFiles().get("bomb.csv.gz").getErrors().get(0).contains("przekracza limit"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // Test 13: Wiersz odrzucony przy zapisie nie zajmuje emaila – ten sam email w kolejnym pliku archiwum zapisany
+    @Test
+    void shouldNotClaimEmailOfRejectedRowInArchive() throws IOException {
+        String header = "firstName,lastName,email,company,position,salary\n";
+        Path zip = tempDir.resolve("employees.zip");
+        try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(zip))) {
+            out.putNextEntry(new ZipEntry("a.csv"));
+            out.write((header + ",Nowak,jan@example.com,FinGroup,Manager,12000\n").getBytes(StandardCharsets.UTF_8));
+            out.putNextEntry(new ZipEntry("b.csv"));
+            out.write((header + "Jan,Nowak,jan@example.com,FinGroup,Manager,12000\n").getBytes(StandardCharsets.UTF_8));
+        }
+
+        ExecutorService executor = Executors.newSingleThreadExecutor(); // a.csv przed b.csv
+        try {
+            ZipImportService zipImportService = new ZipImportService(importService, StorageFixture.fileStorage(tempDir),
+                    executor, 10, DataSize.ofMegabytes(1), DataSize.ofMegabytes(10));
+            ZipImportSummary summary = zipImportService.importFromZip(zip, ImportMode.INSERT);
+
+            assertEquals(1, summary.getImportedCount());
+            assertEquals(1, summary.getErrorCount()); // tylko puste imię w a.csv
+            assertEquals("Jan", employeeService.getEmployeeByEmail("jan@example.com").getFirstName());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // Test 14: Wiersze zapisywane paczkami – błędy zapisu i walidacji w kolejności linii pliku
+    @Test
+    void shouldReportBatchedRowErrorsInLineOrder() throws IOException {
+        String header = "firstName,lastName,email,company,position,salary\n";
+        importService.importFromCsv(writeFile("initial.csv", header
+                + "Jan,Nowak,jan@example.com,FinGroup,Manager,12000\n").toString());
+
+        ImportSummary summary = importService.importFromCsv(writeFile("employees.csv", header
+                + "Jan,Nowak,jan@example.com,FinGroup,Manager,12000\n"   // duplikat – odrzucony przy zapisie
+                + "Ewa,Lis,ewa@example.com,FinGroup,CEO,9000\n"          // odrzucony przy walidacji
+                + "Anna,Lis,anna@example.com,FinGroup,Developer,8500\n").toString());
+
+        assertEquals(1, summary.getImportedCount());
+        assertEquals(2, summary.getErrors().size());
+        assertTrue(summary.getErrors().get(0).startsWith("Linia 2:"));
+        assertTrue(summary.getErrors().get(1).startsWith("Linia 3:"));
+    }
+
+    // Test 15: Powtórzona nazwa wpisu archiwum zgłoszona, a nie nadpisana w wynikach
+    @Test
+    void shouldReportDuplicateEntryNamesInArchive() throws IOException {
+        String header = "firstName,lastName,email,company,position,salary\n";
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream out = new ZipOutputStream(bytes)) {
+            out.putNextEntry(new ZipEntry("a.csv"));
+            out.write((header + "Jan,Nowak,jan@example.com,FinGroup,Manager,12000\n").getBytes(StandardCharsets.UTF_8));
+            out.putNextEntry(new ZipEntry("b.csv"));
+            out.write((header + "Anna,Lis,anna@example.com,FinGroup,Developer,8500\n").getBytes(StandardCharsets.UTF_8));
+        }
+        // ZipOutputStream nie zapisze dwóch wpisów o tej samej nazwie – podmiana w nagłówkach
+        String patched = new String(bytes.toByteArray(), StandardCharsets.ISO_8859_1).replace("b.csv", "a.csv");
+        Path zip = tempDir.resolve("employees.zip");
+        Files.write(zip, patched.getBytes(StandardCharsets.ISO_8859_1));
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            ZipImportService zipImportService = new ZipImportService(importService, StorageFixture.fileStorage(tempDir),
+                    executor, 10, DataSize.ofMegabytes(1), DataSize.ofMegabytes(10));
+            ZipImportSummary summary = zipImportService.importFromZip(zip, ImportMode.INSERT);
+
+            assertEquals(1, summary.getFileCount());
+            assertEquals(1, summary.getArchiveErrors().size());
+            assertTrue(summary.getArchiveErrors().get(0).contains("powtórzona nazwa"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // Test 16: Niepoprawna linia NDJSON to błąd wiersza – import czyta dalej, błędy w kolejności linii
+    @Test
+    void shouldContinueNdjsonImportAfterMalformedLine() {
+        String ndjson = "{\"firstName\":\"Jan\",\"lastName\":\"Nowak\",\"email\":\"jan@example.com\",\"company\":\"FinGroup\",\"position\":\"Manager\",\"salary\":12000}\n"
+                + "{\"firstName\":\"Jan\",\"lastName\":\"Nowak\",\"email\":\"jan@example.com\",\"company\":\"FinGroup\",\"position\":\"Manager\",\"salary\":12000}\n"
+                + "{\"firstName\":\"Ewa\",\"lastName\":\"Lis\",\"email\":\n"
+                + "\n"
+                + "{\"firstName\":\"Anna\",\"lastName\":\"Lis\",\"email\":\"anna@example.com\",\"company\":\"FinGroup\",\"position\":\"Developer\",\"salary\":8500}\n";
+
+        ImportSummary summary = importService.importFromNdjson(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), new ImportProgress());
+
+        assertEquals(2, summary.getImportedCount());
+        assertEquals(2, summary.getErrors().size());
+        assertTrue(summary.getErrors().get(0).startsWith("Linia 2: błąd danych"), summary.getErrors().get(0)); // duplikat przy zapisie
+        assertTrue(summary.getErrors().get(1).startsWith("Linia 3: niepoprawny JSON"), summary.getErrors().get(1));
+        assertNotNull(employeeService.getEmployeeByEmail("anna@example.com"));
+    }
+}
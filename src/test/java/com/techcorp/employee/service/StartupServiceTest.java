@@ -0,0 +1,89 @@
+package com.techcorp.employee.service;
+
+import com.techcorp.employee.exception.ApiException;
+import com.techcorp.employee.model.Employee;
+import com.techcorp.employee.model.StartupStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class StartupServiceTest {
+
+    private ExecutorService executor;
+    private EmployeeService employeeService;
+    private ApiService apiService;
+    private StartupService startupService;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(3);
+        employeeService = new EmployeeService();
+        apiService = mock(ApiService.class);
+        // ten sam email co w employees.csv – przy scalaniu wygrywa XML
+        List<Employee> xmlEmployees = List.of(
+                new Employee("Jan", "Nowak", "jan.nowak@example.com", "TechCorp", "MANAGER", 12500));
+        startupService = new StartupService(employeeService, new ImportService(employeeService, "employees.csv", DataSize.ofGigabytes(1)),
+                apiService, xmlEmployees, executor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    // Test 1: XML, CSV i API scalone – gotowość dopiero po zakończeniu ładowania
+    @Test
+    void shouldLoadAllSourcesAndBecomeReady() throws Exception {
+        when(apiService.fetchEmployeesFromApi()).thenReturn(List.of(
+                new Employee("Leanne", "Graham", "sincere@april.biz", "Romaguera-Crona", "DEVELOPER", 8000)));
+        assertFalse(startupService.getStatus().isReady());
+
+        StartupStatus status = startupService.start().get(5, TimeUnit.SECONDS);
+
+        assertTrue(status.isReady());
+        assertFalse(status.isFailed());
+        assertEquals(employeeService.getAllEmployees().size(), status.getLoadedCount());
+        assertEquals("TechCorp", employeeService.getEmployeeByEmail("jan.nowak@example.com").getCompany());
+        assertNotNull(employeeService.getEmployeeByEmail("sincere@april.biz"));
+        assertEquals(Set.of("sincere@april.biz"), employeeService.findApiEmails());
+        assertTrue(status.getErrors().stream().anyMatch(e -> e.startsWith("CSV: nie dodano pracownika jan.nowak@example.com")));
+        assertTrue(status.getTaskMillis().keySet().containsAll(List.of("xml", "csv", "api", "merge")));
+        assertSame(startupService.start(), startupService.start());
+    }
+
+    // Test 2: Niedostępne API nie blokuje gotowości
+    @Test
+    void shouldBecomeReadyWhenApiFails() throws Exception {
+        when(apiService.fetchEmployeesFromApi()).thenThrow(new ApiException("Brak połączenia"));
+
+        StartupStatus status = startupService.start().get(5, TimeUnit.SECONDS);
+
+        assertTrue(status.isReady());
+        assertTrue(status.getErrors().contains("API: Brak połączenia"));
+        assertNotNull(employeeService.getEmployeeByEmail("ewa.majewska@example.com"));
+    }
+
+    // Test 3: Nieoczekiwany błąd jednego źródła – pozostałe scalone, gotowość ogłoszona
+    @Test
+    void shouldMergeRemainingSourcesWhenTaskThrows() throws Exception {
+        when(apiService.fetchEmployeesFromApi()).thenThrow(new IllegalStateException("zepsuty klient HTTP"));
+
+        StartupStatus status = startupService.start().get(5, TimeUnit.SECONDS);
+
+        assertTrue(status.isReady());
+        assertFalse(status.isFailed());
+        assertTrue(status.getErrors().contains("API: błąd ładowania - zepsuty klient HTTP"));
+        assertNotNull(employeeService.getEmployeeByEmail("jan.nowak@example.com"));
+        assertNotNull(employeeService.getEmployeeByEmail("ewa.majewska@example.com"));
+    }
+}
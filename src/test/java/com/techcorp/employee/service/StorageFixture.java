@@ -0,0 +1,43 @@
+package com.techcorp.employee.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.techcorp.employee.model.DocumentType;
+import com.techcorp.employee.model.EmployeeDocument;
+import com.techcorp.employee.model.StoredFile;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+
+/**
+ * Wspólny magazyn plików dla testów serwisów: katalogi uploads/ i reports/
+ * w katalogu tymczasowym testu, indeks dokumentów w uploads/ (jak w aplikacji).
+ */
+final class StorageFixture {
+
+    private StorageFixture() {
+    }
+
+    static FileStorageService fileStorage(Path tempDir) {
+        return fileStorage(tempDir, false);
+    }
+
+    static FileStorageService fileStorage(Path tempDir, boolean compressText) {
+        return new FileStorageService(tempDir.resolve("uploads").toString(), tempDir.resolve("reports").toString(),
+                DataSize.ofGigabytes(1), DataSize.ofMegabytes(100), compressText);
+    }
+
+    static DocumentIndex documentIndex(FileStorageService fileStorageService, int compactAfter) {
+        return new DocumentIndex(new ObjectMapper().findAndRegisterModules(), fileStorageService,
+                fileStorageService.getUploadRoot().resolve("document-index").toString(), compactAfter);
+    }
+
+    // Dokument pracownika zapisany tak jak przez kontroler: blob + wpis w indeksie
+    static EmployeeDocument upload(FileStorageService fileStorageService, DocumentIndex documentIndex,
+                                   String email, String fileName, byte[] content, DocumentType type) {
+        StoredFile blob = fileStorageService.saveBlob(new MockMultipartFile("file", fileName, null, content));
+        EmployeeDocument document = new EmployeeDocument(email, blob, fileName, type);
+        documentIndex.add(document);
+        return document;
+    }
+}
@@ -0,0 +1,125 @@
+package com.techcorp.employee.service;
+
+import com.techcorp.employee.model.ChunkedUpload;
+import com.techcorp.employee.model.DocumentType;
+import com.techcorp.employee.model.EmailSet;
+import com.techcorp.employee.model.Employee;
+import com.techcorp.employee.model.StorageUsage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StorageGarbageCollectorTest {
+
+    @TempDir
+    Path tempDir;
+
+    private FileStorageService fileStorageService;
+    private DocumentIndex documentIndex;
+    private EmployeeService employeeService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        fileStorageService = StorageFixture.fileStorage(tempDir);
+        documentIndex = StorageFixture.documentIndex(fileStorageService, 100);
+        employeeService = new EmployeeService(new EmailSet(), documentIndex);
+        employeeService.addEmployee(new Employee("Jan", "Nowak", "jan@example.com", "TechCorp", "MANAGER", 12500));
+        employeeService.addEmployee(new Employee("Ewa", "Lis", "ewa@example.com", "TechCorp", "DEVELOPER", 8500));
+
+        upload("jan@example.com", "umowa jana");
+        upload("ewa@example.com", "umowa ewy");
+        Path photo = fileStorageService.resolvePath("photos", "ewa@example.com");
+        Files.createDirectories(photo.getParent());
+        Files.writeString(photo, "zdjęcie");
+        fileStorageService.saveFile(new MockMultipartFile("file", "import.csv", "text/csv", "a,b".getBytes()), "uploads");
+
+        employeeService.removeEmployeeByEmail("ewa@example.com");
+    }
+
+    private void upload(String email, String content) {
+        StorageFixture.upload(fileStorageService, documentIndex, email, "umowa.txt",
+                content.getBytes(StandardCharsets.UTF_8), DocumentType.CONTRACT);
+    }
+
+    private StorageGarbageCollector collector(Duration gracePeriod, int batchSize) {
+        return new StorageGarbageCollector(fileStorageService, documentIndex, employeeService, gracePeriod, batchSize, 10_000,
+                Duration.ofHours(1), Duration.ofDays(30));
+    }
+
+    // Test 1: Pliki usuniętego pracownika i zapisane pliki importu usuwane po karencji
+    @Test
+    void shouldDeleteOrphansAfterGracePeriod() {
+        StorageUsage usage = collector(Duration.ZERO, 1000).runBatch();
+
+        assertTrue(documentIndex.list("ewa@example.com").isEmpty());
+        assertEquals(1, documentIndex.list("jan@example.com").size());
+        assertFalse(Files.exists(fileStorageService.resolvePath("photos", "ewa@example.com")));
+        assertEquals(1, usage.getDeletedDocuments());
+        assertEquals(2, usage.getDeletedFiles()); // zdjęcie + plik importu
+        assertEquals(0, usage.getPendingOrphans());
+        assertEquals(10L, usage.getBytesByEmployee().get("jan@example.com"));
+        assertNull(usage.getBytesByEmployee().get("ewa@example.com"));
+        assertNotNull(usage.getLastPassFinishedAt());
+    }
+
+    // Test 2: W okresie karencji nic nie jest usuwane, przebieg rozłożony na porcje
+    @Test
+    void shouldOnlyCountOrphansWithinGracePeriod() {
+        StorageGarbageCollector collector = collector(Duration.ofDays(1), 1);
+
+        StorageUsage usage = collector.runBatch();
+        assertNull(usage.getLastPassFinishedAt()); // jedna porcja to jeszcze nie cały przebieg
+        for (int i = 0; i < 10 && usage.getLastPassFinishedAt() == null; i++) {
+            usage = collector.runBatch();
+        }
+
+        assertNotNull(usage.getLastPassFinishedAt());
+        assertEquals(1, documentIndex.list("ewa@example.com").size());
+        assertTrue(Files.exists(fileStorageService.resolvePath("photos", "ewa@example.com")));
+        assertEquals(3, usage.getPendingOrphans()); // dokument, zdjęcie, plik importu
+        assertEquals(0, usage.getDeletedFiles());
+        assertEquals(5, usage.getTotalFiles()); // 2 bloby, zdjęcie, plik importu, dziennik indeksu
+    }
+
+    // Test 3: Pracownik nieobecny w pamięci (np. po restarcie), ale nie usunięty – pliki zostają
+    @Test
+    void shouldKeepFilesOfEmployeesMissingAfterRestart() {
+        employeeService = new EmployeeService(); // po restarcie: nikt nie został jeszcze wczytany
+
+        StorageUsage usage = collector(Duration.ZERO, 1000).runBatch();
+
+        assertEquals(1, documentIndex.list("jan@example.com").size());
+        assertTrue(documentIndex.list("ewa@example.com").isEmpty()); // ewa usunięta jawnie
+        assertEquals(1, usage.getDeletedDocuments());
+        assertEquals(10L, usage.getBytesByEmployee().get("jan@example.com"));
+        assertFalse(documentIndex.isEmployeeDeleted("ewa@example.com")); // pliki usunięte, znacznik zbędny
+    }
+
+    // Test 4: Porzucone pliki uploadu w częściach i stare raporty błędów usuwane, trwający upload zostaje
+    @Test
+    void shouldSweepStaleChunkFilesAndOldReports() throws Exception {
+        ChunkedUpload active = fileStorageService.initChunkedUpload("duzy.csv", 16);
+        Path stale = active.getPartFile().resolveSibling("porzucony.part");
+        Files.write(stale, new byte[16]);
+        Files.setLastModifiedTime(stale, FileTime.from(Instant.now().minus(Duration.ofHours(2))));
+        Path report = fileStorageService.newErrorReportPath();
+        Files.writeString(report, "Wiersz 2: błąd");
+        Files.setLastModifiedTime(report, FileTime.from(Instant.now().minus(Duration.ofDays(31))));
+
+        collector(Duration.ofDays(1), 1000).runBatch();
+
+        assertTrue(Files.exists(active.getPartFile()));
+        assertFalse(Files.exists(stale));
+        assertFalse(Files.exists(report));
+    }
+}
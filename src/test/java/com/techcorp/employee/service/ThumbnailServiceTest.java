@@ -0,0 +1,92 @@
+package com.techcorp.employee.service;
+
+import com.techcorp.employee.exception.InvalidFileException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ThumbnailServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private ExecutorService executor;
+    private FileStorageService fileStorageService;
+    private ThumbnailService thumbnailService;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newSingleThreadExecutor();
+        fileStorageService = StorageFixture.fileStorage(tempDir);
+        thumbnailService = new ThumbnailService(fileStorageService, executor, 32, 20_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private void savePhoto(String email, int width, int height, int rgb) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                image.setRGB(x, y, rgb);
+            }
+        }
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", png);
+        fileStorageService.savePhoto(new MockMultipartFile("file", "photo.png", "image/png", png.toByteArray()), email);
+    }
+
+    // Test 1: Miniatura o stałym rozmiarze generowana na żądanie
+    @Test
+    void shouldGenerateMissingThumbnailOnDemand() throws IOException {
+        savePhoto("jan@example.com", 200, 100, 0xFF0000);
+
+        Path thumbnail = thumbnailService.getThumbnail("jan@example.com");
+
+        BufferedImage image = ImageIO.read(thumbnail.toFile());
+        assertEquals(32, image.getWidth());
+        assertEquals(32, image.getHeight());
+        assertTrue(thumbnail.startsWith(tempDir.resolve("uploads").resolve("photos")));
+    }
+
+    // Test 2: Generowanie w tle, nowe zdjęcie unieważnia miniaturę
+    @Test
+    void shouldRegenerateThumbnailAfterPhotoReplaced() throws Exception {
+        savePhoto("jan@example.com", 64, 64, 0xFF0000);
+        thumbnailService.generateAsync("jan@example.com");
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        Path thumbnail = fileStorageService.resolvePath("photos", "jan@example.com.thumb.png");
+        assertTrue(Files.exists(thumbnail));
+
+        savePhoto("jan@example.com", 64, 64, 0x0000FF);
+
+        BufferedImage image = ImageIO.read(thumbnailService.getThumbnail("jan@example.com").toFile());
+        assertEquals(0x0000FF, image.getRGB(16, 16) & 0xFFFFFF);
+    }
+
+    // Test 3: Zdjęcie o zbyt wielu pikselach odrzucane przed dekodowaniem
+    @Test
+    void shouldRejectPhotoAbovePixelLimit() throws IOException {
+        savePhoto("jan@example.com", 300, 100, 0xFF0000); // 30 000 pikseli > 20 000
+
+        assertThrows(InvalidFileException.class, () -> thumbnailService.getThumbnail("jan@example.com"));
+        assertFalse(Files.exists(fileStorageService.resolvePath("photos", "jan@example.com.thumb.png")));
+    }
+}
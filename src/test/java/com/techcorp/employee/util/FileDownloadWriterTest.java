@@ -0,0 +1,123 @@
+package com.techcorp.employee.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileDownloadWriterTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        file = tempDir.resolve("umowa.txt");
+        Files.writeString(file, "0123456789abcdefghij");
+    }
+
+    private MockHttpServletResponse download(MockHttpServletRequest request) throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FileDownloadWriter.write(file, "text/plain", "umowa.txt", request, response);
+        return response;
+    }
+
+    // Test 1: Cały plik z walidatorami, a ponowne żądanie z If-None-Match kończy się 304
+    @Test
+    void shouldSendWholeFileAndHonourIfNoneMatch() throws IOException {
+        MockHttpServletResponse full = download(new MockHttpServletRequest("GET", "/"));
+
+        assertEquals(200, full.getStatus());
+        assertEquals("0123456789abcdefghij", full.getContentAsString());
+        assertEquals("bytes", full.getHeader("Accept-Ranges"));
+        assertNotNull(full.getHeader("Last-Modified"));
+
+        MockHttpServletRequest conditional = new MockHttpServletRequest("GET", "/");
+        conditional.addHeader("If-None-Match", full.getHeader("ETag"));
+        MockHttpServletResponse notModified = download(conditional);
+
+        assertEquals(304, notModified.getStatus());
+        assertEquals(0, notModified.getContentAsByteArray().length);
+    }
+
+    // Test 2: Jeden zakres -> 206; If-Range z nieaktualnym ETag -> cały plik
+    @Test
+    void shouldSendSingleRangeOnlyForCurrentVersion() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader("Range", "bytes=10-");
+        MockHttpServletResponse partial = download(request);
+
+        assertEquals(206, partial.getStatus());
+        assertEquals("bytes 10-19/20", partial.getHeader("Content-Range"));
+        assertEquals("abcdefghij", partial.getContentAsString());
+
+        MockHttpServletRequest stale = new MockHttpServletRequest("GET", "/");
+        stale.addHeader("Range", "bytes=10-");
+        stale.addHeader("If-Range", "\"stary-etag\"");
+        MockHttpServletResponse full = download(stale);
+
+        assertEquals(200, full.getStatus());
+        assertEquals(20, full.getContentAsByteArray().length);
+    }
+
+    // Test 3: Kilka zakresów -> multipart/byteranges; zakres poza plikiem -> 416
+    @Test
+    void shouldSendMultipartByterangesAndRejectUnsatisfiableRange() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader("Range", "bytes=0-1,-2");
+        MockHttpServletResponse multipart = download(request);
+
+        assertEquals(206, multipart.getStatus());
+        assertTrue(multipart.getContentType().startsWith("multipart/byteranges; boundary="));
+        String body = multipart.getContentAsString();
+        assertTrue(body.contains("Content-Range: bytes 0-1/20\r\n\r\n01\r\n"));
+        assertTrue(body.contains("Content-Range: bytes 18-19/20\r\n\r\nij\r\n"));
+        assertEquals(multipart.getContentAsByteArray().length, multipart.getContentLengthLong());
+
+        MockHttpServletRequest outside = new MockHttpServletRequest("GET", "/");
+        outside.addHeader("Range", "bytes=50-60");
+        MockHttpServletResponse unsatisfiable = download(outside);
+
+        assertEquals(416, unsatisfiable.getStatus());
+        assertEquals("bytes */20", unsatisfiable.getHeader("Content-Range"));
+    }
+
+    // Test 4: Plik w gzip wysyłany bez rozpakowania albo rozpakowywany dla klienta bez obsługi gzip
+    @Test
+    void shouldSendGzippedFileAccordingToAcceptEncoding() throws IOException {
+        Path gz = tempDir.resolve("umowa.txt.gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(gz))) {
+            out.write("0123456789abcdefghij".getBytes(StandardCharsets.UTF_8));
+        }
+
+        MockHttpServletRequest accepting = new MockHttpServletRequest("GET", "/");
+        accepting.addHeader("Accept-Encoding", "gzip, deflate, br");
+        MockHttpServletResponse encoded = new MockHttpServletResponse();
+        FileDownloadWriter.writeGzipped(gz, "text/plain", "umowa.txt", accepting, encoded);
+
+        assertEquals("gzip", encoded.getHeader("Content-Encoding"));
+        assertArrayEquals(Files.readAllBytes(gz), encoded.getContentAsByteArray());
+
+        MockHttpServletRequest plain = new MockHttpServletRequest("GET", "/");
+        plain.addHeader("Accept-Encoding", "gzip;q=0, identity");
+        MockHttpServletResponse decoded = new MockHttpServletResponse();
+        FileDownloadWriter.writeGzipped(gz, "text/plain", "umowa.txt", plain, decoded);
+
+        assertNull(decoded.getHeader("Content-Encoding"));
+        assertEquals("0123456789abcdefghij", decoded.getContentAsString());
+        assertNotEquals(encoded.getHeader("ETag"), decoded.getHeader("ETag"));
+        assertEquals("Accept-Encoding", decoded.getHeader("Vary"));
+    }
+}